@@ -0,0 +1,56 @@
+package org.gbif.nameparser.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nullable;
+
+/**
+ * The non-blocking variant of the {@link NameParser} contract, returning a {@link CompletableFuture} that completes
+ * with the {@link ParseResult}. Callers can compose a parse with further asynchronous work without blocking their
+ * own thread.
+ * <p>
+ * The future only completes exceptionally if the parser itself fails, unparsable names still complete normally
+ * with a {@link ParseResult.Unparsable} result.
+ *
+ * @see org.gbif.nameparser.util.ExecutorAsyncNameParser to run any synchronous parser asynchronously
+ */
+public interface AsyncNameParser {
+
+  /**
+   * Asynchronously parses the supplied name.
+   *
+   * @see NameParser#parse(String, String, Rank, NomCode)
+   */
+  CompletableFuture<ParseResult> parseAsync(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code);
+
+  default CompletableFuture<ParseResult> parseAsync(String scientificName) {
+    return parseAsync(scientificName, null, Rank.UNRANKED, null);
+  }
+
+  default CompletableFuture<ParseResult> parseAsync(NameInput input) {
+    return parseAsync(input.scientificName(), input.authorship(), input.rank(), input.code());
+  }
+
+  /**
+   * Asynchronously parses a batch of names. The default implementation parses every name individually
+   * and completes once all of them are done.
+   *
+   * @return a future list of results of the same size and order as the given names
+   * @see NameParser#parseAll(List)
+   */
+  default CompletableFuture<List<ParseResult>> parseAllAsync(List<NameInput> names) {
+    List<CompletableFuture<ParseResult>> futures = new ArrayList<>(names.size());
+    for (NameInput n : names) {
+      futures.add(parseAsync(n));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(x -> {
+      List<ParseResult> results = new ArrayList<>(futures.size());
+      for (CompletableFuture<ParseResult> f : futures) {
+        results.add(f.join());
+      }
+      return results;
+    });
+  }
+}
@@ -5,6 +5,7 @@ import org.gbif.nameparser.util.NameFormatter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -15,13 +16,29 @@ import java.util.Objects;
  * <p>
  * The parsed authorship for basionyms does not include brackets.
  * Note that the sanctioning author for fungi is part of the ParsedName class.
+ * <p>
+ * Added authors, ex authors and years are deduplicated with the global {@link NamePartInterner}.
+ * The author lists are only allocated once authors are added or a list is requested.
+ * An authorship can be {@link #freeze() frozen}, after which it is immutable and all setters throw
+ * an {@link UnsupportedOperationException}.
  */
 public class Authorship {
 
+  /**
+   * Marks an author list that was never materialized, compared by identity.
+   * Declared first, as it is used when creating {@link #EMPTY}.
+   */
+  private static final List<String> UNSET = Collections.unmodifiableList(new ArrayList<>(0));
+
+  /**
+   * A frozen, empty authorship shared by all frozen names without such authorship.
+   */
+  public static final Authorship EMPTY = new Authorship().freeze();
+
   /**
    * list of authors.
    */
-  private List<String> authors = new ArrayList<>();
+  private List<String> authors = UNSET;
   
   /**
    * list of ex-authors excluding ex itself
@@ -29,7 +46,7 @@ public class Authorship {
    *   A = proposed the name (not validly published) → the ex-author
    *   B = validly published the name → the publishing/validating author
    */
-  private List<String> exAuthors = new ArrayList<>();
+  private List<String> exAuthors = UNSET;
 
   /**
    * The year the combination or basionym was first published, usually the same as the publishedIn reference.
@@ -51,6 +68,15 @@ public class Authorship {
    */
   private String imprintYear;
 
+  // true if the author list was created by this authorship and is not shared with the caller
+  private boolean ownsAuthors;
+  private boolean ownsExAuthors;
+
+  private boolean frozen;
+
+  // hash code cached once frozen, 0 if not yet computed
+  private int hash;
+
   public static Authorship authors(String... authors) {
     return yearAuthors(null, authors);
   }
@@ -79,6 +105,19 @@ public class Authorship {
     this.year = year;
   }
 
+  /**
+   * Copy constructor. The author lists are copied, so the copy does not share any mutable state with the source.
+   */
+  public Authorship(Authorship other) {
+    // a frozen source is copied into mutable lists too
+    this.authors = copyOf(other.authors);
+    this.ownsAuthors = authors != null && authors != UNSET;
+    this.exAuthors = copyOf(other.exAuthors);
+    this.ownsExAuthors = exAuthors != null && exAuthors != UNSET;
+    this.year = other.year;
+    this.imprintYear = other.imprintYear;
+  }
+
   /**
    * Returns {@code true} if the authors are null or an empty list, false otherwise
    */
@@ -86,19 +125,36 @@ public class Authorship {
     return authors != null && !authors.isEmpty();
   }
 
+  private static List<String> copyOf(List<String> list) {
+    if (list == null) {
+      return null;
+    }
+    return list.isEmpty() ? UNSET : new ArrayList<>(list);
+  }
+
   public List<String> getAuthors() {
+    if (authors == UNSET) {
+      authors = new ArrayList<>();
+      ownsAuthors = true;
+    }
     return authors;
   }
 
   public void addAuthor(String author) {
+    beforeModification();
     if (StringUtils.isNotBlank(author)) {
-      if (authors == null) authors = new ArrayList<>();
-      authors.add(author);
+      if (authors == null || authors == UNSET) {
+        authors = new ArrayList<>();
+        ownsAuthors = true;
+      }
+      authors.add(NamePartInterner.global().intern(author));
     }
   }
 
   public void setAuthors(List<String> authors) {
+    beforeModification();
     this.authors = authors;
+    ownsAuthors = false;
   }
 
   /**
@@ -109,17 +165,27 @@ public class Authorship {
   }
 
   public List<String> getExAuthors() {
+    if (exAuthors == UNSET) {
+      exAuthors = new ArrayList<>();
+      ownsExAuthors = true;
+    }
     return exAuthors;
   }
 
   public void addExAuthor(String author) {
+    beforeModification();
     if (StringUtils.isNotBlank(author)) {
-      if (exAuthors == null) exAuthors = new ArrayList<>();
-      exAuthors.add(author);
+      if (exAuthors == null || exAuthors == UNSET) {
+        exAuthors = new ArrayList<>();
+        ownsExAuthors = true;
+      }
+      exAuthors.add(NamePartInterner.global().intern(author));
     }
   }
   public void setExAuthors(List<String> exAuthors) {
+    beforeModification();
     this.exAuthors = exAuthors;
+    ownsExAuthors = false;
   }
   
   public String getYear() {
@@ -127,7 +193,8 @@ public class Authorship {
   }
   
   public void setYear(String year) {
-    this.year = year;
+    beforeModification();
+    this.year = NamePartInterner.global().intern(year);
   }
 
   public String getImprintYear() {
@@ -135,6 +202,7 @@ public class Authorship {
   }
 
   public void setImprintYear(String imprintYear) {
+    beforeModification();
     this.imprintYear = imprintYear;
   }
 
@@ -149,12 +217,77 @@ public class Authorship {
   public boolean exists() {
     return !isEmpty();
   }
+
+  /**
+   * Clears all values, keeping author lists created by this authorship for reuse.
+   * Lists given by the caller are released, never cleared.
+   */
+  void clear() {
+    beforeModification();
+    if (ownsAuthors) {
+      authors.clear();
+    } else {
+      authors = UNSET;
+    }
+    if (ownsExAuthors) {
+      exAuthors.clear();
+    } else {
+      exAuthors = UNSET;
+    }
+    year = null;
+    imprintYear = null;
+  }
+
+  /**
+   * Makes this authorship immutable, replacing the author lists with compact immutable copies.
+   *
+   * @return this authorship
+   */
+  public Authorship freeze() {
+    if (!frozen) {
+      authors = authors == null ? null : List.copyOf(authors);
+      exAuthors = exAuthors == null ? null : List.copyOf(exAuthors);
+      frozen = true;
+    }
+    return this;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * @return a frozen authorship equal to the given one without modifying it: the authorship itself if it is
+   *     frozen already, the shared {@link #EMPTY} instance if it equals a new authorship, or a frozen copy
+   */
+  static Authorship frozen(Authorship a) {
+    if (a == null || a.frozen) {
+      return a;
+    }
+    if (EMPTY.equals(a)) {
+      return EMPTY;
+    }
+    return new Authorship(a).freeze();
+  }
+
+  /**
+   * Called by all mutators.
+   *
+   * @throws UnsupportedOperationException if the authorship is frozen
+   */
+  protected void beforeModification() {
+    if (frozen) {
+      throw new UnsupportedOperationException("Authorship is frozen");
+    }
+  }
   
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     Authorship that = (Authorship) o;
+    // cheap discriminators first, cached hashes are only compared when both are known already
+    if (!Objects.equals(year, that.year) || hash != 0 && that.hash != 0 && hash != that.hash) return false;
     return Objects.equals(authors, that.authors) &&
         Objects.equals(exAuthors, that.exAuthors) &&
         Objects.equals(year, that.year) &&
@@ -163,7 +296,18 @@ public class Authorship {
   
   @Override
   public int hashCode() {
-    return Objects.hash(authors, exAuthors, year, imprintYear);
+    int h = hash;
+    if (h == 0) {
+      h = 1;
+      h = 31 * h + (authors == null ? 0 : authors.hashCode());
+      h = 31 * h + (exAuthors == null ? 0 : exAuthors.hashCode());
+      h = 31 * h + (year == null ? 0 : year.hashCode());
+      h = 31 * h + (imprintYear == null ? 0 : imprintYear.hashCode());
+      if (frozen) {
+        hash = h;
+      }
+    }
+    return h;
   }
   
   /**
@@ -2,18 +2,27 @@ package org.gbif.nameparser.api;
 
 import java.util.Objects;
 
+/**
+ * The combination, basionym and sanctioning authorship of a name.
+ * <p>
+ * Both authorships start out as the shared {@link Authorship#EMPTY} instance and are only allocated
+ * when first requested through their getter, so names without authors carry no authorship objects.
+ * <p>
+ * Once {@link #freeze() frozen} the instance is immutable: all setters throw an {@link UnsupportedOperationException}
+ * and the authorship objects are frozen too.
+ */
 public class CombinedAuthorship implements CombinedAuthorshipIF {
 
   /**
    * Authorship with years of the name, but excluding any basionym authorship.
    * For binomials the combination authors.
    */
-  private Authorship combinationAuthorship = new Authorship();
+  private Authorship combinationAuthorship = Authorship.EMPTY;
 
   /**
    * Basionym authorship with years of the name
    */
-  private Authorship basionymAuthorship = new Authorship();
+  private Authorship basionymAuthorship = Authorship.EMPTY;
 
   /**
    * The sanctioning author for sanctioned fungal names.
@@ -21,6 +30,15 @@ public class CombinedAuthorship implements CombinedAuthorshipIF {
    */
   private String sanctioningAuthor;
 
+  // true if the authorship was created by the getter and is not shared with other instances
+  private boolean ownsCombination;
+  private boolean ownsBasionym;
+
+  private boolean frozen;
+
+  // hash code cached once frozen, 0 if not yet computed
+  private int hash;
+
 
   @Override
   public boolean hasCombinationAuthorship() {
@@ -29,11 +47,17 @@ public class CombinedAuthorship implements CombinedAuthorshipIF {
 
   @Override
   public Authorship getCombinationAuthorship() {
+    if (combinationAuthorship == Authorship.EMPTY && !frozen) {
+      combinationAuthorship = new Authorship();
+      ownsCombination = true;
+    }
     return combinationAuthorship;
   }
 
   public void setCombinationAuthorship(Authorship combinationAuthorship) {
+    beforeModification();
     this.combinationAuthorship = combinationAuthorship;
+    ownsCombination = false;
   }
 
   @Override
@@ -43,11 +67,17 @@ public class CombinedAuthorship implements CombinedAuthorshipIF {
 
   @Override
   public Authorship getBasionymAuthorship() {
+    if (basionymAuthorship == Authorship.EMPTY && !frozen) {
+      basionymAuthorship = new Authorship();
+      ownsBasionym = true;
+    }
     return basionymAuthorship;
   }
 
   public void setBasionymAuthorship(Authorship basionymAuthorship) {
+    beforeModification();
     this.basionymAuthorship = basionymAuthorship;
+    ownsBasionym = false;
   }
 
   @Override
@@ -56,6 +86,7 @@ public class CombinedAuthorship implements CombinedAuthorshipIF {
   }
 
   public void setSanctioningAuthor(String sanctioningAuthor) {
+    beforeModification();
     this.sanctioningAuthor = sanctioningAuthor;
   }
 
@@ -67,17 +98,113 @@ public class CombinedAuthorship implements CombinedAuthorshipIF {
     return (combinationAuthorship != null && combinationAuthorship.exists()) || (basionymAuthorship != null && basionymAuthorship.exists());
   }
 
+  /**
+   * Copies the combination, basionym and sanctioning authorship from another instance
+   * without materializing authorships that were never requested.
+   * Authorships the other instance created through its getters and frozen ones are copied into new mutable instances
+   * owned by this one, all others are shared by reference. The other instance is only read, never modified.
+   */
+  void copyAuthorship(CombinedAuthorship other) {
+    beforeModification();
+    combinationAuthorship = copyOf(other.combinationAuthorship, other.ownsCombination);
+    ownsCombination = combinationAuthorship != other.combinationAuthorship;
+    basionymAuthorship = copyOf(other.basionymAuthorship, other.ownsBasionym);
+    ownsBasionym = basionymAuthorship != other.basionymAuthorship;
+    sanctioningAuthor = other.sanctioningAuthor;
+  }
+
+  /**
+   * @return the given authorship if it is shared and mutable or the lazy {@link Authorship#EMPTY} instance,
+   *     a mutable copy otherwise
+   */
+  private static Authorship copyOf(Authorship a, boolean owned) {
+    return a == null || a == Authorship.EMPTY || !owned && !a.isFrozen() ? a : new Authorship(a);
+  }
+
+  /**
+   * Clears all values so the instance can be reused.
+   * Authorships created by the getters are cleared in place, shared ones are released.
+   * Objects previously handed out by the getters must therefore not be used after a reset.
+   *
+   * @throws UnsupportedOperationException if the instance is frozen
+   */
+  public void reset() {
+    beforeModification();
+    if (ownsCombination) {
+      combinationAuthorship.clear();
+    } else {
+      combinationAuthorship = Authorship.EMPTY;
+    }
+    if (ownsBasionym) {
+      basionymAuthorship.clear();
+    } else {
+      basionymAuthorship = Authorship.EMPTY;
+    }
+    sanctioningAuthor = null;
+  }
+
+  /**
+   * Makes this instance immutable. The authorship objects are replaced by frozen copies, so authorships shared
+   * with other instances are not affected, and empty ones by the shared {@link Authorship#EMPTY} instance.
+   *
+   * @return this instance
+   */
+  public CombinedAuthorship freeze() {
+    if (!frozen) {
+      combinationAuthorship = Authorship.frozen(combinationAuthorship);
+      basionymAuthorship = Authorship.frozen(basionymAuthorship);
+      frozen = true;
+    }
+    return this;
+  }
+
+  public boolean isFrozen() {
+    return frozen;
+  }
+
+  /**
+   * Called by all mutators before they change any state.
+   *
+   * @throws UnsupportedOperationException if the instance is frozen
+   */
+  protected void beforeModification() {
+    if (frozen) {
+      throw new UnsupportedOperationException(getClass().getSimpleName() + " is frozen");
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
     if (!(o instanceof CombinedAuthorship that)) return false;
+    // cached hashes are only comparable when both sides compute them the same way
+    if (getClass() == that.getClass() && hash != 0 && that.hash != 0 && hash != that.hash) return false;
     return Objects.equals(combinationAuthorship, that.combinationAuthorship)
         && Objects.equals(basionymAuthorship, that.basionymAuthorship)
         && Objects.equals(sanctioningAuthor, that.sanctioningAuthor);
   }
 
+  /**
+   * Computes the hash code without allocating and caches it once the instance is frozen.
+   * Subclasses add their fields by overriding {@link #computeHashCode()}.
+   */
   @Override
   public int hashCode() {
-    return Objects.hash(combinationAuthorship, basionymAuthorship, sanctioningAuthor);
+    int h = hash;
+    if (h == 0) {
+      h = computeHashCode();
+      if (frozen) {
+        hash = h;
+      }
+    }
+    return h;
+  }
+
+  protected int computeHashCode() {
+    int h = 1;
+    h = 31 * h + (combinationAuthorship == null ? 0 : combinationAuthorship.hashCode());
+    h = 31 * h + (basionymAuthorship == null ? 0 : basionymAuthorship.hashCode());
+    h = 31 * h + (sanctioningAuthor == null ? 0 : sanctioningAuthor.hashCode());
+    return h;
   }
 }
@@ -0,0 +1,33 @@
+package org.gbif.nameparser.api;
+
+import javax.annotation.Nullable;
+
+/**
+ * The full input of a single {@link NameParser#parse(String, String, Rank, NomCode)} call, bundled as a value
+ * so names can be handed to the parser in batches (see {@link NameParser#parseAll(java.util.List)}).
+ * <p>
+ * Two inputs are equal if all four parts are equal, so a {@code NameInput} can be used as a key to deduplicate
+ * or cache parse results.
+ *
+ * @param scientificName the full scientific name to parse. May already contain an authorship
+ * @param authorship     the full scientific name authorship to parse, if given separately
+ * @param rank           the rank of the name if it is known externally
+ * @param code           the nomenclatural code the name falls into. Null if unknown
+ */
+public record NameInput(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+
+  public NameInput(String scientificName) {
+    this(scientificName, null, Rank.UNRANKED, null);
+  }
+
+  public NameInput(String scientificName, Rank rank) {
+    this(scientificName, null, rank, null);
+  }
+
+  /**
+   * @return the combined length of the scientific name and the authorship, i.e. the amount of text to be parsed
+   */
+  public int length() {
+    return (scientificName == null ? 0 : scientificName.length()) + (authorship == null ? 0 : authorship.length());
+  }
+}
@@ -1,5 +1,7 @@
 package org.gbif.nameparser.api;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import javax.annotation.Nullable;
@@ -40,6 +42,64 @@ public interface NameParser {
     return parse(scientificName, null, rank, null);
   }
 
+  default ParseResult parse(NameInput input) {
+    return parse(input.scientificName(), input.authorship(), input.rank(), input.code());
+  }
+
+  /**
+   * Parses a name into a caller owned, mutable {@link ParsedName} instead of returning a new result,
+   * so batch pipelines can reuse one instance per worker thread and serialize it right away.
+   * The target is {@link ParsedName#reset() reset} first and then holds:
+   * <ul>
+   *   <li>{@link ParseResult.Variant#PARSED}: the parsed name</li>
+   *   <li>{@link ParseResult.Variant#INFORMAL}: the structured form as given by {@link ParseResult.Informal#toParsedName()}</li>
+   *   <li>{@link ParseResult.Variant#UNPARSABLE}: the name type and code, state {@link ParsedName.State#NONE}
+   *   and the verbatim name as {@link ParsedName#getUnparsed() unparsed}</li>
+   * </ul>
+   * The default implementation copies the result of {@link #parse(String, String, Rank, NomCode)} into the target.
+   * Implementations building names themselves can override it to write into the target directly.
+   *
+   * @param target a mutable name to overwrite
+   * @return the variant of the result written to the target
+   */
+  default ParseResult.Variant parseInto(ParsedName target, String scientificName, @Nullable String authorship,
+                                        @Nullable Rank rank, @Nullable NomCode code) {
+    ParseResult result = parse(scientificName, authorship, rank, code);
+    target.reset();
+    if (result instanceof ParseResult.Parsed p) {
+      target.copy(p.name());
+    } else if (result instanceof ParseResult.Informal i) {
+      i.copyTo(target);
+    } else {
+      target.setType(result.type());
+      target.setCode(result.code());
+      target.setUnparsed(((ParseResult.Unparsable) result).name());
+    }
+    return result.variant();
+  }
+
+  default ParseResult.Variant parseInto(ParsedName target, NameInput input) {
+    return parseInto(target, input.scientificName(), input.authorship(), input.rank(), input.code());
+  }
+
+  /**
+   * Parses a batch of names, returning one {@link ParseResult} per input in the same order.
+   * <p>
+   * The default implementation simply calls {@link #parse(NameInput)} for every input. Implementations
+   * with a costly per-call overhead, e.g. the native binding crossing the FFI boundary, should override this
+   * to marshal the whole batch in one go.
+   *
+   * @param names the names to parse, none of them null
+   * @return a list of results of the same size and order as the given names
+   */
+  default List<ParseResult> parseAll(List<NameInput> names) {
+    List<ParseResult> results = new ArrayList<>(names.size());
+    for (NameInput n : names) {
+      results.add(parse(n));
+    }
+    return results;
+  }
+
   /**
    * Parses only the authorship part of a scientific name.
    *
@@ -0,0 +1,47 @@
+package org.gbif.nameparser.api;
+
+import java.util.Objects;
+
+/**
+ * Deduplicates the strings of name parts and authors, so that identical genera, epithets or authors of many
+ * names share a single instance. This reduces the retained heap of large result sets and speeds up equality
+ * checks, which can return early on identical references.
+ * <p>
+ * The setters of {@link ParsedName} for uninomial, genus and epithets and the author and year mutators of
+ * {@link Authorship} route their values through the {@link #global() global} interner.
+ * It is {@link #NONE} by default, which keeps the values as they are.
+ *
+ * <pre>{@code
+ * NamePartInterner.setGlobal(new BoundedNamePartInterner(1 << 20));
+ * }</pre>
+ * Implementations must be thread safe and return a string equal to the given one.
+ *
+ * @see org.gbif.nameparser.util.BoundedNamePartInterner
+ */
+@FunctionalInterface
+public interface NamePartInterner {
+
+  /**
+   * Does not intern at all and returns every value as it is.
+   */
+  NamePartInterner NONE = value -> value;
+
+  /**
+   * @return a string equal to the given value, preferably a shared instance. Null for null
+   */
+  String intern(String value);
+
+  /**
+   * @return the interner used by the model classes
+   */
+  static NamePartInterner global() {
+    return NamePartInternerHolder.interner;
+  }
+
+  /**
+   * Sets the interner used by all model classes from now on. Use {@link #NONE} to switch interning off again.
+   */
+  static void setGlobal(NamePartInterner interner) {
+    NamePartInternerHolder.interner = Objects.requireNonNull(interner);
+  }
+}
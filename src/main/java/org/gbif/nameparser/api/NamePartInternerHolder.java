@@ -0,0 +1,11 @@
+package org.gbif.nameparser.api;
+
+/**
+ * Holds the global {@link NamePartInterner}, as interfaces cannot have mutable fields.
+ */
+class NamePartInternerHolder {
+  static volatile NamePartInterner interner = NamePartInterner.NONE;
+
+  private NamePartInternerHolder() {
+  }
+}
@@ -1,5 +1,6 @@
 package org.gbif.nameparser.api;
 
+import org.gbif.nameparser.util.NameFingerprint;
 import org.gbif.nameparser.util.NameFormatter;
 
 import java.util.Optional;
@@ -21,6 +22,17 @@ import javax.annotation.Nullable;
  */
 public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Informal, ParseResult.Unparsable {
 
+  /**
+   * The three kinds of results, e.g. for metrics or as returned by
+   * {@link NameParser#parseInto(ParsedName, String, String, Rank, NomCode)}.
+   */
+  enum Variant {
+    PARSED, INFORMAL, UNPARSABLE
+  }
+
+  /** The kind of this result. */
+  Variant variant();
+
   /** The name type, available whether or not the name was parsable. */
   NameType type();
 
@@ -71,6 +83,11 @@ public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Info
       }
     }
 
+    @Override
+    public Variant variant() {
+      return Variant.PARSED;
+    }
+
     @Override
     public NameType type() {
       return name.getType();
@@ -121,6 +138,11 @@ public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Info
       }
     }
 
+    @Override
+    public Variant variant() {
+      return Variant.INFORMAL;
+    }
+
     @Override
     public NameType type() {
       return NameType.INFORMAL;
@@ -146,6 +168,22 @@ public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Info
      */
     public ParsedName toParsedName() {
       ParsedName pn = new ParsedName();
+      copyTo(pn);
+      return pn;
+    }
+
+    /**
+     * @return a stable 64-bit fingerprint, equal to the one of the {@link #toParsedName() structured form}
+     * @see NameFingerprint#of(ParseResult.Informal)
+     */
+    public long fingerprint() {
+      return NameFingerprint.of(this);
+    }
+
+    /**
+     * Writes the {@link #toParsedName() structured form} into an empty name.
+     */
+    void copyTo(ParsedName pn) {
       pn.setType(NameType.INFORMAL);
       pn.setRank(rank);
       pn.setCode(code);
@@ -155,7 +193,6 @@ public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Info
       } else {
         pn.setUninomial(taxon);
       }
-      return pn;
     }
   }
 
@@ -178,6 +215,11 @@ public sealed interface ParseResult permits ParseResult.Parsed, ParseResult.Info
       this(type, null, name);
     }
 
+    @Override
+    public Variant variant() {
+      return Variant.UNPARSABLE;
+    }
+
     @Override
     public Optional<ParsedName> parsed() {
       return Optional.empty();
@@ -3,7 +3,11 @@ package org.gbif.nameparser.api;
 import org.apache.commons.lang3.StringUtils;
 import org.gbif.nameparser.util.NameFormatter;
 
-import java.util.HashSet;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
 
@@ -20,53 +24,101 @@ public class ParsedAuthorship extends CombinedAuthorship {
   protected boolean extinct;
 
   /**
-   * Taxonomic concept remarks of the name.
-   * For example sensu Miller, sec. Pyle 2007, s.l., etc.
+   * The rarely used notes, references and unparsed remainder, only allocated once any of them is set.
    */
-  private String taxonomicNote;
-  
-  /**
-   * Nomenclatural status remarks of the name.
-   */
-  private String nomenclaturalNote;
+  private Notes notes;
 
   /**
-   * In reference stripped from the authorship
+   * Indicates some doubts that this is a name of the given type.
+   * Usually indicates the existance of unusual characters not normally found in scientific names.
    */
-  private String publishedIn;
+  private boolean doubtful;
 
   /**
-   * The publication year extracted from {@link #publishedIn}, if the reference carries one.
-   * The year is left in {@link #publishedIn} verbatim; this is only an additional structured copy.
+   * Indicates a manuscript name identified by ined. or ms.
+   * Can be either of type scientific name or informal
    */
-  private Integer publishedInYear;
+  private boolean manuscript;
 
+  private ParsedName.State state = ParsedName.State.NONE;
+  
   /**
-   * The exact page of the in reference stripped from the authorship
+   * The standard {@link Warning}s as a bitmask indexed by ordinal.
    */
-  private String publishedInPage;
+  private long warningMask;
 
   /**
-   * Any additional unparsed string found at the end of the name.
-   * Only ever set when state=PARTIAL
+   * Free text warnings without a {@link Warning} constant, only allocated once one is added.
    */
-  private String unparsed;
+  private Set<String> otherWarnings;
 
   /**
-   * Indicates some doubts that this is a name of the given type.
-   * Usually indicates the existance of unusual characters not normally found in scientific names.
+   * Holds the rarely populated fields of a parsed authorship, keeping the main object small.
    */
-  private boolean doubtful;
+  private static class Notes {
+    /**
+     * Taxonomic concept remarks of the name.
+     * For example sensu Miller, sec. Pyle 2007, s.l., etc.
+     */
+    private String taxonomicNote;
+
+    /**
+     * Nomenclatural status remarks of the name.
+     */
+    private String nomenclaturalNote;
+
+    /**
+     * In reference stripped from the authorship
+     */
+    private String publishedIn;
+
+    /**
+     * The publication year extracted from {@link #publishedIn}, if the reference carries one.
+     * The year is left in {@link #publishedIn} verbatim; this is only an additional structured copy.
+     */
+    private Integer publishedInYear;
+
+    /**
+     * The exact page of the in reference stripped from the authorship
+     */
+    private String publishedInPage;
+
+    /**
+     * Any additional unparsed string found at the end of the name.
+     * Only ever set when state=PARTIAL
+     */
+    private String unparsed;
+
+    Notes() {
+    }
 
-  /**
-   * Indicates a manuscript name identified by ined. or ms.
-   * Can be either of type scientific name or informal
-   */
-  private boolean manuscript;
+    Notes(Notes other) {
+      copy(other);
+    }
 
-  private ParsedName.State state = ParsedName.State.NONE;
-  
-  private Set<String> warnings = new HashSet<>();
+    void copy(Notes other) {
+      taxonomicNote = other.taxonomicNote;
+      nomenclaturalNote = other.nomenclaturalNote;
+      publishedIn = other.publishedIn;
+      publishedInYear = other.publishedInYear;
+      publishedInPage = other.publishedInPage;
+      unparsed = other.unparsed;
+    }
+
+    void clear() {
+      taxonomicNote = null;
+      nomenclaturalNote = null;
+      publishedIn = null;
+      publishedInYear = null;
+      publishedInPage = null;
+      unparsed = null;
+    }
+
+    boolean isEmpty() {
+      return taxonomicNote == null && nomenclaturalNote == null && publishedIn == null && publishedInYear == null
+          && publishedInPage == null && unparsed == null;
+    }
+  }
 
   public ParsedAuthorship() {
   }
@@ -78,62 +130,81 @@ public class ParsedAuthorship extends CombinedAuthorship {
   /**
    * Copies all values from the given parsed authorship.
    * <p>
-   * The mutable collection {@code warnings} is deep-copied, so the copy and the source do not share it.
-   * The {@link Authorship} objects (combination / basionym) are shared by reference, however: a copy and
-   * its source point at the same authorship instances, so mutating one authorship is visible from both.
+   * The warnings are copied, so the copy and the source do not share them.
+   * Internal objects already allocated by this instance are reused.
+   * The {@link Authorship} objects (combination / basionym) set through the setters are shared by reference, however:
+   * a copy and its source point at the same authorship instances, so mutating one authorship is visible from both.
+   * Authorships created by the source's getters and frozen ones are copied instead, so a copy of a frozen instance
+   * is fully mutable and the source is never modified by copying it.
    */
   public void copy(ParsedAuthorship pa) {
-    setCombinationAuthorship(pa.getCombinationAuthorship());
-    setBasionymAuthorship(pa.getBasionymAuthorship());
-    setSanctioningAuthor(pa.getSanctioningAuthor());
-    taxonomicNote = pa.getTaxonomicNote();
-    nomenclaturalNote = pa.getNomenclaturalNote();
-    publishedIn = pa.getPublishedIn();
-    publishedInYear = pa.getPublishedInYear();
-    publishedInPage = pa.getPublishedInPage();
-    unparsed = pa.getUnparsed();
+    if (pa == this) {
+      return;
+    }
+    copyAuthorship(pa);
+    // side objects of this instance are reused, they are never shared
+    if (notes != null) {
+      if (pa.notes == null) {
+        notes.clear();
+      } else {
+        notes.copy(pa.notes);
+      }
+    } else if (pa.notes != null) {
+      notes = new Notes(pa.notes);
+    }
     doubtful = pa.doubtful;
     manuscript = pa.manuscript;
     state = pa.state;
-    warnings = pa.warnings == null ? new HashSet<>() : new HashSet<>(pa.warnings);
+    warningMask = pa.warningMask;
+    if (otherWarnings != null) {
+      otherWarnings.clear();
+      if (pa.otherWarnings != null) {
+        otherWarnings.addAll(pa.otherWarnings);
+      }
+    } else if (pa.otherWarnings != null && !pa.otherWarnings.isEmpty()) {
+      otherWarnings = new LinkedHashSet<>(pa.otherWarnings);
+    }
     extinct = pa.extinct;
   }
 
   public String getNomenclaturalNote() {
-    return nomenclaturalNote;
+    return notes == null ? null : notes.nomenclaturalNote;
   }
   
   public void setNomenclaturalNote(String nomenclaturalNote) {
-    this.nomenclaturalNote = nomenclaturalNote;
+    notes(nomenclaturalNote).nomenclaturalNote = nomenclaturalNote;
   }
   
   public void addNomenclaturalNote(String note) {
     if (!StringUtils.isBlank(note)) {
-      this.nomenclaturalNote = nomenclaturalNote == null ? note.trim() : nomenclaturalNote + " " + note.trim();
+      String current = getNomenclaturalNote();
+      setNomenclaturalNote(current == null ? note.trim() : current + " " + note.trim());
     }
   }
 
   public String getPublishedIn() {
-    return publishedIn;
+    return notes == null ? null : notes.publishedIn;
   }
 
   /**
    * Sets the publishedIn reference and, in addition, extracts its publication year into
-   * {@link #publishedInYear} (the year stays in the reference string verbatim). When several
+   * {@link #getPublishedInYear() publishedInYear} (the year stays in the reference string verbatim). When several
    * year-shaped numbers are present the last one is taken — publication references list page
    * numbers (which can look like years) before the trailing year.
    */
   public void setPublishedIn(String publishedIn) {
-    this.publishedIn = publishedIn;
-    this.publishedInYear = extractYear(publishedIn);
+    Integer year = extractYear(publishedIn);
+    Notes n = notes(publishedIn != null ? publishedIn : year);
+    n.publishedIn = publishedIn;
+    n.publishedInYear = year;
   }
 
   public Integer getPublishedInYear() {
-    return publishedInYear;
+    return notes == null ? null : notes.publishedInYear;
   }
 
   public void setPublishedInYear(Integer publishedInYear) {
-    this.publishedInYear = publishedInYear;
+    notes(publishedInYear).publishedInYear = publishedInYear;
   }
 
   /** 4-digit year in the range 1500–2100, standing as its own token. */
@@ -151,19 +222,34 @@ public class ParsedAuthorship extends CombinedAuthorship {
   }
 
   public String getPublishedInPage() {
-    return publishedInPage;
+    return notes == null ? null : notes.publishedInPage;
   }
 
   public void setPublishedInPage(String publishedInPage) {
-    this.publishedInPage = publishedInPage;
+    notes(publishedInPage).publishedInPage = publishedInPage;
   }
 
   public String getTaxonomicNote() {
-    return taxonomicNote;
+    return notes == null ? null : notes.taxonomicNote;
   }
   
   public void setTaxonomicNote(String taxonomicNote) {
-    this.taxonomicNote = taxonomicNote;
+    notes(taxonomicNote).taxonomicNote = taxonomicNote;
+  }
+
+  /**
+   * Returns the notes to modify, allocating them only if a non null value is going to be set.
+   * Setting null on absent notes writes to a throwaway instance instead.
+   */
+  private Notes notes(Object value) {
+    beforeModification();
+    if (notes == null) {
+      if (value == null) {
+        return new Notes();
+      }
+      notes = new Notes();
+    }
+    return notes;
   }
   
   public boolean isManuscript() {
@@ -171,20 +257,22 @@ public class ParsedAuthorship extends CombinedAuthorship {
   }
   
   public void setManuscript(boolean manuscript) {
+    beforeModification();
     this.manuscript = manuscript;
   }
   
   public String getUnparsed() {
-    return unparsed;
+    return notes == null ? null : notes.unparsed;
   }
   
   public void setUnparsed(String unparsed) {
-    this.unparsed = unparsed;
+    notes(unparsed).unparsed = unparsed;
   }
   
   public void addUnparsed(String unparsed) {
     if (!StringUtils.isBlank(unparsed)) {
-      this.unparsed = this.unparsed == null ? unparsed : this.unparsed + unparsed;
+      String current = getUnparsed();
+      setUnparsed(current == null ? unparsed : current + unparsed);
     }
   }
 
@@ -193,6 +281,7 @@ public class ParsedAuthorship extends CombinedAuthorship {
   }
   
   public void setState(ParsedName.State state) {
+    beforeModification();
     this.state = state;
   }
 
@@ -201,16 +290,143 @@ public class ParsedAuthorship extends CombinedAuthorship {
   }
   
   public void setDoubtful(boolean doubtful) {
+    beforeModification();
     this.doubtful = doubtful;
   }
   
+  /**
+   * @return a live view of all warnings, the standard ones first.
+   *     Changes to the view, if permitted, are written through to this instance.
+   */
   public Set<String> getWarnings() {
-    return warnings;
+    return new WarningView();
   }
   
   public void addWarning(String... warnings) {
+    beforeModification();
     for (String warn : warnings) {
-      this.warnings.add(warn);
+      addWarning(warn);
+    }
+  }
+
+  public void addWarning(Warning... warnings) {
+    beforeModification();
+    for (Warning warn : warnings) {
+      warningMask |= warn.mask();
+    }
+  }
+
+  public boolean hasWarning(Warning warning) {
+    return warning.isSet(warningMask);
+  }
+
+  /**
+   * @return the standard warnings of this name as a bitmask, see {@link Warning#fromMask(long)}
+   *     and {@link Warning#count(long, long[])}
+   */
+  public long getWarningMask() {
+    return warningMask;
+  }
+
+  private boolean addWarning(String warn) {
+    Warning w = Warning.of(warn);
+    if (w != null) {
+      long before = warningMask;
+      warningMask |= w.mask();
+      return before != warningMask;
+    }
+    if (otherWarnings == null) {
+      otherWarnings = new LinkedHashSet<>();
+    }
+    return otherWarnings.add(warn);
+  }
+
+  private boolean removeWarning(Object warn) {
+    Warning w = warn instanceof String ? Warning.of((String) warn) : null;
+    if (w != null) {
+      long before = warningMask;
+      warningMask &= ~w.mask();
+      return before != warningMask;
+    }
+    return otherWarnings != null && otherWarnings.remove(warn);
+  }
+
+  private Set<String> otherWarnings() {
+    return otherWarnings == null ? Collections.emptySet() : otherWarnings;
+  }
+
+  /**
+   * The warnings as a set of strings, built from the mask and the free text warnings on access.
+   */
+  private class WarningView extends AbstractSet<String> {
+
+    @Override
+    public int size() {
+      return Long.bitCount(warningMask) + otherWarnings().size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      Warning w = o instanceof String ? Warning.of((String) o) : null;
+      return w != null ? w.isSet(warningMask) : otherWarnings().contains(o);
+    }
+
+    @Override
+    public boolean add(String warn) {
+      beforeModification();
+      return addWarning(warn);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+      beforeModification();
+      return removeWarning(o);
+    }
+
+    @Override
+    public void clear() {
+      beforeModification();
+      warningMask = 0;
+      otherWarnings = null;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<>() {
+        private long bits = warningMask;
+        private final Iterator<String> others = otherWarnings().iterator();
+        private Warning last;
+
+        @Override
+        public boolean hasNext() {
+          return bits != 0 || others.hasNext();
+        }
+
+        @Override
+        public String next() {
+          if (bits != 0) {
+            last = Warning.get(Long.numberOfTrailingZeros(bits));
+            bits &= bits - 1;
+            return last.message();
+          }
+          if (!others.hasNext()) {
+            throw new NoSuchElementException();
+          }
+          last = null;
+          return others.next();
+        }
+
+        @Override
+        public void remove() {
+          beforeModification();
+          if (last != null) {
+            warningMask &= ~last.mask();
+            last = null;
+          } else {
+            others.remove();
+          }
+        }
+      };
     }
   }
 
@@ -219,9 +435,50 @@ public class ParsedAuthorship extends CombinedAuthorship {
   }
 
   public void setExtinct(boolean extinct) {
+    beforeModification();
     this.extinct = extinct;
   }
 
+  /**
+   * Clears all values so the instance can be reused, e.g. by
+   * {@link NameParser#parseInto(ParsedName, String, String, Rank, NomCode)}.
+   * The internal side objects are kept for reuse, see also {@link CombinedAuthorship#reset()}.
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    extinct = false;
+    if (notes != null) {
+      notes.clear();
+    }
+    doubtful = false;
+    manuscript = false;
+    state = ParsedName.State.NONE;
+    warningMask = 0;
+    if (otherWarnings != null) {
+      otherWarnings.clear();
+    }
+  }
+
+  /**
+   * Makes this instance immutable. In addition to the authorships the free text warnings become an unmodifiable set
+   * keeping their insertion order and empty notes are dropped. The instance is modified in place, use a copy to keep a mutable version.
+   *
+   * @return this instance
+   */
+  @Override
+  public ParsedAuthorship freeze() {
+    if (!isFrozen()) {
+      otherWarnings = otherWarnings == null || otherWarnings.isEmpty() ? null
+          : Collections.unmodifiableSet(new LinkedHashSet<>(otherWarnings));
+      if (notes != null && notes.isEmpty()) {
+        notes = null;
+      }
+    }
+    super.freeze();
+    return this;
+  }
+
   /**
    * @see NameFormatter#authorshipComplete(ParsedAuthorship, NomCode)
    */
@@ -233,24 +490,38 @@ public class ParsedAuthorship extends CombinedAuthorship {
   public boolean equals(Object o) {
     if (this == o) return true;
     if (!(o instanceof ParsedAuthorship that)) return false;
+    if (state != that.state) return false;
     if (!super.equals(o)) return false;
 
     return extinct == that.extinct &&
         doubtful == that.doubtful &&
         manuscript == that.manuscript &&
-        Objects.equals(taxonomicNote, that.taxonomicNote) &&
-        Objects.equals(nomenclaturalNote, that.nomenclaturalNote) &&
-        Objects.equals(publishedIn, that.publishedIn) &&
-        Objects.equals(publishedInYear, that.publishedInYear) &&
-        Objects.equals(publishedInPage, that.publishedInPage) &&
-        Objects.equals(unparsed, that.unparsed) &&
+        Objects.equals(getTaxonomicNote(), that.getTaxonomicNote()) &&
+        Objects.equals(getNomenclaturalNote(), that.getNomenclaturalNote()) &&
+        Objects.equals(getPublishedIn(), that.getPublishedIn()) &&
+        Objects.equals(getPublishedInYear(), that.getPublishedInYear()) &&
+        Objects.equals(getPublishedInPage(), that.getPublishedInPage()) &&
+        Objects.equals(getUnparsed(), that.getUnparsed()) &&
         state == that.state &&
-        Objects.equals(warnings, that.warnings);
+        warningMask == that.warningMask &&
+        otherWarnings().equals(that.otherWarnings());
   }
 
   @Override
-  public int hashCode() {
-    return Objects.hash(super.hashCode(), extinct, taxonomicNote, nomenclaturalNote, publishedIn, publishedInYear, publishedInPage, unparsed, doubtful, manuscript, state, warnings);
+  protected int computeHashCode() {
+    int h = super.computeHashCode();
+    h = 31 * h + Boolean.hashCode(extinct);
+    h = 31 * h + Boolean.hashCode(doubtful);
+    h = 31 * h + Boolean.hashCode(manuscript);
+    h = 31 * h + (state == null ? 0 : state.hashCode());
+    h = 31 * h + Objects.hashCode(getTaxonomicNote());
+    h = 31 * h + Objects.hashCode(getNomenclaturalNote());
+    h = 31 * h + Objects.hashCode(getPublishedIn());
+    h = 31 * h + Objects.hashCode(getPublishedInYear());
+    h = 31 * h + Objects.hashCode(getPublishedInPage());
+    h = 31 * h + Objects.hashCode(getUnparsed());
+    h = 31 * h + Long.hashCode(warningMask);
+    return 31 * h + otherWarnings().hashCode();
   }
 
   @Override
@@ -1,10 +1,12 @@
 package org.gbif.nameparser.api;
 
 import org.apache.commons.lang3.ObjectUtils;
+import org.gbif.nameparser.util.NameFingerprint;
 import org.gbif.nameparser.util.NameFormatter;
 
 import javax.annotation.Nonnull;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.gbif.nameparser.util.NameFormatter.HYBRID_MARKER;
 
@@ -12,6 +14,11 @@ import static org.gbif.nameparser.util.NameFormatter.HYBRID_MARKER;
  * The structured form of a parsed scientific name: the Linnean name parts (uninomial / genus /
  * subgenus / epithets), its {@link Rank}, {@link NomCode} and {@link NameType}, the hybrid, cultivar
  * and phrase details, plus the authorship and parse {@link State} inherited from {@link ParsedAuthorship}.
+ * <p>
+ * Rarely used parts (generic and specific authorship, cultivar epithet, phrase, original spelling and
+ * epithet qualifiers) live in a side object that is only allocated when one of them is set.
+ * A name can be {@link #freeze() frozen} to make it immutable and compact for long-lived result sets.
+ * The uninomial, genus and epithet setters deduplicate their values with the global {@link NamePartInterner}.
  */
 public class ParsedName extends ParsedAuthorship implements LinneanName {
   /**
@@ -61,8 +68,6 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
    */
   private String genus;
 
-  private CombinedAuthorship genericAuthorship;
-
   /**
    * The infrageneric epithet.
    */
@@ -70,21 +75,8 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   private String specificEpithet;
 
-  /**
-   * The species authorship when the name is an infraspecific trinomial and might contain both
-   * the species and infraspecies authorship. The main authorship is used for the infraspecies.
-   */
-  private CombinedAuthorship specificAuthorship;
-  
   private String infraspecificEpithet;
   
-  private String cultivarEpithet;
-
-  /**
-   * Final phrase part of the name when type=INFORMAL.
-   */
-  private String phrase;
-
   /**
    * A bacterial candidate name.
    * Candidatus is a provisional status for incompletely described procaryotes
@@ -105,29 +97,99 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
    * The name parts that carry a hybrid marker (×). More than one part can be
    * marked when the formula spans genus and species, for example.
    */
-  private EnumSet<NamePart> notho;
-
+  private Set<NamePart> notho;
+  
   /**
-   * If true indicates that the parsed name is the original spelling of the name.
-   * This is usually indicated by placing [sic] after the name.
-   *
-   * If false it instead indicates that the parsed name is a corrected spelling of the name,
-   * usually indicated by placing corrig. after the name.
-   *
-   * If null it is unknown or the original spelling was never revised.
+   * The kind of name classified in broad catagories based on their syntactical
+   * structure
    */
-  private Boolean originalSpelling;
+  private NameType type;
 
   /**
-   * Optional qualifiers like cf. or aff. that can precede an epithet.
+   * The rarely used parts of a name, only allocated once any of them is set.
    */
-  private Map<NamePart, String> epithetQualifier;
-  
+  private Extras extras;
+
+  // the index of each form in the cached canonical names
+  private static final int CANONICAL = 0;
+  private static final int CANONICAL_WITHOUT_AUTHORSHIP = 1;
+  private static final int CANONICAL_MINIMAL = 2;
+  private static final int CANONICAL_COMPLETE = 3;
+
   /**
-   * The kind of name classified in broad catagories based on their syntactical
-   * structure
+   * Holds the rarely populated fields of a parsed name, keeping the main object small.
    */
-  private NameType type;
+  private static class Extras {
+    private CombinedAuthorship genericAuthorship;
+
+    /**
+     * The species authorship when the name is an infraspecific trinomial and might contain both
+     * the species and infraspecies authorship. The main authorship is used for the infraspecies.
+     */
+    private CombinedAuthorship specificAuthorship;
+
+    private String cultivarEpithet;
+
+    /**
+     * Final phrase part of the name when type=INFORMAL.
+     */
+    private String phrase;
+
+    /**
+     * If true indicates that the parsed name is the original spelling of the name.
+     * This is usually indicated by placing [sic] after the name.
+     *
+     * If false it instead indicates that the parsed name is a corrected spelling of the name,
+     * usually indicated by placing corrig. after the name.
+     *
+     * If null it is unknown or the original spelling was never revised.
+     */
+    private Boolean originalSpelling;
+
+    /**
+     * Optional qualifiers like cf. or aff. that can precede an epithet.
+     */
+    private Map<NamePart, String> epithetQualifier;
+
+    /**
+     * The canonical names rendered so far if enabled by {@link ParsedName#cacheCanonicalNames()}, null otherwise.
+     * An empty string stands for a null name. Neither copied nor cleared with the other values.
+     */
+    private String[] canonicalNames;
+
+    Extras() {
+    }
+
+    /**
+     * Copies all values, sharing the mutable authorship objects but not the qualifier map.
+     */
+    Extras(Extras other) {
+      copy(other);
+    }
+
+    void copy(Extras other) {
+      genericAuthorship = mutableCopy(other.genericAuthorship);
+      specificAuthorship = mutableCopy(other.specificAuthorship);
+      cultivarEpithet = other.cultivarEpithet;
+      phrase = other.phrase;
+      originalSpelling = other.originalSpelling;
+      epithetQualifier = other.epithetQualifier == null ? null : copyOf(other.epithetQualifier);
+    }
+
+    void clear() {
+      genericAuthorship = null;
+      specificAuthorship = null;
+      cultivarEpithet = null;
+      phrase = null;
+      originalSpelling = null;
+      epithetQualifier = null;
+    }
+
+    boolean isEmpty() {
+      return genericAuthorship == null && specificAuthorship == null && cultivarEpithet == null && phrase == null
+          && originalSpelling == null && epithetQualifier == null && canonicalNames == null;
+    }
+  }
 
   /**
    * Copies all values from the given parsed name.
@@ -137,25 +199,207 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
    * reference — see {@link ParsedAuthorship#copy(ParsedAuthorship)}.
    */
   public void copy(ParsedName pn) {
+    if (pn == this) {
+      return;
+    }
     super.copy(pn);
     rank = pn.rank;
     code = pn.code;
     uninomial = pn.uninomial;
     genus = pn.genus;
-    genericAuthorship = pn.genericAuthorship;
     infragenericEpithet = pn.infragenericEpithet;
     specificEpithet = pn.specificEpithet;
-    specificAuthorship = pn.specificAuthorship;
     infraspecificEpithet = pn.infraspecificEpithet;
-    cultivarEpithet = pn.cultivarEpithet;
-    phrase = pn.phrase;
     candidatus = pn.candidatus;
-    notho = pn.notho != null ? EnumSet.copyOf(pn.notho) : null;
-    originalSpelling = pn.originalSpelling;
-    epithetQualifier = pn.epithetQualifier == null ? null : new EnumMap<>(pn.epithetQualifier);
+    if (notho != null) {
+      notho.clear();
+      if (pn.notho != null) {
+        notho.addAll(pn.notho);
+      }
+    } else if (pn.notho != null) {
+      notho = copyOf(pn.notho);
+    }
+    if (extras != null) {
+      if (pn.extras == null) {
+        extras.clear();
+      } else {
+        extras.copy(pn.extras);
+      }
+    } else if (pn.extras != null) {
+      extras = new Extras(pn.extras);
+    }
     type = pn.type;
   }
 
+  /**
+   * Clears all values so the instance can be reused for another name without reallocating its collections
+   * and side objects. See {@link ParsedAuthorship#reset()}.
+   *
+   * @throws UnsupportedOperationException if the name is frozen
+   */
+  @Override
+  public void reset() {
+    super.reset();
+    rank = Rank.UNRANKED;
+    code = null;
+    uninomial = null;
+    genus = null;
+    infragenericEpithet = null;
+    specificEpithet = null;
+    infraspecificEpithet = null;
+    candidatus = false;
+    if (notho != null) {
+      notho.clear();
+    }
+    if (extras != null) {
+      extras.clear();
+    }
+    type = null;
+  }
+
+  /**
+   * A mutable copy of the given set, which can be an immutable set of a frozen name.
+   */
+  private static EnumSet<NamePart> copyOf(Set<NamePart> parts) {
+    return parts.isEmpty() ? EnumSet.noneOf(NamePart.class) : EnumSet.copyOf(parts);
+  }
+
+  /**
+   * A mutable copy of the given map, which can be an immutable map of a frozen name.
+   */
+  private static EnumMap<NamePart, String> copyOf(Map<NamePart, String> map) {
+    EnumMap<NamePart, String> copy = new EnumMap<>(NamePart.class);
+    copy.putAll(map);
+    return copy;
+  }
+
+  /**
+   * Routes a name part through the global {@link NamePartInterner}.
+   */
+  private static String intern(String part) {
+    return NamePartInterner.global().intern(part);
+  }
+
+  /**
+   * Returns the extras to modify, allocating them only if a non null value is going to be set.
+   * Setting null on absent extras writes to a throwaway instance instead.
+   */
+  private Extras extras(Object value) {
+    beforeModification();
+    if (extras == null) {
+      if (value == null) {
+        return new Extras();
+      }
+      extras = new Extras();
+    }
+    return extras;
+  }
+
+  /**
+   * Makes this name immutable: all setters throw an {@link UnsupportedOperationException} afterwards.
+   * Authorships are replaced by frozen copies or the shared {@link Authorship#EMPTY} instance, collections
+   * by unmodifiable copies iterating in the same order and empty side objects are dropped.
+   * The name is modified in place, use {@link #copy(ParsedName)} on a new instance to get a mutable version again.
+   *
+   * @return this name
+   */
+  @Override
+  public ParsedName freeze() {
+    if (!isFrozen()) {
+      // unmodifiable views keep the iteration order of the mutable name
+      notho = notho == null ? null : Collections.unmodifiableSet(copyOf(notho));
+      if (extras != null) {
+        if (extras.isEmpty()) {
+          extras = null;
+        } else {
+          if (extras.genericAuthorship != null) {
+            extras.genericAuthorship = frozenCopy(extras.genericAuthorship);
+          }
+          if (extras.specificAuthorship != null) {
+            extras.specificAuthorship = frozenCopy(extras.specificAuthorship);
+          }
+          if (extras.epithetQualifier != null) {
+            extras.epithetQualifier = Collections.unmodifiableMap(copyOf(extras.epithetQualifier));
+          }
+        }
+      }
+    }
+    super.freeze();
+    return this;
+  }
+
+  /**
+   * Keeps the canonical names once rendered, so repeated calls of {@link #canonicalName()},
+   * {@link #canonicalNameWithoutAuthorship()}, {@link #canonicalNameMinimal()} and {@link #canonicalNameComplete()}
+   * return the same string without rendering again. All setters, including the inherited ones, discard the cached names.
+   * Changes made through mutable objects returned by getters, e.g. {@code getCombinationAuthorship().addAuthor()},
+   * are not detected though, so the cache is best used with {@link #freeze() frozen} names.
+   * <p>
+   * The cache is filled without synchronization, which is safe for concurrent readers of a frozen name:
+   * strings are immutable and a race at worst renders a name twice.
+   *
+   * @return this name
+   */
+  public ParsedName cacheCanonicalNames() {
+    if (extras == null) {
+      extras = new Extras();
+    }
+    if (extras.canonicalNames == null) {
+      extras.canonicalNames = new String[4];
+    }
+    return this;
+  }
+
+  /**
+   * @return true if the canonical names are cached, see {@link #cacheCanonicalNames()}
+   */
+  public boolean isCachingCanonicalNames() {
+    return extras != null && extras.canonicalNames != null;
+  }
+
+  /**
+   * Discards the cached canonical names before any modification.
+   */
+  @Override
+  protected void beforeModification() {
+    super.beforeModification();
+    if (extras != null && extras.canonicalNames != null) {
+      Arrays.fill(extras.canonicalNames, null);
+    }
+  }
+
+  /**
+   * A mutable authorship equal to the given one if it is frozen, the given one otherwise.
+   */
+  private static CombinedAuthorship mutableCopy(CombinedAuthorship ca) {
+    if (ca == null || !ca.isFrozen()) {
+      return ca;
+    }
+    if (ca instanceof ParsedAuthorship pa) {
+      return new ParsedAuthorship(pa);
+    }
+    CombinedAuthorship copy = new CombinedAuthorship();
+    copy.copyAuthorship(ca);
+    return copy;
+  }
+
+  /**
+   * A frozen authorship equal to the given one, leaving the given instance untouched as it might be shared.
+   */
+  private static CombinedAuthorship frozenCopy(CombinedAuthorship ca) {
+    if (ca.isFrozen()) {
+      return ca;
+    }
+    CombinedAuthorship copy;
+    if (ca instanceof ParsedAuthorship pa) {
+      copy = new ParsedAuthorship(pa);
+    } else {
+      copy = new CombinedAuthorship();
+      copy.copyAuthorship(ca);
+    }
+    return copy.freeze();
+  }
+
   @Override
   public Rank getRank() {
     return rank;
@@ -163,6 +407,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setRank(Rank rank) {
+    beforeModification();
     this.rank = rank == null ? Rank.UNRANKED : rank;
   }
   
@@ -173,6 +418,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setCode(NomCode code) {
+    beforeModification();
     this.code = code;
   }
   
@@ -183,11 +429,12 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setUninomial(String uni) {
+    beforeModification();
     if (uni != null && !uni.isEmpty() && uni.charAt(0) == HYBRID_MARKER) {
-      this.uninomial = uni.substring(1);
+      this.uninomial = intern(uni.substring(1));
       addNotho(NamePart.GENERIC);
     } else {
-      this.uninomial = uni;
+      this.uninomial = intern(uni);
     }
   }
   
@@ -198,24 +445,25 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setGenus(String genus) {
+    beforeModification();
     if (genus != null && !genus.isEmpty() && genus.charAt(0) == HYBRID_MARKER) {
-      this.genus = genus.substring(1);
+      this.genus = intern(genus.substring(1));
       addNotho(NamePart.GENERIC);
     } else {
-      this.genus = genus;
+      this.genus = intern(genus);
     }
   }
 
   public CombinedAuthorship getGenericAuthorship() {
-    return genericAuthorship;
+    return extras == null ? null : extras.genericAuthorship;
   }
 
   public void setGenericAuthorship(CombinedAuthorship genericAuthorship) {
-    this.genericAuthorship = genericAuthorship;
+    extras(genericAuthorship).genericAuthorship = genericAuthorship;
   }
 
   public boolean hasGenericAuthorship() {
-    return genericAuthorship != null && genericAuthorship.hasAuthorship();
+    return getGenericAuthorship() != null && getGenericAuthorship().hasAuthorship();
   }
 
   @Override
@@ -225,11 +473,12 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setInfragenericEpithet(String infraGeneric) {
+    beforeModification();
     if (infraGeneric != null && !infraGeneric.isEmpty() && infraGeneric.charAt(0) == HYBRID_MARKER) {
-      this.infragenericEpithet = infraGeneric.substring(1);
+      this.infragenericEpithet = intern(infraGeneric.substring(1));
       addNotho(NamePart.INFRAGENERIC);
     } else {
-      this.infragenericEpithet = infraGeneric;
+      this.infragenericEpithet = intern(infraGeneric);
     }
   }
   
@@ -240,24 +489,25 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setSpecificEpithet(String species) {
+    beforeModification();
     if (species != null && !species.isEmpty() && species.charAt(0) == HYBRID_MARKER) {
-      specificEpithet = species.substring(1);
+      specificEpithet = intern(species.substring(1));
       addNotho(NamePart.SPECIFIC);
     } else {
-      specificEpithet = species;
+      specificEpithet = intern(species);
     }
   }
 
   public CombinedAuthorship getSpecificAuthorship() {
-    return specificAuthorship;
+    return extras == null ? null : extras.specificAuthorship;
   }
 
   public void setSpecificAuthorship(CombinedAuthorship specificAuthorship) {
-    this.specificAuthorship = specificAuthorship;
+    extras(specificAuthorship).specificAuthorship = specificAuthorship;
   }
 
   public boolean hasSpecificAuthorship() {
-    return specificAuthorship != null && specificAuthorship.hasAuthorship();
+    return getSpecificAuthorship() != null && getSpecificAuthorship().hasAuthorship();
   }
 
   @Override
@@ -267,28 +517,29 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   @Override
   public void setInfraspecificEpithet(String infraSpecies) {
+    beforeModification();
     if (infraSpecies != null && !infraSpecies.isEmpty() && infraSpecies.charAt(0) == HYBRID_MARKER) {
-      this.infraspecificEpithet = infraSpecies.substring(1);
+      this.infraspecificEpithet = intern(infraSpecies.substring(1));
       addNotho(NamePart.INFRASPECIFIC);
     } else {
-      this.infraspecificEpithet = infraSpecies;
+      this.infraspecificEpithet = intern(infraSpecies);
     }
   }
   
   public String getCultivarEpithet() {
-    return cultivarEpithet;
+    return extras == null ? null : extras.cultivarEpithet;
   }
   
   public void setCultivarEpithet(String cultivarEpithet) {
-    this.cultivarEpithet = cultivarEpithet;
+    extras(cultivarEpithet).cultivarEpithet = intern(cultivarEpithet);
   }
   
   public String getPhrase() {
-    return phrase;
+    return extras == null ? null : extras.phrase;
   }
   
   public void setPhrase(String phrase) {
-    this.phrase = phrase;
+    extras(phrase).phrase = phrase;
   }
 
   public boolean isCandidatus() {
@@ -296,6 +547,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   }
   
   public void setCandidatus(boolean candidatus) {
+    beforeModification();
     this.candidatus = candidatus;
   }
   
@@ -306,11 +558,13 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
 
   @Override
   public void setNotho(NamePart part) {
+    beforeModification();
     this.notho = part == null ? null : EnumSet.of(part);
   }
 
   @Override
   public void addNotho(NamePart part) {
+    beforeModification();
     if (part != null) {
       if (this.notho == null) {
         this.notho = EnumSet.of(part);
@@ -321,11 +575,11 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   }
 
   public Boolean isOriginalSpelling() {
-    return originalSpelling;
+    return extras == null ? null : extras.originalSpelling;
   }
 
   public void setOriginalSpelling(Boolean originalSpelling) {
-    this.originalSpelling = originalSpelling;
+    extras(originalSpelling).originalSpelling = originalSpelling;
   }
 
   public String getEpithet(NamePart part) {
@@ -343,27 +597,28 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   }
 
   public Map<NamePart, String> getEpithetQualifier() {
-    return epithetQualifier;
+    return extras == null ? null : extras.epithetQualifier;
   }
   
   public String getEpithetQualifier(NamePart part) {
-    return epithetQualifier.getOrDefault(part, null);
+    return getEpithetQualifier().getOrDefault(part, null);
   }
 
   public boolean hasEpithetQualifier(NamePart part) {
-    return epithetQualifier != null && epithetQualifier.containsKey(part);
+    return getEpithetQualifier() != null && getEpithetQualifier().containsKey(part);
   }
 
   public void setEpithetQualifier(Map<NamePart, String> epithetQualifier) {
-    this.epithetQualifier = epithetQualifier;
+    extras(epithetQualifier).epithetQualifier = epithetQualifier;
   }
   
   public void setEpithetQualifier(NamePart part, String qualifier) {
     if (part != null && qualifier != null) {
-      if (epithetQualifier == null) {
-        epithetQualifier = new EnumMap<>(NamePart.class);
+      Extras x = extras(qualifier);
+      if (x.epithetQualifier == null) {
+        x.epithetQualifier = new EnumMap<>(NamePart.class);
       }
-      epithetQualifier.put(part, qualifier);
+      x.epithetQualifier.put(part, qualifier);
     }
   }
 
@@ -372,6 +627,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   }
   
   public void setType(NameType type) {
+    beforeModification();
     this.type = type;
   }
   
@@ -384,7 +640,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   
   public List<String> listEpithets() {
     List<String> epis = new ArrayList<>();
-    Collections.addAll(epis, infragenericEpithet, specificEpithet, infraspecificEpithet, cultivarEpithet);
+    Collections.addAll(epis, infragenericEpithet, specificEpithet, infraspecificEpithet, getCultivarEpithet());
     epis.removeIf(Objects::isNull);
     return epis;
   }
@@ -393,7 +649,7 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
    * @return true if the parsed name has non null name properties or a scientific name. Remarks will not count as a name
    */
   public boolean hasName() {
-    return ObjectUtils.firstNonNull(uninomial, genus, infragenericEpithet, specificEpithet, infraspecificEpithet, phrase, cultivarEpithet) != null;
+    return ObjectUtils.firstNonNull(uninomial, genus, infragenericEpithet, specificEpithet, infraspecificEpithet, getPhrase(), getCultivarEpithet()) != null;
   }
 
   public boolean isHybridName() {
@@ -429,14 +685,14 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
     return rank.isInfragenericStrictly() && uninomial == null && infragenericEpithet == null && specificEpithet == null
         || rank.isSpeciesOrBelow() && !rank.isCultivarRank() && specificEpithet == null
         || rank.isInfraspecific() && !rank.isCultivarRank() && infraspecificEpithet == null
-        || rank.isCultivarRank() && cultivarEpithet == null;
+        || rank.isCultivarRank() && getCultivarEpithet() == null;
   }
   
   /**
    * @return true if some "higher" epithet of a name is missing, e.g. the genus in case of a species.
    */
   public boolean isIncomplete() {
-    return (specificEpithet != null || cultivarEpithet != null) && genus == null
+    return (specificEpithet != null || getCultivarEpithet() != null) && genus == null
         || infraspecificEpithet != null && specificEpithet == null;
   }
   
@@ -453,35 +709,66 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
    * @return True if this is a phrase name
    */
   public boolean isPhraseName() {
-    return phrase != null && !this.phrase.isEmpty();
+    return getPhrase() != null && !getPhrase().isEmpty();
   }
   
   /**
    * @see NameFormatter#canonical(ParsedName)
    */
   public String canonicalName() {
-    return NameFormatter.canonical(this);
+    return canonicalName(CANONICAL, NameFormatter::canonical);
   }
 
   /**
    * @see NameFormatter#canonicalWithoutAuthorship(ParsedName)
    */
   public String canonicalNameWithoutAuthorship() {
-    return NameFormatter.canonicalWithoutAuthorship(this);
+    return canonicalName(CANONICAL_WITHOUT_AUTHORSHIP, NameFormatter::canonicalWithoutAuthorship);
   }
 
   /**
    * @see NameFormatter#canonicalMinimal(ParsedName)
    */
   public String canonicalNameMinimal() {
-    return NameFormatter.canonicalMinimal(this);
+    return canonicalName(CANONICAL_MINIMAL, NameFormatter::canonicalMinimal);
   }
 
   /**
    * @see NameFormatter#canonicalComplete(ParsedName)
    */
   public String canonicalNameComplete() {
-    return NameFormatter.canonicalComplete(this);
+    return canonicalName(CANONICAL_COMPLETE, NameFormatter::canonicalComplete);
+  }
+
+  /**
+   * Renders a canonical name, or takes it from the cache if enabled.
+   */
+  private String canonicalName(int form, Function<ParsedName, String> formatter) {
+    String[] cache = extras == null ? null : extras.canonicalNames;
+    if (cache == null) {
+      return formatter.apply(this);
+    }
+    String name = cache[form];
+    if (name == null) {
+      name = formatter.apply(this);
+      cache[form] = name == null ? "" : name;
+    }
+    return name == null || name.isEmpty() ? null : name;
+  }
+
+  /**
+   * @return a stable 64-bit fingerprint of the name without authorship
+   * @see NameFingerprint#of(ParsedName)
+   */
+  public long fingerprint() {
+    return NameFingerprint.of(this);
+  }
+
+  /**
+   * @see NameFingerprint#of(ParsedName, boolean)
+   */
+  public long fingerprint(boolean includeAuthorship) {
+    return NameFingerprint.of(this, includeAuthorship);
   }
 
   /**
@@ -495,27 +782,49 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
   public boolean equals(Object o) {
     if (this == o) return true;
     if (!(o instanceof ParsedName)) return false;
-    if (!super.equals(o)) return false;
     ParsedName that = (ParsedName) o;
-    return candidatus == that.candidatus
-           && Objects.equals(originalSpelling, that.originalSpelling)
-           && rank == that.rank
-           && code == that.code
-           && Objects.equals(uninomial, that.uninomial)
-           && Objects.equals(genus, that.genus)
-           && Objects.equals(infragenericEpithet, that.infragenericEpithet)
-           && Objects.equals(specificEpithet, that.specificEpithet)
-           && Objects.equals(infraspecificEpithet, that.infraspecificEpithet)
-           && Objects.equals(cultivarEpithet, that.cultivarEpithet)
-           && Objects.equals(phrase, that.phrase)
-           && Objects.equals(notho, that.notho)
-           && Objects.equals(epithetQualifier, that.epithetQualifier)
-           && type == that.type;
+    // cheap discriminators first, interned name parts usually compare by reference
+    if (rank != that.rank || type != that.type || code != that.code || candidatus != that.candidatus) return false;
+    if (!Objects.equals(genus, that.genus)
+        || !Objects.equals(specificEpithet, that.specificEpithet)
+        || !Objects.equals(uninomial, that.uninomial)
+        || !Objects.equals(infraspecificEpithet, that.infraspecificEpithet)) return false;
+    if (!super.equals(o)) return false;
+    return Objects.equals(infragenericEpithet, that.infragenericEpithet)
+           && Objects.equals(isOriginalSpelling(), that.isOriginalSpelling())
+           && Objects.equals(getCultivarEpithet(), that.getCultivarEpithet())
+           && Objects.equals(getPhrase(), that.getPhrase())
+           && sameNotho(that)
+           && Objects.equals(getEpithetQualifier(), that.getEpithetQualifier());
+  }
+
+  /**
+   * An empty set of hybrid parts, as left by {@link #reset()}, equals none.
+   */
+  private boolean sameNotho(ParsedName that) {
+    if (isHybridName() && that.isHybridName()) {
+      return notho.equals(that.notho);
+    }
+    return isHybridName() == that.isHybridName();
   }
 
   @Override
-  public int hashCode() {
-    return Objects.hash(super.hashCode(), rank, code, uninomial, genus, infragenericEpithet, specificEpithet, infraspecificEpithet, cultivarEpithet, phrase, candidatus, notho, originalSpelling, epithetQualifier, type);
+  protected int computeHashCode() {
+    int h = super.computeHashCode();
+    h = 31 * h + rank.hashCode();
+    h = 31 * h + Objects.hashCode(code);
+    h = 31 * h + Objects.hashCode(uninomial);
+    h = 31 * h + Objects.hashCode(genus);
+    h = 31 * h + Objects.hashCode(infragenericEpithet);
+    h = 31 * h + Objects.hashCode(specificEpithet);
+    h = 31 * h + Objects.hashCode(infraspecificEpithet);
+    h = 31 * h + Objects.hashCode(getCultivarEpithet());
+    h = 31 * h + Objects.hashCode(getPhrase());
+    h = 31 * h + Boolean.hashCode(candidatus);
+    h = 31 * h + Objects.hashCode(notho);
+    h = 31 * h + Objects.hashCode(isOriginalSpelling());
+    h = 31 * h + Objects.hashCode(getEpithetQualifier());
+    return 31 * h + Objects.hashCode(type);
   }
 
   @Override
@@ -544,16 +853,16 @@ public class ParsedName extends ParsedAuthorship implements LinneanName {
     if (infraspecificEpithet != null) {
       sb.append(" IS:").append(infraspecificEpithet);
     }
-    if (cultivarEpithet != null) {
-      sb.append(" CV:").append(cultivarEpithet);
+    if (getCultivarEpithet() != null) {
+      sb.append(" CV:").append(getCultivarEpithet());
     }
-    if (Boolean.TRUE.equals(originalSpelling)) {
+    if (Boolean.TRUE.equals(isOriginalSpelling())) {
       sb.append(" [sic]");
-    } else if (Boolean.FALSE.equals(originalSpelling)) {
+    } else if (Boolean.FALSE.equals(isOriginalSpelling())) {
       sb.append(" corrig.");
     }
-    if (phrase != null) {
-      sb.append(" STR:").append(phrase);
+    if (getPhrase() != null) {
+      sb.append(" STR:").append(getPhrase());
     }
     if (getCombinationAuthorship() != null) {
       sb.append(" A:").append(getCombinationAuthorship());
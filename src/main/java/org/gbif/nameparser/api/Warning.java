@@ -0,0 +1,115 @@
+package org.gbif.nameparser.api;
+
+import javax.annotation.Nullable;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The standard {@link Warnings} as an enumeration, so a set of them can be kept as a single {@code long} bitmask.
+ * Free text warnings, e.g. starting with {@link Warnings#REMOVED_PREFIX}, have no constant.
+ */
+public enum Warning {
+  NULL_EPITHET(Warnings.NULL_EPITHET),
+  HOMOGLYHPS(Warnings.HOMOGLYHPS),
+  UNUSUAL_CHARACTERS(Warnings.UNUSUAL_CHARACTERS),
+  SUBSPECIES_ASSIGNED(Warnings.SUBSPECIES_ASSIGNED),
+  LC_MONOMIAL(Warnings.LC_MONOMIAL),
+  INDETERMINED(Warnings.INDETERMINED),
+  HIGHER_RANK_BINOMIAL(Warnings.HIGHER_RANK_BINOMIAL),
+  QUESTION_MARKS_REMOVED(Warnings.QUESTION_MARKS_REMOVED),
+  REPL_ENCLOSING_QUOTE(Warnings.REPL_ENCLOSING_QUOTE),
+  MISSING_GENUS(Warnings.MISSING_GENUS),
+  DOUBTFUL_GENUS(Warnings.DOUBTFUL_GENUS),
+  RANK_MISMATCH(Warnings.RANK_MISMATCH),
+  CODE_MISMATCH(Warnings.CODE_MISMATCH),
+  HTML_ENTITIES(Warnings.HTML_ENTITIES),
+  XML_TAGS(Warnings.XML_TAGS),
+  BLACKLISTED_EPITHET(Warnings.BLACKLISTED_EPITHET),
+  NOMENCLATURAL_REFERENCE(Warnings.NOMENCLATURAL_REFERENCE),
+  AUTHORSHIP_REMOVED(Warnings.AUTHORSHIP_REMOVED),
+  YEAR_INTERPRETED(Warnings.YEAR_INTERPRETED),
+  UNLIKELY_YEAR(Warnings.UNLIKELY_YEAR),
+  UNCERTAIN_AUTHORSHIP(Warnings.UNCERTAIN_AUTHORSHIP),
+  QUADRINOMIAL(Warnings.QUADRINOMIAL),
+  ABBREVIATED_GENUS(Warnings.ABBREVIATED_GENUS),
+  ABBREVIATED_SUBGENUS(Warnings.ABBREVIATED_SUBGENUS),
+  LONG_NAME(Warnings.LONG_NAME);
+
+  private static final Warning[] VALUES = values();
+  private static final Map<String, Warning> BY_MESSAGE = new HashMap<>();
+
+  static {
+    for (Warning w : VALUES) {
+      BY_MESSAGE.put(w.message, w);
+    }
+  }
+
+  private final String message;
+
+  Warning(String message) {
+    this.message = message;
+  }
+
+  /**
+   * @return the warning string as found in {@link ParsedAuthorship#getWarnings()}
+   */
+  public String message() {
+    return message;
+  }
+
+  /**
+   * @return the single bit representing this warning in a mask
+   */
+  public long mask() {
+    return 1L << ordinal();
+  }
+
+  public boolean isSet(long mask) {
+    return (mask & mask()) != 0;
+  }
+
+  /**
+   * @return the matching standard warning or null for free text warnings
+   */
+  @Nullable
+  public static Warning of(String message) {
+    return BY_MESSAGE.get(message);
+  }
+
+  /**
+   * @return the warning with the given ordinal, as found in a mask
+   */
+  static Warning get(int ordinal) {
+    return VALUES[ordinal];
+  }
+
+  public static long mask(Iterable<Warning> warnings) {
+    long mask = 0;
+    for (Warning w : warnings) {
+      mask |= w.mask();
+    }
+    return mask;
+  }
+
+  public static Set<Warning> fromMask(long mask) {
+    EnumSet<Warning> set = EnumSet.noneOf(Warning.class);
+    for (long m = mask; m != 0; m &= m - 1) {
+      set.add(VALUES[Long.numberOfTrailingZeros(m)]);
+    }
+    return set;
+  }
+
+  /**
+   * Adds the warnings of a mask to the per warning counts, indexed by ordinal.
+   * Aggregating the warnings of many names this way needs no allocation at all.
+   *
+   * @param counts an array of at least {@code Warning.values().length} counters
+   */
+  public static void count(long mask, long[] counts) {
+    for (long m = mask; m != 0; m &= m - 1) {
+      counts[Long.numberOfTrailingZeros(m)]++;
+    }
+  }
+}
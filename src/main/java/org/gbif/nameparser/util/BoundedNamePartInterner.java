@@ -0,0 +1,61 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.NamePartInterner;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free {@link NamePartInterner} backed by a fixed size hash table with a single slot per hash.
+ * <p>
+ * A value found in its slot is returned shared, otherwise the value takes over the slot. Colliding values
+ * therefore replace each other and a few duplicates survive, but the memory used never exceeds the capacity and
+ * no value is retained once it was displaced. Frequent parts like common genera, epithets and authors stay in
+ * the table, which makes this a good fit for the long tail of name parts where a complete map would grow
+ * without bounds.
+ * <p>
+ * Lookups do not allocate and only use plain volatile reads and writes, so the interner can sit on the hot path
+ * of every setter.
+ */
+public class BoundedNamePartInterner implements NamePartInterner {
+  private final AtomicReferenceArray<String> table;
+  private final int mask;
+
+  /**
+   * @param capacity the number of slots, rounded up to the next power of two
+   */
+  public BoundedNamePartInterner(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("capacity must be between 1 and 2^30");
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    table = new AtomicReferenceArray<>(size);
+    mask = size - 1;
+  }
+
+  @Override
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    int idx = spread(value.hashCode()) & mask;
+    String existing = table.get(idx);
+    if (value.equals(existing)) {
+      return existing;
+    }
+    table.set(idx, value);
+    return value;
+  }
+
+  /**
+   * @return the number of slots
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  private static int spread(int h) {
+    h ^= h >>> 16;
+    h *= 0x45D9F3B;
+    return h ^ (h >>> 16);
+  }
+}
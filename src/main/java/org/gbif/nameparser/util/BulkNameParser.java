@@ -0,0 +1,177 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.NameInput;
+import org.gbif.nameparser.api.NameParser;
+import org.gbif.nameparser.api.ParseResult;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parses large sequences of names in parallel while keeping the results in the order of the input.
+ * <p>
+ * Names are read from the source in batches of {@code batchSize} on the consuming thread and each batch is parsed
+ * with {@link NameParser#parseAll(List)} on the executor. Besides the batch currently being consumed at most
+ * {@code maxPendingBatches} batches are in flight or waiting, and new batches are only read as the consumer proceeds.
+ * This reorder buffer bounds the memory used regardless of the size of the input and lets a slow consumer
+ * throttle the parsing.
+ * <p>
+ * The returned iterators and streams must be consumed by a single thread. If parsing a batch fails, the exception
+ * is rethrown when the consumer reaches that batch.
+ *
+ * <pre>{@code
+ * try (BulkNameParser bulk = new BulkNameParser(parser, 8);
+ *      Stream<ParseResult> results = bulk.parse(names.stream())) {
+ *   results.forEach(indexer::index);
+ * }
+ * }</pre>
+ */
+public class BulkNameParser implements AutoCloseable {
+  private static final int DEFAULT_BATCH_SIZE = 100;
+  private static final int DEFAULT_PENDING_PER_WORKER = 4;
+
+  private final NameParser parser;
+  private final Executor executor;
+  private final ForkJoinPool ownPool;
+  private final int batchSize;
+  private final int maxPendingBatches;
+
+  /**
+   * Creates a bulk parser with its own fork-join pool of the given number of worker threads.
+   * The pool is shut down when the bulk parser is closed.
+   */
+  public BulkNameParser(NameParser parser, int workers) {
+    this(parser, new ForkJoinPool(workers), DEFAULT_BATCH_SIZE, workers * DEFAULT_PENDING_PER_WORKER, true);
+  }
+
+  /**
+   * Creates a bulk parser running on an external executor which is not shut down on close.
+   * On JDK 21+ this can be a virtual-thread-per-task executor.
+   *
+   * @param batchSize         number of names passed to {@link NameParser#parseAll(List)} in one task
+   * @param maxPendingBatches maximum number of batches being parsed or waiting to be consumed
+   */
+  public BulkNameParser(NameParser parser, Executor executor, int batchSize, int maxPendingBatches) {
+    this(parser, executor, batchSize, maxPendingBatches, false);
+  }
+
+  private BulkNameParser(NameParser parser, Executor executor, int batchSize, int maxPendingBatches, boolean ownPool) {
+    if (batchSize < 1 || maxPendingBatches < 1) {
+      throw new IllegalArgumentException("batchSize and maxPendingBatches must be positive");
+    }
+    this.parser = parser;
+    this.executor = executor;
+    this.ownPool = ownPool ? (ForkJoinPool) executor : null;
+    this.batchSize = batchSize;
+    this.maxPendingBatches = maxPendingBatches;
+  }
+
+  /**
+   * @return the results in the order of the given names, parsed lazily as the iterator is consumed
+   */
+  public Iterator<ParseResult> parse(Iterator<NameInput> names) {
+    return new OrderedIterator(names);
+  }
+
+  /**
+   * @return a sequential stream of results in the order of the given names. Closing it closes the source stream
+   */
+  public Stream<ParseResult> parse(Stream<NameInput> names) {
+    return stream(parse(names.iterator())).onClose(names::close);
+  }
+
+  /**
+   * Parses every line of the reader as a scientific name of unknown rank and code.
+   *
+   * @return a sequential stream of results in the order of the lines. Closing it closes the reader
+   */
+  public Stream<ParseResult> parse(LineReader reader) {
+    Iterator<String> lines = reader.iterator();
+    Iterator<NameInput> names = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return lines.hasNext();
+      }
+
+      @Override
+      public NameInput next() {
+        return new NameInput(lines.next());
+      }
+    };
+    return stream(parse(names)).onClose(reader::close);
+  }
+
+  private static Stream<ParseResult> stream(Iterator<ParseResult> iter) {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iter, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Shuts down the worker pool if it was created by this bulk parser.
+   */
+  @Override
+  public void close() {
+    if (ownPool != null) {
+      ownPool.shutdown();
+    }
+  }
+
+  private class OrderedIterator implements Iterator<ParseResult> {
+    private final Iterator<NameInput> source;
+    private final Deque<CompletableFuture<List<ParseResult>>> pending = new ArrayDeque<>();
+    private Iterator<ParseResult> current = Collections.emptyIterator();
+
+    OrderedIterator(Iterator<NameInput> source) {
+      this.source = source;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!current.hasNext()) {
+        fill();
+        if (pending.isEmpty()) {
+          return false;
+        }
+        current = await(pending.poll()).iterator();
+      }
+      return true;
+    }
+
+    @Override
+    public ParseResult next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      // submit the next batch before handing out the result so the workers never idle while we are consumed
+      fill();
+      return current.next();
+    }
+
+    private void fill() {
+      while (pending.size() < maxPendingBatches && source.hasNext()) {
+        List<NameInput> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && source.hasNext()) {
+          batch.add(source.next());
+        }
+        pending.add(CompletableFuture.supplyAsync(() -> parser.parseAll(batch), executor));
+      }
+    }
+
+    private List<ParseResult> await(CompletableFuture<List<ParseResult>> batch) {
+      try {
+        return batch.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException re) {
+          throw re;
+        } else if (e.getCause() instanceof Error err) {
+          throw err;
+        }
+        throw e;
+      }
+    }
+  }
+}
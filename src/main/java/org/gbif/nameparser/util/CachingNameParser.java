@@ -0,0 +1,277 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link NameParser} decorator that memoizes the results of another parser, keyed by the full
+ * {@link NameInput} (scientific name, authorship, rank and code).
+ * <p>
+ * The cache holds at most {@code maxSize} results. Once it is full a newly parsed name is only admitted
+ * if it has been requested more often than the least recently used entry it would replace, so a stream of
+ * one-off names cannot flush the frequently repeated ones out of the cache. Request frequencies are estimated
+ * by a small count-min sketch which is halved periodically, so the cache adapts to changing input.
+ * <p>
+ * {@link ParsedName} is mutable, so a cached name is never shared with callers: every call returns its own
+ * deep copy of a {@link ParseResult.Parsed} result. The immutable {@link ParseResult.Informal} and
+ * {@link ParseResult.Unparsable} results are returned as they are.
+ * In frozen mode all parsed names are {@link ParsedName#freeze() frozen} instead and shared by all callers
+ * without copying, which is cheaper and keeps the cache compact.
+ * <p>
+ * The parser is thread safe if the wrapped parser is. Parsing happens outside of any lock, so concurrent
+ * misses for the same input can parse it more than once.
+ */
+public class CachingNameParser implements NameParser {
+  private final NameParser parser;
+  private final int maxSize;
+  private final boolean frozen;
+  // access ordered, so the eldest entry is the least recently used one
+  private final LinkedHashMap<NameInput, ParseResult> cache;
+  private final FrequencySketch sketch;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * Hit, miss and eviction counts since the parser was created.
+   *
+   * @param size the number of currently cached results
+   */
+  public record Stats(long hits, long misses, long evictions, int size) {
+
+    /**
+     * @return the share of lookups answered from the cache, 0 if there were none yet
+     */
+    public double hitRate() {
+      long total = hits + misses;
+      return total == 0 ? 0 : (double) hits / total;
+    }
+  }
+
+  /**
+   * @param parser  the parser to delegate cache misses to
+   * @param maxSize the maximum number of results to keep
+   */
+  public CachingNameParser(NameParser parser, int maxSize) {
+    this(parser, maxSize, false);
+  }
+
+  /**
+   * @param parser  the parser to delegate cache misses to
+   * @param maxSize the maximum number of results to keep
+   * @param frozen  if true parsed names are frozen and shared instead of copied
+   */
+  public CachingNameParser(NameParser parser, int maxSize, boolean frozen) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    this.parser = parser;
+    this.maxSize = maxSize;
+    this.frozen = frozen;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true);
+    this.sketch = new FrequencySketch(maxSize);
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    return parse(new NameInput(scientificName, authorship, rank, code));
+  }
+
+  @Override
+  public ParseResult parse(NameInput input) {
+    ParseResult cached = get(input);
+    if (cached != null) {
+      return share(cached);
+    }
+    ParseResult result = freeze(parser.parse(input));
+    return put(input, result) ? share(result) : result;
+  }
+
+  /**
+   * Answers all cached names directly and passes the remaining ones on as a single batch
+   * to {@link NameParser#parseAll(List)} of the wrapped parser.
+   */
+  @Override
+  public List<ParseResult> parseAll(List<NameInput> names) {
+    List<ParseResult> results = new ArrayList<>(names.size());
+    List<NameInput> missing = new ArrayList<>();
+    int[] missingIdx = new int[names.size()];
+    for (NameInput n : names) {
+      ParseResult cached = get(n);
+      if (cached == null) {
+        missingIdx[missing.size()] = results.size();
+        missing.add(n);
+        results.add(null);
+      } else {
+        results.add(share(cached));
+      }
+    }
+    if (!missing.isEmpty()) {
+      List<ParseResult> parsed = parser.parseAll(missing);
+      for (int i = 0; i < missing.size(); i++) {
+        ParseResult result = freeze(parsed.get(i));
+        results.set(missingIdx[i], put(missing.get(i), result) ? share(result) : result);
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+
+  /**
+   * @return the result to hand out for a cached one, a copy unless in frozen mode
+   */
+  private ParseResult share(ParseResult cached) {
+    return frozen ? cached : ParseResults.copyOf(cached);
+  }
+
+  private ParseResult freeze(ParseResult result) {
+    if (frozen && result instanceof ParseResult.Parsed p) {
+      p.name().freeze();
+    }
+    return result;
+  }
+
+  private ParseResult get(NameInput input) {
+    ParseResult result;
+    synchronized (cache) {
+      sketch.increment(sketchHash(input));
+      result = cache.get(input);
+    }
+    if (result == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return result;
+  }
+
+  /**
+   * @return true if the result was admitted to the cache
+   */
+  private boolean put(NameInput input, ParseResult result) {
+    synchronized (cache) {
+      if (cache.size() >= maxSize && !cache.containsKey(input)) {
+        Iterator<NameInput> iter = cache.keySet().iterator();
+        NameInput victim = iter.next();
+        if (sketch.frequency(sketchHash(input)) <= sketch.frequency(sketchHash(victim))) {
+          return false;
+        }
+        iter.remove();
+        evictions.increment();
+      }
+      cache.put(input, result);
+      return true;
+    }
+  }
+
+  /**
+   * A hash of the input that is the same in every run, unlike {@link NameInput#hashCode()}
+   * which includes the identity hash codes of the enums. This keeps admissions to the cache reproducible.
+   */
+  private static int sketchHash(NameInput input) {
+    int h = Objects.hashCode(input.scientificName());
+    h = 31 * h + Objects.hashCode(input.authorship());
+    h = 31 * h + (input.rank() == null ? -1 : input.rank().ordinal());
+    return 31 * h + (input.code() == null ? -1 : input.code().ordinal());
+  }
+
+  public Stats stats() {
+    int size;
+    synchronized (cache) {
+      size = cache.size();
+    }
+    return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+  }
+
+  /**
+   * Removes all cached results. The statistics are kept.
+   */
+  public void clear() {
+    synchronized (cache) {
+      cache.clear();
+    }
+  }
+
+  /**
+   * A count-min sketch of 4 rows with 4 bit counters packed into longs, estimating how often a key was requested
+   * recently. Each row has 4 counters per cached entry and all counters are halved once the number of increments
+   * reaches 10 times the cache size. Not thread safe.
+   */
+  private static class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97CB3127, 0x3AD2C5A1, 0x5D3F8E4B, 0x7C1B94E7};
+    private final long[] table;
+    private final int width;
+    private final int shift;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int maxSize) {
+      int size = Math.max(16, maxSize);
+      width = Integer.highestOneBit(4 * size - 1) << 1;
+      shift = 32 - Integer.numberOfTrailingZeros(width);
+      table = new long[DEPTH * width / 16];
+      sampleSize = 10 * size;
+    }
+
+    void increment(int hash) {
+      int h = spread(hash);
+      boolean added = false;
+      for (int i = 0; i < DEPTH; i++) {
+        int idx = index(h, i);
+        int offset = (idx & 15) << 2;
+        if (((table[idx >>> 4] >>> offset) & MAX_COUNT) < MAX_COUNT) {
+          table[idx >>> 4] += 1L << offset;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    int frequency(int hash) {
+      int h = spread(hash);
+      int freq = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        int idx = index(h, i);
+        freq = Math.min(freq, (int) (table[idx >>> 4] >>> ((idx & 15) << 2)) & MAX_COUNT);
+      }
+      return freq;
+    }
+
+    private int index(int h, int row) {
+      // rehash per row, so keys colliding in one row rarely collide in the others
+      int x = (h + SEEDS[row]) * SEEDS[row];
+      x ^= x >>> 15;
+      return row * width + ((x * 0x2C1B3C6D) >>> shift);
+    }
+
+    private void reset() {
+      for (int i = 0; i < table.length; i++) {
+        table[i] = (table[i] >>> 1) & RESET_MASK;
+      }
+      additions /= 2;
+    }
+
+    private static int spread(int h) {
+      h ^= h >>> 16;
+      h *= 0x45D9F3B;
+      return h ^ (h >>> 16);
+    }
+  }
+}
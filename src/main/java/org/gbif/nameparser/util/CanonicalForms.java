@@ -0,0 +1,16 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.ParsedName;
+
+/**
+ * The standard canonical forms of a single name as rendered together by {@link NameFormatter#renderAll(ParsedName)}.
+ * Each form is null if there is nothing to render, as with the individual formatter methods.
+ *
+ * @param canonical see {@link NameFormatter#canonical(ParsedName)}
+ * @param canonicalWithoutAuthorship see {@link NameFormatter#canonicalWithoutAuthorship(ParsedName)}
+ * @param canonicalMinimal see {@link NameFormatter#canonicalMinimal(ParsedName)}
+ * @param canonicalComplete see {@link NameFormatter#canonicalComplete(ParsedName)}
+ */
+public record CanonicalForms(String canonical, String canonicalWithoutAuthorship, String canonicalMinimal,
+                             String canonicalComplete) {
+}
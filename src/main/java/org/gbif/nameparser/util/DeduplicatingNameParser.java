@@ -0,0 +1,105 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link NameParser} decorator that collapses identical inputs within a batch.
+ * <p>
+ * {@link #parseAll(List)} groups the names by their full {@link NameInput} (scientific name, authorship,
+ * rank and code), passes only the unique ones on to the wrapped parser as a single batch and fans the results
+ * back out to every original position. Real datasets often repeat the same verbatim name thousands of times,
+ * so this saves most of the calls into the parser without keeping any state between batches.
+ * <p>
+ * Every position receives its own result: duplicates of a {@link ParseResult.Parsed} result are deep copies,
+ * so callers can modify them independently. Single {@link #parse} calls are passed through.
+ * <p>
+ * The parser is thread safe if the wrapped parser is.
+ */
+public class DeduplicatingNameParser implements NameParser {
+  private final NameParser parser;
+  private final LongAdder names = new LongAdder();
+  private final LongAdder parsed = new LongAdder();
+
+  /**
+   * Number of names requested and number of names actually passed on to the wrapped parser
+   * since the parser was created.
+   */
+  public record Stats(long names, long parsed) {
+
+    /**
+     * @return the number of parser calls saved by deduplication
+     */
+    public long saved() {
+      return names - parsed;
+    }
+
+    /**
+     * @return the share of names that were duplicates and did not need to be parsed, 0 if there were none yet
+     */
+    public double dedupRatio() {
+      return names == 0 ? 0 : (double) saved() / names;
+    }
+  }
+
+  public DeduplicatingNameParser(NameParser parser) {
+    this.parser = parser;
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    names.increment();
+    parsed.increment();
+    return parser.parse(scientificName, authorship, rank, code);
+  }
+
+  @Override
+  public List<ParseResult> parseAll(List<NameInput> inputs) {
+    Map<NameInput, Integer> index = new HashMap<>();
+    List<NameInput> unique = new ArrayList<>();
+    // position in the unique list for every input
+    int[] positions = new int[inputs.size()];
+    for (int i = 0; i < inputs.size(); i++) {
+      NameInput n = inputs.get(i);
+      Integer pos = index.putIfAbsent(n, unique.size());
+      if (pos == null) {
+        positions[i] = unique.size();
+        unique.add(n);
+      } else {
+        positions[i] = pos;
+      }
+    }
+    names.add(inputs.size());
+    parsed.add(unique.size());
+
+    List<ParseResult> uniqueResults = unique.isEmpty() ? List.of() : parser.parseAll(unique);
+    boolean[] used = new boolean[unique.size()];
+    List<ParseResult> results = new ArrayList<>(inputs.size());
+    for (int pos : positions) {
+      ParseResult r = uniqueResults.get(pos);
+      if (used[pos]) {
+        r = ParseResults.copyOf(r);
+      } else {
+        used[pos] = true;
+      }
+      results.add(r);
+    }
+    return results;
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+
+  public Stats stats() {
+    return new Stats(names.sum(), parsed.sum());
+  }
+}
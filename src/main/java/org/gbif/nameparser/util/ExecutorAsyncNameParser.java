@@ -0,0 +1,133 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Adapts a synchronous {@link NameParser} to the {@link AsyncNameParser} contract by running every parse on
+ * an executor, e.g. a shared fixed pool or, on JDK 21+, a virtual-thread-per-task executor.
+ * <p>
+ * Optionally the number of parses running at the same time can be capped, independent of the size of the executor.
+ * Calls exceeding the limit are queued without blocking any thread and start as soon as a running parse completes.
+ * This keeps concurrent native calls bounded even on an unbounded virtual-thread executor.
+ */
+public class ExecutorAsyncNameParser implements AsyncNameParser {
+  private final NameParser parser;
+  private final Executor executor;
+  private final int maxConcurrent;
+  private final AtomicInteger running = new AtomicInteger();
+  private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+
+  /**
+   * Runs all parses directly on the given executor, limited only by the executor itself.
+   */
+  public ExecutorAsyncNameParser(NameParser parser, Executor executor) {
+    this(parser, executor, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param maxConcurrent the maximum number of parse tasks running at the same time
+   */
+  public ExecutorAsyncNameParser(NameParser parser, Executor executor, int maxConcurrent) {
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent must be positive");
+    }
+    this.parser = parser;
+    this.executor = executor;
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  @Override
+  public CompletableFuture<ParseResult> parseAsync(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    return submit(() -> parser.parse(scientificName, authorship, rank, code));
+  }
+
+  /**
+   * Parses the whole batch in a single task via {@link NameParser#parseAll(List)}.
+   */
+  @Override
+  public CompletableFuture<List<ParseResult>> parseAllAsync(List<NameInput> names) {
+    return submit(() -> parser.parseAll(names));
+  }
+
+  /**
+   * @return the number of parse tasks currently running
+   */
+  public int getRunning() {
+    return running.get();
+  }
+
+  /**
+   * @return the number of parse tasks waiting for a free slot
+   */
+  public int getQueued() {
+    return queue.size();
+  }
+
+  private <T> CompletableFuture<T> submit(Supplier<T> supplier) {
+    Task<T> task = new Task<>(supplier);
+    queue.add(task);
+    drain();
+    return task.future;
+  }
+
+  /**
+   * Starts queued tasks as long as there are free slots.
+   * Every submission and every completed task calls this, so no queued task is left behind.
+   */
+  private void drain() {
+    while (!queue.isEmpty()) {
+      int r = running.get();
+      if (r >= maxConcurrent) {
+        return;
+      }
+      if (!running.compareAndSet(r, r + 1)) {
+        continue;
+      }
+      Task<?> task = queue.poll();
+      if (task == null) {
+        running.decrementAndGet();
+        continue;
+      }
+      try {
+        executor.execute(() -> {
+          try {
+            task.run();
+          } finally {
+            running.decrementAndGet();
+            drain();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        running.decrementAndGet();
+        task.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static class Task<T> {
+    private final Supplier<T> supplier;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    Task(Supplier<T> supplier) {
+      this.supplier = supplier;
+    }
+
+    void run() {
+      try {
+        future.complete(supplier.get());
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A {@link NameParser} decorator emitting a JDK Flight Recorder event {@code org.gbif.nameparser.Parse}
+ * for every parse call slower than the configured threshold, 1 ms by default.
+ * The event records the input length, rank and the kind, {@link NameType} and state of the result.
+ * <p>
+ * A {@link #parseAll(List)} batch is passed on to the wrapped parser as a whole and recorded as a single event.
+ * When no recording is running the overhead is a few field writes, so the decorator can stay in place permanently:
+ * <pre>{@code
+ * jcmd <pid> JFR.start name=parser settings=profile
+ * }</pre>
+ * {@link NameFormatter#buildName} and the heavier {@link UnicodeUtils} methods emit their own
+ * {@code org.gbif.nameparser.Format} and {@code org.gbif.nameparser.Normalize} events.
+ */
+public class FlightRecordingNameParser implements NameParser {
+  private final NameParser parser;
+
+  public FlightRecordingNameParser(NameParser parser) {
+    this.parser = parser;
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    ParseEvent event = new ParseEvent();
+    event.begin();
+    ParseResult result = null;
+    try {
+      result = parser.parse(scientificName, authorship, rank, code);
+      return result;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.inputLength = (scientificName == null ? 0 : scientificName.length()) + (authorship == null ? 0 : authorship.length());
+        event.batchSize = 1;
+        event.rank = rank == null ? null : rank.name();
+        event.failed = result == null;
+        if (result != null) {
+          event.variant = result.variant().name();
+          event.type = result.type() == null ? null : result.type().name();
+          ParsedName.State state = result instanceof ParseResult.Parsed p ? p.name().getState() : ParsedName.State.NONE;
+          event.state = state == null ? null : state.name();
+        }
+        event.commit();
+      }
+    }
+  }
+
+  @Override
+  public List<ParseResult> parseAll(List<NameInput> names) {
+    ParseEvent event = new ParseEvent();
+    event.begin();
+    boolean failed = true;
+    try {
+      List<ParseResult> results = parser.parseAll(names);
+      failed = false;
+      return results;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        int length = 0;
+        for (NameInput n : names) {
+          length += n.length();
+        }
+        event.inputLength = length;
+        event.batchSize = names.size();
+        event.failed = failed;
+        event.commit();
+      }
+    }
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+}
@@ -0,0 +1,28 @@
+package org.gbif.nameparser.util;
+
+import jdk.jfr.*;
+
+/**
+ * A JDK Flight Recorder event for a {@link NameFormatter#format} call slower than the threshold.
+ */
+@Name("org.gbif.nameparser.Format")
+@Label("Format Name")
+@Category({"GBIF", "Name Parser"})
+@Description("Building a name string from a parsed name")
+@Threshold("100 us")
+@StackTrace(false)
+class FormatEvent extends Event {
+
+  @Label("Name Type")
+  String type;
+
+  @Label("Rank")
+  String rank;
+
+  @Label("Output Length")
+  @Description("Length of the built name in characters")
+  int outputLength;
+
+  @Label("Html")
+  boolean html;
+}
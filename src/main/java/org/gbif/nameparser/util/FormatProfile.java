@@ -0,0 +1,220 @@
+package org.gbif.nameparser.util;
+
+import java.util.StringJoiner;
+
+/**
+ * An immutable set of options controlling which parts of a name {@link NameFormatter#format(org.gbif.nameparser.api.ParsedName, FormatProfile)}
+ * renders. The options are kept as a bitmask and every profile is compiled once into a rendering plan of just the
+ * enabled sections, so formatting many names with the same profile never looks at disabled ones.
+ * <p>
+ * The presets of the {@link NameFormatter} are available as constants. Custom profiles are built with a
+ * {@link #builder()} or derived from a preset with {@link #with(Option...)} and {@link #without(Option...)}.
+ * Profiles are cached per bitmask, so equal profiles are the same instance.
+ */
+public final class FormatProfile {
+
+  public enum Option {
+    /** the hybrid marker if existing */
+    HYBRID_MARKER,
+    /** the infraspecific or infrageneric rank marker if existing */
+    RANK_MARKER,
+    /** the names authorship, i.e. authors and year */
+    AUTHORSHIP,
+    /** the genus for infrageneric names */
+    GENUS_FOR_INFRAGENERIC,
+    /** the infrageneric name in brackets for species or infraspecies */
+    INFRAGENERIC,
+    /** decompose unicode ligatures into their corresponding ascii ones, e.g. æ becomes ae */
+    DECOMPOSITION,
+    /** transform unicode letters into their corresponding ascii ones, e.g. ø becomes o and ü u */
+    ASCII_ONLY,
+    /** the epithet qualifiers */
+    QUALIFIER,
+    /** the rank marker for incomplete determinations, for example Puma spec. */
+    INDET,
+    /** the nomenclatural note */
+    NOM_NOTE,
+    /** the taxonomic (sensu / sec.) note */
+    SENSU,
+    /** the cultivar epithet, group or grex */
+    CULTIVAR,
+    /** the phrase-name designation */
+    PHRASE,
+    /** the strain / phrase suffix for non phrase names */
+    STRAIN,
+    /** the genus author of an infrageneric name and the species author of a below-species name */
+    EXTRA_AUTHORSHIP,
+    /** html markup */
+    HTML;
+
+    int mask() {
+      return 1 << ordinal();
+    }
+  }
+
+  private static final Option[] OPTIONS = Option.values();
+  private static final FormatProfile[] PROFILES = new FormatProfile[1 << OPTIONS.length];
+
+  /**
+   * A full scientific name with authorship, see {@link NameFormatter#canonical(org.gbif.nameparser.api.ParsedName)}.
+   */
+  public static final FormatProfile CANONICAL = of(Option.HYBRID_MARKER, Option.RANK_MARKER, Option.AUTHORSHIP,
+      Option.GENUS_FOR_INFRAGENERIC, Option.QUALIFIER, Option.INDET, Option.CULTIVAR, Option.PHRASE, Option.STRAIN);
+  /**
+   * A full scientific name without authorship.
+   */
+  public static final FormatProfile CANONICAL_WITHOUT_AUTHORSHIP = CANONICAL.without(Option.AUTHORSHIP);
+  /**
+   * The 3 main name parts only, folded to ASCII.
+   */
+  public static final FormatProfile CANONICAL_MINIMAL = of(Option.DECOMPOSITION, Option.ASCII_ONLY);
+  /**
+   * A full name with all details including non code compliant, informal remarks.
+   */
+  public static final FormatProfile CANONICAL_COMPLETE = of(Option.HYBRID_MARKER, Option.RANK_MARKER,
+      Option.AUTHORSHIP, Option.GENUS_FOR_INFRAGENERIC, Option.INFRAGENERIC, Option.DECOMPOSITION, Option.QUALIFIER,
+      Option.INDET, Option.NOM_NOTE, Option.SENSU, Option.CULTIVAR, Option.PHRASE, Option.STRAIN,
+      Option.EXTRA_AUTHORSHIP);
+  /**
+   * A full name with all details as {@link #CANONICAL_COMPLETE}, with html markup.
+   */
+  public static final FormatProfile CANONICAL_COMPLETE_HTML = CANONICAL_COMPLETE.with(Option.HTML);
+
+  private final int mask;
+  // the options as fields, read for every name
+  final boolean hybridMarker;
+  final boolean rankMarker;
+  final boolean authorship;
+  final boolean genusForInfrageneric;
+  final boolean infrageneric;
+  final boolean qualifier;
+  final boolean indet;
+  final boolean cultivar;
+  final boolean phrase;
+  final boolean extraAuthorship;
+  final boolean html;
+  final boolean decomposition;
+  final boolean asciiOnly;
+  // the enabled sections following the name parts, in rendering order
+  final NameFormatter.Section[] plan;
+
+  private FormatProfile(int mask) {
+    this.mask = mask;
+    hybridMarker = has(Option.HYBRID_MARKER);
+    rankMarker = has(Option.RANK_MARKER);
+    authorship = has(Option.AUTHORSHIP);
+    genusForInfrageneric = has(Option.GENUS_FOR_INFRAGENERIC);
+    infrageneric = has(Option.INFRAGENERIC);
+    qualifier = has(Option.QUALIFIER);
+    indet = has(Option.INDET);
+    cultivar = has(Option.CULTIVAR);
+    phrase = has(Option.PHRASE);
+    extraAuthorship = has(Option.EXTRA_AUTHORSHIP);
+    html = has(Option.HTML);
+    decomposition = has(Option.DECOMPOSITION);
+    asciiOnly = has(Option.ASCII_ONLY);
+    plan = NameFormatter.Section.plan(this);
+  }
+
+  /**
+   * @return the profile with exactly the given options
+   */
+  public static FormatProfile of(Option... options) {
+    return of(mask(options));
+  }
+
+  /**
+   * @return the profile of a bitmask with a bit per {@link Option#ordinal()}
+   */
+  public static FormatProfile of(int mask) {
+    if ((mask & ~((1 << OPTIONS.length) - 1)) != 0) {
+      throw new IllegalArgumentException("Unknown options in mask " + Integer.toBinaryString(mask));
+    }
+    // profiles are immutable, so a race only creates an equal instance once more
+    FormatProfile p = PROFILES[mask];
+    if (p == null) {
+      p = new FormatProfile(mask);
+      PROFILES[mask] = p;
+    }
+    return p;
+  }
+
+  public static Builder builder() {
+    return new Builder(0);
+  }
+
+  public Builder toBuilder() {
+    return new Builder(mask);
+  }
+
+  public FormatProfile with(Option... options) {
+    return of(mask | mask(options));
+  }
+
+  public FormatProfile without(Option... options) {
+    return of(mask & ~mask(options));
+  }
+
+  public boolean has(Option option) {
+    return (mask & option.mask()) != 0;
+  }
+
+  public int mask() {
+    return mask;
+  }
+
+  private static int mask(Option... options) {
+    int mask = 0;
+    for (Option o : options) {
+      mask |= o.mask();
+    }
+    return mask;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o || o instanceof FormatProfile && ((FormatProfile) o).mask == mask;
+  }
+
+  @Override
+  public int hashCode() {
+    return mask;
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner sj = new StringJoiner(", ", "FormatProfile{", "}");
+    for (Option o : OPTIONS) {
+      if (has(o)) {
+        sj.add(o.name());
+      }
+    }
+    return sj.toString();
+  }
+
+  public static class Builder {
+    private int mask;
+
+    private Builder(int mask) {
+      this.mask = mask;
+    }
+
+    public Builder with(Option... options) {
+      mask |= mask(options);
+      return this;
+    }
+
+    public Builder without(Option... options) {
+      mask &= ~mask(options);
+      return this;
+    }
+
+    public Builder set(Option option, boolean enabled) {
+      return enabled ? with(option) : without(option);
+    }
+
+    public FormatProfile build() {
+      return of(mask);
+    }
+  }
+}
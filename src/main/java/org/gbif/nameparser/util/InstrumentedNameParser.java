@@ -0,0 +1,254 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link NameParser} decorator recording metrics about every parse: the number of calls and failures,
+ * a latency histogram, the distribution of input lengths and a breakdown of the results by variant,
+ * {@link NameType} and {@link ParsedName.State}.
+ * <p>
+ * Histograms use log-linear buckets like HdrHistogram: every power of two is split into 8 linear sub-buckets,
+ * so recorded values are accurate to 12.5% over the full range of a long. Recording only increments
+ * preallocated atomic counters and does not allocate, so the decorator can stay enabled in production.
+ * <p>
+ * Names parsed in a batch via {@link #parseAll(List)} are timed as a whole and every name is recorded with the
+ * average latency of its batch. {@link #snapshot()} returns an immutable copy of all metrics to be scraped.
+ * Exceptions thrown by the wrapped parser are counted as failures and rethrown.
+ */
+public class InstrumentedNameParser implements NameParser {
+  private final NameParser parser;
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final Histogram latency = new Histogram();
+  private final Histogram inputLength = new Histogram();
+  private final AtomicLongArray variants = new AtomicLongArray(ParseResult.Variant.values().length);
+  private final AtomicLongArray types = new AtomicLongArray(NameType.values().length);
+  private final AtomicLongArray states = new AtomicLongArray(ParsedName.State.values().length);
+
+  /**
+   * An immutable copy of all metrics recorded since the parser was created.
+   * {@link ParseResult.Informal} and {@link ParseResult.Unparsable} results are counted with state
+   * {@link ParsedName.State#NONE}.
+   *
+   * @param calls        number of names parsed, including failures
+   * @param failures     number of names for which the wrapped parser threw an exception
+   * @param totalNanos   sum of all recorded latencies
+   * @param latency      latency distribution in nanoseconds
+   * @param inputLength  distribution of the combined length of name and authorship in characters
+   */
+  public record Snapshot(long calls, long failures, long totalNanos, Distribution latency, Distribution inputLength,
+                         Map<ParseResult.Variant, Long> variants, Map<NameType, Long> types, Map<ParsedName.State, Long> states) {
+  }
+
+  /**
+   * An immutable copy of a histogram.
+   *
+   * @param counts the number of values recorded per bucket, see {@link #lowerBound(int)} and {@link #upperBound(int)}
+   */
+  public record Distribution(long count, long max, long[] counts) {
+
+    public Distribution {
+      counts = counts.clone();
+    }
+
+    /**
+     * @return a copy of the number of values recorded per bucket
+     */
+    @Override
+    public long[] counts() {
+      return counts.clone();
+    }
+
+    /**
+     * @return the number of values recorded in the given bucket
+     */
+    public long bucketCount(int bucket) {
+      return counts[bucket];
+    }
+
+    /**
+     * @return the smallest value counted in the given bucket
+     */
+    public static long lowerBound(int bucket) {
+      return Histogram.lowerBound(bucket);
+    }
+
+    /**
+     * @return the largest value counted in the given bucket
+     */
+    public static long upperBound(int bucket) {
+      return bucket + 1 >= Histogram.BUCKETS ? Long.MAX_VALUE : Histogram.lowerBound(bucket + 1) - 1;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the upper bound of the bucket holding the given percentile, capped by the maximum value.
+     *     0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(upperBound(i), max);
+        }
+      }
+      return max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Distribution that)) return false;
+      return count == that.count && max == that.max && Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+      int h = Long.hashCode(count);
+      h = 31 * h + Long.hashCode(max);
+      return 31 * h + Arrays.hashCode(counts);
+    }
+
+    @Override
+    public String toString() {
+      return "Distribution[count=" + count + ", max=" + max + ", counts=" + Arrays.toString(counts) + "]";
+    }
+  }
+
+  public InstrumentedNameParser(NameParser parser) {
+    this.parser = parser;
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    long start = System.nanoTime();
+    ParseResult result = null;
+    try {
+      result = parser.parse(scientificName, authorship, rank, code);
+      return result;
+    } finally {
+      record(length(scientificName, authorship), System.nanoTime() - start, result);
+    }
+  }
+
+  @Override
+  public List<ParseResult> parseAll(List<NameInput> names) {
+    if (names.isEmpty()) {
+      return parser.parseAll(names);
+    }
+    long start = System.nanoTime();
+    List<ParseResult> results = null;
+    try {
+      results = parser.parseAll(names);
+      return results;
+    } finally {
+      long nanos = (System.nanoTime() - start) / names.size();
+      for (int i = 0; i < names.size(); i++) {
+        record(names.get(i).length(), nanos, results == null ? null : results.get(i));
+      }
+    }
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+
+  public Snapshot snapshot() {
+    return new Snapshot(calls.sum(), failures.sum(), totalNanos.sum(), latency.snapshot(), inputLength.snapshot(),
+        counts(ParseResult.Variant.class, variants), counts(NameType.class, types), counts(ParsedName.State.class, states));
+  }
+
+  /**
+   * @param result the result or null if the parser failed
+   */
+  private void record(int length, long nanos, @Nullable ParseResult result) {
+    calls.increment();
+    totalNanos.add(nanos);
+    latency.record(nanos);
+    inputLength.record(length);
+    if (result == null) {
+      failures.increment();
+      return;
+    }
+    variants.incrementAndGet(result.variant().ordinal());
+    types.incrementAndGet(result.type().ordinal());
+    ParsedName.State state = result instanceof ParseResult.Parsed p ? p.name().getState() : ParsedName.State.NONE;
+    if (state != null) {
+      states.incrementAndGet(state.ordinal());
+    }
+  }
+
+  private static int length(String scientificName, @Nullable String authorship) {
+    return (scientificName == null ? 0 : scientificName.length()) + (authorship == null ? 0 : authorship.length());
+  }
+
+  private static <E extends Enum<E>> Map<E, Long> counts(Class<E> enumClass, AtomicLongArray counts) {
+    Map<E, Long> map = new EnumMap<>(enumClass);
+    for (E e : enumClass.getEnumConstants()) {
+      map.put(e, counts.get(e.ordinal()));
+    }
+    return Collections.unmodifiableMap(map);
+  }
+
+  /**
+   * A lock free log-linear histogram of non-negative longs.
+   * Values below 8 have their own bucket, larger ones are bucketed by their highest bit and the 3 bits following it.
+   */
+  static class Histogram {
+    private static final int SUB_BITS = 3;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    static final int BUCKETS = (63 - SUB_BITS + 1) * SUB_COUNT;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long value) {
+      value = Math.max(0, value);
+      counts.incrementAndGet(bucket(value));
+      count.increment();
+      max.accumulateAndGet(value, Math::max);
+    }
+
+    static int bucket(long value) {
+      if (value < SUB_COUNT) {
+        return (int) value;
+      }
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+      return (shift + 1) * SUB_COUNT + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    static long lowerBound(int bucket) {
+      if (bucket < SUB_COUNT) {
+        return bucket;
+      }
+      int shift = bucket / SUB_COUNT - 1;
+      return (long) (SUB_COUNT + bucket % SUB_COUNT) << shift;
+    }
+
+    Distribution snapshot() {
+      long[] copy = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+        copy[i] = counts.get(i);
+      }
+      return new Distribution(count.sum(), max.get(), copy);
+    }
+  }
+}
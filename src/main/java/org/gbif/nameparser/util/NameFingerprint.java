@@ -0,0 +1,185 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Computes a stable 64-bit fingerprint of a name directly from its structured parts, as a cheap join and
+ * deduplication key in place of hashing rendered canonical names. No intermediate strings are built.
+ * <p>
+ * The fingerprint covers the same parts as {@link NameFormatter#canonicalWithoutAuthorship(ParsedName)}:
+ * <ul>
+ *   <li>the generic part, i.e. the uninomial or genus, the infrageneric, specific and infraspecific epithets,
+ *   compared case insensitively and ignoring whitespace and hybrid markers</li>
+ *   <li>the rank class: the rank marker a canonical name shows, e.g. var. or sect., but not the
+ *   subspecies marker, which is code dependent</li>
+ *   <li>the hybrid name parts and the candidatus flag</li>
+ *   <li>the cultivar epithet and the phrase of informal names</li>
+ *   <li>optionally the combination and basionym authors and years, ignoring whitespace and periods</li>
+ * </ul>
+ * The algorithm is FNV-1a over the normalized characters with field separators and a final avalanche step.
+ * It depends on nothing but the values, so it is stable across JVM runs and can be persisted.
+ * Changing it invalidates persisted fingerprints.
+ */
+public class NameFingerprint {
+  private static final long OFFSET = 0xcbf29ce484222325L;
+  private static final long PRIME = 0x100000001b3L;
+  // hybrid name parts in the order of their persisted codes, never reorder and only append
+  private static final NamePart[] NAME_PARTS = {
+      NamePart.GENERIC, NamePart.INFRAGENERIC, NamePart.SPECIFIC, NamePart.INFRASPECIFIC
+  };
+
+  // field separators, outside the char range so they never collide with content
+  private static final int GENERIC = 0x10001;
+  private static final int INFRAGENERIC = 0x10002;
+  private static final int SPECIFIC = 0x10003;
+  private static final int INFRASPECIFIC = 0x10004;
+  private static final int CULTIVAR = 0x10005;
+  private static final int PHRASE = 0x10006;
+  private static final int RANK = 0x10007;
+  private static final int NOTHO = 0x10008;
+  private static final int CANDIDATUS = 0x10009;
+  private static final int COMBINATION = 0x1000A;
+  private static final int BASIONYM = 0x1000B;
+  private static final int AUTHOR = 0x1000C;
+  private static final int YEAR = 0x1000D;
+
+  static {
+    if (NAME_PARTS.length != NamePart.values().length) {
+      throw new IllegalStateException("No stable fingerprint code for every NamePart");
+    }
+  }
+
+  private NameFingerprint() {
+  }
+
+  /**
+   * @return the fingerprint of the name without its authorship
+   */
+  public static long of(ParsedName n) {
+    return of(n, false);
+  }
+
+  public static long of(ParsedName n, boolean includeAuthorship) {
+    long h = name(n.getUninomial() != null ? n.getUninomial() : n.getGenus(), n.getInfragenericEpithet(),
+        n.getSpecificEpithet(), n.getInfraspecificEpithet(), n.getRank(), n.getCultivarEpithet(), n.getPhrase());
+    Set<NamePart> notho = n.getNotho();
+    if (notho != null && !notho.isEmpty()) {
+      h = mix(h, NOTHO);
+      for (int code = 0; code < NAME_PARTS.length; code++) {
+        if (notho.contains(NAME_PARTS[code])) {
+          h = mix(h, code);
+        }
+      }
+    }
+    if (n.isCandidatus()) {
+      h = mix(h, CANDIDATUS);
+    }
+    if (includeAuthorship) {
+      if (n.hasCombinationAuthorship()) {
+        h = authorship(mix(h, COMBINATION), n.getCombinationAuthorship());
+      }
+      if (n.hasBasionymAuthorship()) {
+        h = authorship(mix(h, BASIONYM), n.getBasionymAuthorship());
+      }
+    }
+    return avalanche(h);
+  }
+
+  /**
+   * @return the fingerprint of an informal name, equal to the fingerprint of its
+   *     {@link ParseResult.Informal#toParsedName() structured form}
+   */
+  public static long of(ParseResult.Informal informal) {
+    return avalanche(name(informal.taxon(), null, null, null, informal.rank(), null, informal.phrase()));
+  }
+
+  private static long name(String generic, String infrageneric, String specific, String infraspecific, Rank rank,
+                           String cultivar, String phrase) {
+    long h = OFFSET;
+    h = part(h, GENERIC, generic);
+    h = part(h, INFRAGENERIC, infrageneric);
+    h = part(h, SPECIFIC, specific);
+    h = part(h, INFRASPECIFIC, infraspecific);
+    h = part(h, CULTIVAR, cultivar);
+    h = part(h, PHRASE, phrase);
+    Rank rc = rankClass(rank, infrageneric != null, specific != null, infraspecific != null);
+    return rc == null ? h : chars(mix(h, RANK), rc.name(), false);
+  }
+
+  /**
+   * @return the rank shown as a marker in a canonical name or null if none is shown
+   */
+  private static Rank rankClass(Rank rank, boolean infrageneric, boolean specific, boolean infraspecific) {
+    if (rank == null) {
+      return null;
+    }
+    if (infraspecific) {
+      return !rank.isInfraspecific() || rank == Rank.SUBSPECIES || rank == Rank.INFRASPECIFIC_NAME
+          || rank == Rank.INFRASUBSPECIFIC_NAME ? Rank.INFRASPECIFIC_NAME : rank;
+    } else if (specific) {
+      return null;
+    } else if (infrageneric) {
+      return rank.isInfragenericStrictly() ? rank : Rank.INFRAGENERIC_NAME;
+    }
+    // indetermined names like Abies sp.
+    return rank.isSpeciesOrBelow() ? Rank.SPECIES : null;
+  }
+
+  private static long authorship(long h, Authorship a) {
+    // getAuthors() would materialize a list on authorships with only a year
+    if (a.hasAuthors()) {
+      List<String> authors = a.getAuthors();
+      // indexed loop, no iterator
+      for (int i = 0; i < authors.size(); i++) {
+        h = chars(mix(h, AUTHOR), authors.get(i), true);
+      }
+    }
+    if (a.getYear() != null) {
+      h = chars(mix(h, YEAR), a.getYear(), true);
+    }
+    return h;
+  }
+
+  private static long part(long h, int field, String value) {
+    return value == null ? h : chars(mix(h, field), value, false);
+  }
+
+  private static long chars(long h, String s, boolean skipPeriods) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 128) {
+        if (c <= ' ' || skipPeriods && c == '.') {
+          continue;
+        }
+        if (c >= 'A' && c <= 'Z') {
+          c += 'a' - 'A';
+        }
+      } else if (c == NameFormatter.HYBRID_MARKER || Character.isWhitespace(c)) {
+        continue;
+      } else {
+        c = Character.toLowerCase(c);
+      }
+      h = mix(h, c);
+    }
+    return h;
+  }
+
+  private static long mix(long h, int value) {
+    return (h ^ value) * PRIME;
+  }
+
+  /**
+   * The murmur3 finalizer, spreading the bits of the FNV hash.
+   */
+  private static long avalanche(long h) {
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
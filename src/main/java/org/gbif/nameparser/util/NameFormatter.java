@@ -3,9 +3,11 @@ package org.gbif.nameparser.util;
 import org.apache.commons.lang3.StringUtils;
 import org.gbif.nameparser.api.*;
 
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 
 /**
  *
@@ -17,7 +19,6 @@ public class NameFormatter {
 
   private static final String ITALICS_OPEN = "<i>";
   private static final String ITALICS_CLOSE = "</i>";
-  private static final Pattern AL = Pattern.compile("^al\\.?$");
 
   private NameFormatter() {
   
@@ -32,14 +33,14 @@ public class NameFormatter {
   public static String canonical(ParsedName n) {
     // TODO: how can we best remove subsp from zoological names?
     // https://github.com/gbif/portal-feedback/issues/640
-    return buildName(n, true, true, true, true, false, false, false, true, true, false,  false, true, true, true, false, false);
+    return format(n, FormatProfile.CANONICAL);
   }
 
   /**
    * A full scientific name just as canonicalName, but without any authorship.
    */
   public static String canonicalWithoutAuthorship(ParsedName n) {
-    return buildName(n, true, true, false, true, false, false, false, true, true, false,  false, true, true, true, false, false);
+    return format(n, FormatProfile.CANONICAL_WITHOUT_AUTHORSHIP);
   }
 
   /**
@@ -54,21 +55,21 @@ public class NameFormatter {
    * Bracteata
    */
   public static String canonicalMinimal(ParsedName n) {
-    return buildName(n, false, false, false, false, false, true, true, false, false, false,  false, false, false, false, false, false);
+    return format(n, FormatProfile.CANONICAL_MINIMAL);
   }
 
   /**
    * Assembles a full name with all details including non code compliant, informal remarks.
    */
   public static String canonicalComplete(ParsedName n) {
-    return buildName(n, true, true, true, true, true, true, false, true, true, true,  true, true, true, true, true, false);
+    return format(n, FormatProfile.CANONICAL_COMPLETE);
   }
 
   /**
    * Assembles a full name with all details including non code compliant, informal remarks and html markup.
    */
   public static String canonicalCompleteHtml(ParsedName n) {
-    return buildName(n, true, true, true, true, true, true, false, true, true, true,  true, true, true, true, true, true);
+    return format(n, FormatProfile.CANONICAL_COMPLETE_HTML);
   }
 
   /**
@@ -186,8 +187,201 @@ public class NameFormatter {
                                  boolean showExtraAuthorship,
                                  boolean html
   ) {
+    int mask = 0;
+    boolean[] options = {hybridMarker, rankMarker, authorship, genusForinfrageneric, infrageneric, decomposition,
+        asciiOnly, showQualifier, showIndet, nomNote, showSensu, showCultivar, showPhrase, showStrain,
+        showExtraAuthorship, html};
+    for (int i = 0; i < options.length; i++) {
+      if (options[i]) {
+        mask |= 1 << i;
+      }
+    }
+    return format(n, FormatProfile.of(mask));
+  }
+
+  /**
+   * Builds a name with the parts enabled in a profile.
+   * The profile's rendering plan skips all sections that are disabled.
+   *
+   * @return the name or null if there is nothing to render
+   */
+  public static String format(ParsedName n, FormatProfile profile) {
     StringBuilder sb = new StringBuilder();
+    return appendTo(sb, n, profile) ? sb.toString() : null;
+  }
+
+  /**
+   * Renders all standard canonical forms of a name at once, equal to calling {@link #canonical(ParsedName)},
+   * {@link #canonicalWithoutAuthorship(ParsedName)}, {@link #canonicalMinimal(ParsedName)} and
+   * {@link #canonicalComplete(ParsedName)} individually. The name parts and the authorship are rendered once
+   * and shared by the forms containing them, the complete name extends the canonical one where possible.
+   */
+  public static CanonicalForms renderAll(ParsedName n) {
+    final FormatProfile cp = FormatProfile.CANONICAL;
+    final FormatProfile wp = FormatProfile.CANONICAL_WITHOUT_AUTHORSHIP;
+    StringBuilder sb = new StringBuilder(64);
+    boolean authorship = appendName(sb, n, cp);
+    // the name parts are the same without authorship, unless a botanical autonym has it after the species
+    StringBuilder wo;
+    if (authorship || !n.hasAuthorship()) {
+      wo = new StringBuilder(64).append(sb);
+    } else {
+      wo = new StringBuilder(64);
+      appendName(wo, n, wp);
+    }
+    for (Section section : cp.plan) {
+      section.append(sb, 0, n, cp, authorship);
+    }
+    for (Section section : wp.plan) {
+      section.append(wo, 0, n, wp, false);
+    }
+    // equal forms share a single string
+    String canonical = trimmed(sb, null);
+    String withoutAuthorship = trimmed(wo, canonical);
+
+    String complete;
+    if (n.getInfragenericEpithet() == null && !n.hasGenericAuthorship() && !n.hasSpecificAuthorship()) {
+      // nothing else in the name parts, the complete name only adds the notes and decomposes
+      final FormatProfile fp = FormatProfile.CANONICAL_COMPLETE;
+      Section.SENSU.append(sb, 0, n, fp, authorship);
+      Section.NOM_NOTE.append(sb, 0, n, fp, authorship);
+      UnicodeUtils.foldInPlace(sb, 0, fp.decomposition, fp.asciiOnly);
+      complete = trimmed(sb, canonical);
+    } else {
+      complete = format(n, FormatProfile.CANONICAL_COMPLETE);
+    }
+    // without any markers the minimal name shares too little to reuse
+    wo.setLength(0);
+    String minimal = appendTo(wo, n, FormatProfile.CANONICAL_MINIMAL) ? trimmed(wo, withoutAuthorship) : null;
+    return new CanonicalForms(canonical, withoutAuthorship, minimal, complete);
+  }
+
+  /**
+   * @param same a string returned instead of a new one if equal to the trimmed content
+   * @return the trimmed content of a buffer or null if there is none
+   */
+  private static String trimmed(StringBuilder sb, String same) {
+    int first = 0;
+    int end = sb.length();
+    while (end > first && sb.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    while (first < end && sb.charAt(first) <= ' ') {
+      first++;
+    }
+    if (first == end) {
+      return null;
+    }
+    if (same != null && same.length() == end - first) {
+      int i = 0;
+      while (i < same.length() && same.charAt(i) == sb.charAt(first + i)) {
+        i++;
+      }
+      if (i == same.length()) {
+        return same;
+      }
+    }
+    return sb.substring(first, end);
+  }
 
+  /**
+   * Appends a name built with a profile to a buffer without creating any intermediate strings:
+   * trimming, decomposition and ASCII folding are applied in place to the appended characters.
+   * Appends exactly what {@link #format(ParsedName, FormatProfile)} returns, nothing if that is null.
+   * A single buffer can be reused for many names, e.g. one per thread.
+   *
+   * @return true if a name was appended
+   */
+  public static boolean appendTo(StringBuilder sb, ParsedName n, FormatProfile profile) {
+    // record slow calls with the JDK Flight Recorder, see FormatEvent
+    FormatEvent event = new FormatEvent();
+    event.begin();
+    final int start = sb.length();
+    boolean authorship = appendName(sb, n, profile);
+    for (Section section : profile.plan) {
+      section.append(sb, start, n, profile, authorship);
+    }
+    // final char transformations
+    UnicodeUtils.foldInPlace(sb, start, profile.decomposition, profile.asciiOnly);
+    trim(sb, start);
+    event.end();
+    if (event.shouldCommit()) {
+      event.type = n.getType() == null ? null : n.getType().name();
+      event.rank = n.getRank() == null ? null : n.getRank().name();
+      event.outputLength = sb.length() - start;
+      event.html = profile.html;
+      event.commit();
+    }
+    return sb.length() > start;
+  }
+
+  /**
+   * Appends a name built with a profile to any {@link Appendable}, e.g. a {@link java.io.Writer}.
+   * The name is rendered into a buffer reused by the current thread, see {@link #appendTo(StringBuilder, ParsedName, FormatProfile)}.
+   *
+   * @return true if a name was appended
+   */
+  public static boolean appendTo(Appendable out, ParsedName n, FormatProfile profile) throws IOException {
+    if (out instanceof StringBuilder) {
+      return appendTo((StringBuilder) out, n, profile);
+    }
+    Buffer buf = BUFFER.get();
+    buf.sb.setLength(0);
+    if (!appendTo(buf.sb, n, profile)) {
+      return false;
+    }
+    int len = buf.sb.length();
+    if (out instanceof Writer) {
+      if (buf.chars.length < len) {
+        buf.chars = new char[Math.max(len, buf.chars.length * 2)];
+      }
+      buf.sb.getChars(0, len, buf.chars, 0);
+      ((Writer) out).write(buf.chars, 0, len);
+    } else {
+      for (int i = 0; i < len; i++) {
+        out.append(buf.sb.charAt(i));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The buffers of a thread for rendering into an {@link Appendable}.
+   */
+  private static class Buffer {
+    private final StringBuilder sb = new StringBuilder(128);
+    private char[] chars = new char[128];
+  }
+
+  private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+  /**
+   * Removes leading and trailing whitespace and control characters as {@link String#trim()} does,
+   * from the characters appended after start only.
+   */
+  private static void trim(StringBuilder sb, int start) {
+    int end = sb.length();
+    while (end > start && sb.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    sb.setLength(end);
+    int first = start;
+    while (first < end && sb.charAt(first) <= ' ') {
+      first++;
+    }
+    if (first > start) {
+      sb.delete(start, first);
+    }
+  }
+
+  /**
+   * Appends the name parts and markers, including the quotes of Candidatus names.
+   *
+   * @return true if the authorship is still to be rendered
+   */
+  private static boolean appendName(StringBuilder sb, ParsedName n, FormatProfile p) {
+    boolean html = p.html;
+    boolean authorship = p.authorship;
     boolean candidateItalics = false;
     if (n.isCandidatus()) {
       sb.append("\"");
@@ -202,7 +396,7 @@ public class NameFormatter {
     
     if (n.getUninomial() != null) {
       // higher rank names being just a uninomial!
-      if (hybridMarker && hasNotho(n, NamePart.GENERIC)) {
+      if (p.hybridMarker && hasNotho(n, NamePart.GENERIC)) {
         sb.append(HYBRID_MARKER)
             .append(" ");
       }
@@ -214,11 +408,11 @@ public class NameFormatter {
         if ((isUnknown(n.getRank()) && n.getSpecificEpithet() == null) || (n.getRank() != null && n.getRank().isInfragenericStrictly())) {
           boolean showInfraGen = true;
           // the infrageneric is the terminal rank. Always show it and wrap it with its genus if requested
-          if (n.getGenus() != null && genusForinfrageneric) {
-            appendGenus(sb, n, hybridMarker, showQualifier, html);
+          if (n.getGenus() != null && p.genusForInfrageneric) {
+            appendGenus(sb, n, p.hybridMarker, p.qualifier, html);
             // The genus author of an infrageneric name sits between the genus and the rank
             // marker ("Cordia (Adans.) Kuntze sect. Salimori").
-            if (showExtraAuthorship && n.hasGenericAuthorship()) {
+            if (p.extraAuthorship && n.hasGenericAuthorship()) {
               sb.append(' ');
               appendAuthorship(sb, n.getGenericAuthorship(), true, n.getCode());
             }
@@ -227,7 +421,7 @@ public class NameFormatter {
             // but use rank markers for botanical names (unless its no defined rank)
             if (NomCode.ZOOLOGICAL == n.getCode()) {
               sb.append("(");
-              if (hybridMarker && hasNotho(n, NamePart.INFRAGENERIC)) {
+              if (p.hybridMarker && hasNotho(n, NamePart.INFRAGENERIC)) {
                 sb.append(HYBRID_MARKER)
                     .append(' ');
               }
@@ -237,10 +431,10 @@ public class NameFormatter {
             }
           }
           if (showInfraGen) {
-            if (rankMarker) {
+            if (p.rankMarker) {
               // If we know the rank we use explicit rank markers
               // this is how botanical infrageneric names are formed, see http://www.iapt-taxon.org/nomen/main.php?page=art21
-              if (appendRankMarker(sb, n.getRank(), hybridMarker && hasNotho(n, NamePart.INFRAGENERIC))) {
+              if (appendRankMarker(sb, n.getRank(), p.hybridMarker && hasNotho(n, NamePart.INFRAGENERIC))) {
                 sb.append(' ');
               }
             }
@@ -249,9 +443,9 @@ public class NameFormatter {
           
         } else {
           if (n.getGenus() != null) {
-            appendGenus(sb, n, hybridMarker, showQualifier, html);
+            appendGenus(sb, n, p.hybridMarker, p.qualifier, html);
           }
-          if (infrageneric) {
+          if (p.infrageneric) {
             // additional subgenus shown for binomial. Always shown in brackets
             sb.append(" (");
             appendInItalics(sb, n.getInfragenericEpithet(), html);
@@ -260,16 +454,16 @@ public class NameFormatter {
         }
         
       } else if (n.getGenus() != null) {
-        appendGenus(sb, n, hybridMarker, showQualifier, html);
+        appendGenus(sb, n, p.hybridMarker, p.qualifier, html);
       }
       
       if (n.getSpecificEpithet() == null) {
-        if ((showIndet && n.getGenus() != null && n.getCultivarEpithet() == null) || (showPhrase && n.isPhraseName())) {
+        if ((p.indet && n.getGenus() != null && n.getCultivarEpithet() == null) || (p.phrase && n.isPhraseName())) {
           if (n.getRank() != null && n.getRank().isSpeciesOrBelow()) {
             // no species epithet given, indetermined!
             if (n.getRank().isInfraspecific()) {
               // maybe we have an infraspecific epithet? force to show the rank marker
-              appendInfraspecific(sb, n, hybridMarker, showQualifier, rankMarker, true, html);
+              appendInfraspecific(sb, n, p.hybridMarker, p.qualifier, p.rankMarker, true, html);
             } else if (!phraseLeadsWithSpeciesMarker(n)) {
               // Skip the synthetic "sp." when an informal phrase already spells out the
               // species marker verbatim ("Allium species 1") — the phrase carries it.
@@ -279,31 +473,31 @@ public class NameFormatter {
             authorship = false;
           }
         } else if (n.getInfraspecificEpithet() != null) {
-          appendInfraspecific(sb, n, hybridMarker, showQualifier, rankMarker, false, html);
+          appendInfraspecific(sb, n, p.hybridMarker, p.qualifier, p.rankMarker, false, html);
         }
         
       } else {
         // species part
         sb.append(' ');
-        if (showQualifier && n.hasEpithetQualifier(NamePart.SPECIFIC )) {
+        if (p.qualifier && n.hasEpithetQualifier(NamePart.SPECIFIC )) {
           sb.append(n.getEpithetQualifier().get(NamePart.SPECIFIC))
               .append(" ");
         }
-        if (hybridMarker && hasNotho(n, NamePart.SPECIFIC)) {
+        if (p.hybridMarker && hasNotho(n, NamePart.SPECIFIC)) {
           sb.append(HYBRID_MARKER)
               .append(" ");
         }
         appendInItalics(sb, n.getSpecificEpithet(), html);
         // The species author of a below-species name (cultivar / trinomial) sits right after
         // the species epithet ("Acer campestre L. 'Elsrijk' Broerse").
-        if (showExtraAuthorship && n.hasSpecificAuthorship()) {
+        if (p.extraAuthorship && n.hasSpecificAuthorship()) {
           sb.append(' ');
           appendAuthorship(sb, n.getSpecificAuthorship(), true, n.getCode());
         }
 
         if (n.getInfraspecificEpithet() == null) {
           // Indetermined infraspecies? Only show indet cultivar marker if no cultivar epithet exists
-          if (showIndet
+          if (p.indet
               && n.getRank() != null
               && n.getRank().isInfraspecific()
               && (NomCode.CULTIVARS != n.getRank().isRestrictedToCode() || n.getCultivarEpithet() == null)
@@ -336,7 +530,7 @@ public class NameFormatter {
             authorship = false;
           }
           // infraspecific part
-          appendInfraspecific(sb, n, hybridMarker, showQualifier, rankMarker, false, html);
+          appendInfraspecific(sb, n, p.hybridMarker, p.qualifier, p.rankMarker, false, html);
         }
       }
     }
@@ -348,87 +542,125 @@ public class NameFormatter {
       }
       sb.append("\"");
     }
-    
-    // uninomial, genus, infragen, species or infraspecies authorship. For a cultivar the
-    // name's authorship IS the cultivar author, which is rendered AFTER the cultivar epithet
-    // below ("Acer campestre 'Elsrijk' Broerse"), so it is suppressed here.
-    boolean cultivarShown = showCultivar && n.getCultivarEpithet() != null;
-    if (authorship && n.hasAuthorship() && !cultivarShown) {
-      sb.append(" ");
-      appendAuthorship(sb, n, true, n.getCode());
-    }
-    
-    // add strain name (phrase names get special treatment)
-    if (showStrain && n.getPhrase() != null && !n.isPhraseName()) {
-      sb.append(" ")
-          .append(n.getPhrase());
-    }
-    
-    // add cultivar name
-    if (showCultivar && n.getCultivarEpithet() != null) {
-      if (Rank.CULTIVAR_GROUP == n.getRank()) {
-        sb.append(" ")
-            .append(n.getCultivarEpithet())
-            .append(" Group");
-        
-      } else if (Rank.GREX == n.getRank()) {
-        sb.append(" ")
-            .append(n.getCultivarEpithet())
-            .append(" gx");
-        
-      } else {
-        sb.append(" '")
-            .append(n.getCultivarEpithet())
-            .append("'");
+    return authorship;
+  }
+
+  /**
+   * The optional sections following the name parts, in rendering order.
+   * A {@link FormatProfile} is compiled into the sections it enables.
+   */
+  enum Section {
+    AUTHORSHIP {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        // uninomial, genus, infragen, species or infraspecies authorship. For a cultivar the
+        // name's authorship IS the cultivar author, which is rendered AFTER the cultivar epithet
+        // below ("Acer campestre 'Elsrijk' Broerse"), so it is suppressed here.
+        boolean cultivarShown = p.cultivar && n.getCultivarEpithet() != null;
+        if (authorship && n.hasAuthorship() && !cultivarShown) {
+          sb.append(" ");
+          appendAuthorship(sb, n, true, n.getCode());
+        }
       }
-      // The cultivar author follows the cultivar epithet ("Acer campestre 'Elsrijk' Broerse").
-      if (authorship && n.hasAuthorship()) {
-        sb.append(" ");
-        appendAuthorship(sb, n, true, n.getCode());
+    },
+    STRAIN {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        // add strain name (phrase names get special treatment)
+        if (n.getPhrase() != null && !n.isPhraseName()) {
+          sb.append(" ")
+              .append(n.getPhrase());
+        }
       }
-    }
+    },
+    CULTIVAR {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        if (n.getCultivarEpithet() != null) {
+          if (Rank.CULTIVAR_GROUP == n.getRank()) {
+            sb.append(" ")
+                .append(n.getCultivarEpithet())
+                .append(" Group");
+
+          } else if (Rank.GREX == n.getRank()) {
+            sb.append(" ")
+                .append(n.getCultivarEpithet())
+                .append(" gx");
 
-    // Add phrase name. Phrase values may include a trailing author span after the
-    // collector parenthesised reference ("Sandheath (D.Murfet 3190) R.J.Bates"); for
-    // canonical rendering we drop that author-shaped tail so the output stays clean
-    // while the stored phrase keeps the full annotation. A non-author suffix (e.g.
-    // "NT Herbarium") is kept intact.
-    if (showPhrase && n.isPhraseName()) {
-      String phrase = n.getPhrase();
-      int lastClose = phrase.lastIndexOf(')');
-      if (lastClose >= 0 && lastClose < phrase.length() - 1) {
-        String tail = phrase.substring(lastClose + 1).trim();
-        // Author-shaped tail: initials with dots (e.g. "R.J.Bates", "C.E.M.Bicudo").
-        if (tail.matches("(?U)[\\p{Lu}](?:\\.[\\p{Lu}])*\\..+")) {
-          phrase = phrase.substring(0, lastClose + 1);
+          } else {
+            sb.append(" '")
+                .append(n.getCultivarEpithet())
+                .append("'");
+          }
+          // The cultivar author follows the cultivar epithet ("Acer campestre 'Elsrijk' Broerse").
+          if (authorship && n.hasAuthorship()) {
+            sb.append(" ");
+            appendAuthorship(sb, n, true, n.getCode());
+          }
         }
       }
-      appendIfNotEmpty(sb, " ").append(phrase);
-    }
-    
-    // add sensu/sec reference
-    if (showSensu && n.getTaxonomicNote() != null) {
-      appendIfNotEmpty(sb, " ")
-          .append(n.getTaxonomicNote());
-    }
-    
-    // add nom status
-    if (nomNote && n.getNomenclaturalNote() != null) {
-      appendIfNotEmpty(sb, ", ")
-          .append(n.getNomenclaturalNote());
-    }
-    
-    // final char transformations
-    String name = sb.toString().trim();
-    if (decomposition) {
-      name = UnicodeUtils.decompose(name);
-    }
-    if (asciiOnly) {
-      name = UnicodeUtils.foldToAscii(name);
+    },
+    PHRASE {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        // Add phrase name. Phrase values may include a trailing author span after the
+        // collector parenthesised reference ("Sandheath (D.Murfet 3190) R.J.Bates"); for
+        // canonical rendering we drop that author-shaped tail so the output stays clean
+        // while the stored phrase keeps the full annotation. A non-author suffix (e.g.
+        // "NT Herbarium") is kept intact.
+        if (n.isPhraseName()) {
+          String phrase = n.getPhrase();
+          int lastClose = phrase.lastIndexOf(')');
+          if (lastClose >= 0 && lastClose < phrase.length() - 1) {
+            // Author-shaped tail: initials with dots (e.g. "R.J.Bates", "C.E.M.Bicudo").
+            if (isAuthorTail(phrase, lastClose + 1)) {
+              phrase = phrase.substring(0, lastClose + 1);
+            }
+          }
+          appendIfNotEmpty(sb, start, " ").append(phrase);
+        }
+      }
+    },
+    SENSU {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        // add sensu/sec reference
+        if (n.getTaxonomicNote() != null) {
+          appendIfNotEmpty(sb, start, " ")
+              .append(n.getTaxonomicNote());
+        }
+      }
+    },
+    NOM_NOTE {
+      @Override
+      void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship) {
+        // add nom status
+        if (n.getNomenclaturalNote() != null) {
+          appendIfNotEmpty(sb, start, ", ")
+              .append(n.getNomenclaturalNote());
+        }
+      }
+    };
+
+    /**
+     * @param start the position in the buffer where the name starts
+     * @param authorship true if the authorship is still to be rendered
+     */
+    abstract void append(StringBuilder sb, int start, ParsedName n, FormatProfile p, boolean authorship);
+
+    /**
+     * @return the sections enabled by a profile, in rendering order
+     */
+    static Section[] plan(FormatProfile p) {
+      List<Section> plan = new ArrayList<>();
+      for (Section s : values()) {
+        if (p.has(FormatProfile.Option.valueOf(s.name()))) {
+          plan.add(s);
+        }
+      }
+      return plan.toArray(new Section[0]);
     }
-    return StringUtils.trimToNull(name);
   }
-  
   private static StringBuilder appendInfraspecific(StringBuilder sb, ParsedName n, boolean hybridMarker, boolean showQualifier, boolean rankMarker, boolean forceRankMarker, boolean html) {
     // infraspecific part
     sb.append(' ');
@@ -458,8 +690,8 @@ public class NameFormatter {
     return sb;
   }
   
-  private static StringBuilder appendIfNotEmpty(StringBuilder sb, String toAppend) {
-    if (sb.length() > 0) {
+  private static StringBuilder appendIfNotEmpty(StringBuilder sb, int start, String toAppend) {
+    if (sb.length() > start) {
       sb.append(toAppend);
     }
     return sb;
@@ -468,11 +700,103 @@ public class NameFormatter {
   // Informal phrase that already spells out the species marker as a leading word
   // ("species 1") — the verbatim phrase carries the marker, so the formatter must not
   // also synthesise an "sp." marker (which would yield "Genus sp. species 1").
-  private static final Pattern PHRASE_SPECIES_MARKER =
-      Pattern.compile("^(?:species|spec|sp)\\b.*", Pattern.CASE_INSENSITIVE);
-
   private static boolean phraseLeadsWithSpeciesMarker(ParsedName n) {
-    return n.isPhraseName() && PHRASE_SPECIES_MARKER.matcher(n.getPhrase().trim()).matches();
+    return n.isPhraseName() && leadsWithSpeciesMarker(n.getPhrase());
+  }
+
+  // The scanners below replace regular expressions on the hot path and match exactly what the
+  // commented expressions match, including their handling of line terminators.
+
+  /**
+   * @return true if the trimmed string starting at from consists of initials with dots followed by more,
+   *     as matched by {@code (?U)[\p{Lu}](?:\.[\p{Lu}])*\..+}
+   */
+  static boolean isAuthorTail(String x, int from) {
+    int end = x.length();
+    while (end > from && x.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    while (from < end && x.charAt(from) <= ' ') {
+      from++;
+    }
+    if (from == end) {
+      return false;
+    }
+    // all but the first initial are optional and the last dot can be matched by the first
+    int cp = x.codePointAt(from);
+    int dot = from + Character.charCount(cp);
+    return Character.getType(cp) == Character.UPPERCASE_LETTER
+        && dot < end - 1 && x.charAt(dot) == '.'
+        && !hasLineTerminator(x, dot + 1, end);
+  }
+
+  /**
+   * @return true if the trimmed string starts with the word species, spec or sp in any ASCII case,
+   *     as matched by {@code (?i)^(?:species|spec|sp)\b.*}
+   */
+  static boolean leadsWithSpeciesMarker(String x) {
+    int from = 0;
+    int end = x.length();
+    while (end > from && x.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    while (from < end && x.charAt(from) <= ' ') {
+      from++;
+    }
+    return !hasLineTerminator(x, from, end)
+        && (leadsWithWord(x, from, end, "species") || leadsWithWord(x, from, end, "spec")
+            || leadsWithWord(x, from, end, "sp"));
+  }
+
+  /**
+   * @param word in lower case ASCII letters
+   */
+  private static boolean leadsWithWord(String x, int from, int end, String word) {
+    int wordEnd = from + word.length();
+    if (wordEnd > end) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      // only ASCII letters are case insensitive without Pattern.UNICODE_CASE
+      if ((x.charAt(from + i) | 0x20) != word.charAt(i)) {
+        return false;
+      }
+    }
+    // a word boundary, marks following a letter count as word characters
+    if (wordEnd < end) {
+      int cp = x.codePointAt(wordEnd);
+      return cp != '_' && !Character.isLetterOrDigit(cp) && Character.getType(cp) != Character.NON_SPACING_MARK;
+    }
+    return true;
+  }
+
+  /**
+   * @return true for al or al. with an optional final line terminator, as found by {@code ^al\.?$}
+   */
+  static boolean isAl(String x) {
+    int end = x.length();
+    if (x.endsWith("\r\n")) {
+      end -= 2;
+    } else if (end > 0 && isLineTerminator(x.charAt(end - 1))) {
+      end--;
+    }
+    return x.startsWith("al") && (end == 2 || end == 3 && x.charAt(2) == '.');
+  }
+
+  /**
+   * @return true if the range contains a character not matched by the regular expression dot
+   */
+  private static boolean hasLineTerminator(String x, int from, int end) {
+    for (int i = from; i < end; i++) {
+      if (isLineTerminator(x.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isLineTerminator(char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
   }
 
   private static boolean isUnknown(Rank r) {
@@ -534,7 +858,7 @@ public class NameFormatter {
       
     } else if (authors.size() > 1) {
       String end;
-      if (AL.matcher(authors.get(authors.size() - 1)).find()) {
+      if (isAl(authors.get(authors.size() - 1))) {
         end = " " + ET_AL;
       } else {
         end = " & " + authors.get(authors.size() - 1);
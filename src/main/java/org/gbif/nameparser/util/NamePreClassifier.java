@@ -0,0 +1,254 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.NameType;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A cheap, pure Java classifier recognizing inputs that are obviously not names and need no parsing:
+ * machine identifiers and placeholders.
+ * <p>
+ * {@link NameType#IDENTIFIER}s are recognized by a single hand-written scan over the whole input:
+ * <ul>
+ *   <li>BOLD BINs, e.g. {@code BOLD:AAA1234}</li>
+ *   <li>UNITE species hypotheses, e.g. {@code SH0864666.10FU}</li>
+ *   <li>operational units, e.g. {@code OTU_12}, {@code ASV 7}, {@code ESV-3}, {@code zOTU42}</li>
+ * </ul>
+ * {@link NameType#PLACEHOLDER}s are whole inputs made of placeholder keywords only, e.g. {@code incertae sedis},
+ * {@code Unknown genus} or {@code unidentified}. They are matched case insensitively by a keyword automaton
+ * compiled once from the list of phrases, treating runs of whitespace, underscores and hyphens as a single space
+ * and ignoring a trailing period.
+ * <p>
+ * The rules are deliberately conservative: anything else, including names that merely contain an identifier or
+ * keyword, is left to the parser. Instances are immutable and thread safe.
+ */
+public class NamePreClassifier {
+  private static final List<String> PLACEHOLDER_WORDS = List.of(
+      "unknown", "unidentified", "unassigned", "unclassified", "undetermined", "unplaced", "indet", "not assigned"
+  );
+  private static final List<String> PLACEHOLDER_RANKS = List.of(
+      "taxon", "kingdom", "phylum", "division", "class", "order", "family", "tribe", "genus", "species", "sp"
+  );
+  /**
+   * The default placeholder phrases: each placeholder word alone or followed by a rank,
+   * plus incertae sedis and a few common null values.
+   */
+  public static final List<String> PLACEHOLDERS;
+
+  static {
+    List<String> phrases = new ArrayList<>();
+    for (String w : PLACEHOLDER_WORDS) {
+      phrases.add(w);
+      for (String r : PLACEHOLDER_RANKS) {
+        phrases.add(w + " " + r);
+      }
+    }
+    phrases.addAll(List.of("incertae sedis", "sedis incertae", "placeholder", "no name", "none", "null", "n/a"));
+    PLACEHOLDERS = List.copyOf(phrases);
+  }
+
+  public static final NamePreClassifier DEFAULT = new NamePreClassifier(PLACEHOLDERS);
+
+  // alphabet of the automaton: a-z, space and slash. Everything else rejects
+  private static final int SPACE = 26;
+  private static final int SLASH = 27;
+  private static final int ALPHABET = 28;
+  // transitions[state * ALPHABET + symbol] is the next state, 0 for none as the start state is never re-entered
+  private final int[] transitions;
+  private final boolean[] accepting;
+
+  /**
+   * @param placeholders the phrases to classify as placeholders, words separated by single spaces
+   */
+  public NamePreClassifier(Collection<String> placeholders) {
+    int states = 1;
+    for (String p : placeholders) {
+      states += p.length();
+    }
+    int[] trans = new int[states * ALPHABET];
+    boolean[] acc = new boolean[states];
+    int next = 1;
+    for (String p : placeholders) {
+      int state = 0;
+      for (int i = 0; i < p.length(); i++) {
+        int sym = symbol(p.charAt(i));
+        if (sym < 0) {
+          throw new IllegalArgumentException("Unsupported character in placeholder " + p);
+        }
+        int idx = state * ALPHABET + sym;
+        if (trans[idx] == 0) {
+          trans[idx] = next++;
+        }
+        state = trans[idx];
+      }
+      acc[state] = true;
+    }
+    this.transitions = Arrays.copyOf(trans, next * ALPHABET);
+    this.accepting = Arrays.copyOf(acc, next);
+  }
+
+  /**
+   * @return {@link NameType#IDENTIFIER}, {@link NameType#PLACEHOLDER} or null if the name needs to be parsed
+   */
+  @Nullable
+  public NameType classify(@Nullable String name) {
+    if (name == null) {
+      return null;
+    }
+    int start = 0;
+    int end = name.length();
+    while (start < end && Character.isWhitespace(name.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(name.charAt(end - 1))) {
+      end--;
+    }
+    if (start == end) {
+      return null;
+    }
+    if (isIdentifier(name, start, end)) {
+      return NameType.IDENTIFIER;
+    }
+    if (isPlaceholder(name, start, end)) {
+      return NameType.PLACEHOLDER;
+    }
+    return null;
+  }
+
+  private static boolean isIdentifier(String s, int start, int end) {
+    char c = s.charAt(start);
+    switch (c) {
+      case 'B':
+      case 'b':
+        return isBold(s, start, end);
+      case 'S':
+      case 's':
+        return isUniteSH(s, start, end);
+      case 'O':
+      case 'o':
+      case 'A':
+      case 'a':
+      case 'E':
+      case 'e':
+        return isOperationalUnit(s, start, end);
+      case 'Z':
+      case 'z':
+        return isOperationalUnit(s, start + 1, end);
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * BOLD:AAA1234
+   */
+  private static boolean isBold(String s, int start, int end) {
+    if (end - start != 12 || !s.regionMatches(true, start, "BOLD:", 0, 5)) {
+      return false;
+    }
+    return isUpper(s, start + 5, start + 8) && isDigits(s, start + 8, end);
+  }
+
+  /**
+   * SH0864666.10FU
+   */
+  private static boolean isUniteSH(String s, int start, int end) {
+    if (end - start < 7 || Character.toUpperCase(s.charAt(start + 1)) != 'H'
+        || Character.toUpperCase(s.charAt(end - 2)) != 'F' || Character.toUpperCase(s.charAt(end - 1)) != 'U') {
+      return false;
+    }
+    int dot = s.indexOf('.', start + 2);
+    return dot > start + 2 && dot < end - 3 && isDigits(s, start + 2, dot) && isDigits(s, dot + 1, end - 2);
+  }
+
+  /**
+   * OTU, ASV or ESV, followed by an optional separator and digits. A leading z is handled by the caller.
+   */
+  private static boolean isOperationalUnit(String s, int start, int end) {
+    if (end - start < 4) {
+      return false;
+    }
+    if (!s.regionMatches(true, start, "OTU", 0, 3)
+        && !s.regionMatches(true, start, "ASV", 0, 3)
+        && !s.regionMatches(true, start, "ESV", 0, 3)) {
+      return false;
+    }
+    int i = start + 3;
+    char sep = s.charAt(i);
+    if (sep == '_' || sep == '-' || sep == ':' || sep == ' ') {
+      i++;
+    }
+    return i < end && isDigits(s, i, end);
+  }
+
+  private static boolean isDigits(String s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return start < end;
+  }
+
+  private static boolean isUpper(String s, int start, int end) {
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isPlaceholder(String s, int start, int end) {
+    if (s.charAt(end - 1) == '.') {
+      end--;
+    }
+    int state = 0;
+    boolean space = false;
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c == ' ' || c == '_' || c == '-' || Character.isWhitespace(c)) {
+        space = true;
+        continue;
+      }
+      if (space) {
+        state = transitions[state * ALPHABET + SPACE];
+        if (state == 0) {
+          return false;
+        }
+        space = false;
+      }
+      int sym = symbol(c);
+      if (sym < 0) {
+        return false;
+      }
+      state = transitions[state * ALPHABET + sym];
+      if (state == 0) {
+        return false;
+      }
+    }
+    return accepting[state];
+  }
+
+  /**
+   * @return the automaton symbol of a character, case insensitive, or -1 if it is not part of the alphabet
+   */
+  private static int symbol(char c) {
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a';
+    } else if (c >= 'A' && c <= 'Z') {
+      return c - 'A';
+    } else if (c == ' ') {
+      return SPACE;
+    } else if (c == '/') {
+      return SLASH;
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,40 @@
+package org.gbif.nameparser.util;
+
+import jdk.jfr.*;
+
+/**
+ * A JDK Flight Recorder event for the heavier {@link UnicodeUtils} normalizations, committed for calls slower
+ * than the threshold.
+ */
+@Name("org.gbif.nameparser.Normalize")
+@Label("Normalize Unicode")
+@Category({"GBIF", "Name Parser"})
+@Description("Unicode normalization of a string")
+@Threshold("100 us")
+@StackTrace(false)
+class NormalizeEvent extends Event {
+
+  @Label("Operation")
+  @Description("The UnicodeUtils method called")
+  String operation;
+
+  @Label("Input Length")
+  int inputLength;
+
+  @Label("Changed")
+  @Description("True if the normalized string differs from the input")
+  boolean changed;
+
+  /**
+   * Ends the event and commits it if it is enabled and took longer than the threshold.
+   */
+  static void commit(NormalizeEvent event, String operation, CharSequence input, String output) {
+    event.end();
+    if (event.shouldCommit()) {
+      event.operation = operation;
+      event.inputLength = input == null ? 0 : input.length();
+      event.changed = input != null && !input.toString().equals(output);
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package org.gbif.nameparser.util;
+
+import jdk.jfr.*;
+
+/**
+ * A JDK Flight Recorder event for a {@link org.gbif.nameparser.api.NameParser#parse} call or a whole
+ * {@link org.gbif.nameparser.api.NameParser#parseAll} batch, committed by {@link FlightRecordingNameParser}
+ * for calls slower than the threshold. The result fields are only set for single names.
+ */
+@Name("org.gbif.nameparser.Parse")
+@Label("Parse Name")
+@Category({"GBIF", "Name Parser"})
+@Description("Parsing of a single scientific name or of a parseAll batch, see Batch Size")
+@Threshold("1 ms")
+@StackTrace(false)
+class ParseEvent extends Event {
+
+  @Label("Input Length")
+  @Description("Combined length of the scientific names and authorships in characters")
+  int inputLength;
+
+  @Label("Batch Size")
+  @Description("Number of names parsed, 1 for a single parse call")
+  int batchSize;
+
+  @Label("Rank")
+  String rank;
+
+  @Label("Result")
+  @Description("The kind of parse result: PARSED, INFORMAL or UNPARSABLE")
+  String variant;
+
+  @Label("Name Type")
+  String type;
+
+  @Label("State")
+  String state;
+
+  @Label("Failed")
+  @Description("True if the parser threw an exception")
+  boolean failed;
+}
@@ -0,0 +1,687 @@
+package org.gbif.nameparser.util;
+
+import it.unimi.dsi.fastutil.bytes.ByteArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An append only, column oriented container of parse results for bulk exports and in-memory analytics
+ * over millions of names, where a {@code List<ParseResult>} costs gigabytes of scattered objects.
+ * <p>
+ * Every result is stored as a row over parallel primitive columns:
+ * <ul>
+ *   <li>variant, type, code, rank, state, hybrid parts and flags as byte columns</li>
+ *   <li>name parts and years as int columns of ids into a {@link Dictionary} of distinct strings,
+ *   which can be shared between batches</li>
+ *   <li>author lists as offset columns over a flat id column</li>
+ *   <li>rarely used values like notes, ex authors or epithet qualifiers in a second set of columns,
+ *   only filled for the rows having any of them</li>
+ * </ul>
+ * Rows can be read column by column, through a lightweight {@link LinneanName} {@link #name(int) view},
+ * or be materialized into new or reused {@link ParsedName}s and {@link ParseResult}s. Materialized names equal the
+ * added ones with two exceptions: null and empty author lists are not distinguished, and authorships with neither
+ * authors nor a year are dropped together with any ex authors or imprint year they hold. The rarely used generic and
+ * specific authorships are kept as objects and shared with the materialized names.
+ * <p>
+ * A batch is not thread safe.
+ */
+public class ParseResultBatch {
+  private static final ParseResult.Variant[] VARIANTS = ParseResult.Variant.values();
+  private static final NameType[] TYPES = NameType.values();
+  private static final NomCode[] CODES = NomCode.values();
+  private static final Rank[] RANKS = Rank.values();
+  private static final ParsedName.State[] STATES = ParsedName.State.values();
+  private static final NamePart[] PARTS = NamePart.values();
+  private static final byte NULL = -1;
+  private static final int NO_YEAR = Integer.MIN_VALUE;
+
+  private static final int CANDIDATUS = 1;
+  private static final int EXTINCT = 1 << 1;
+  private static final int DOUBTFUL = 1 << 2;
+  private static final int MANUSCRIPT = 1 << 3;
+  private static final int ORIGINAL_SPELLING = 1 << 4;
+  private static final int CORRECTED_SPELLING = 1 << 5;
+
+  private final Dictionary dict;
+  private final ByteArrayList variant = new ByteArrayList();
+  private final ByteArrayList type = new ByteArrayList();
+  private final ByteArrayList code = new ByteArrayList();
+  private final ByteArrayList rank = new ByteArrayList();
+  private final ByteArrayList state = new ByteArrayList();
+  private final ByteArrayList notho = new ByteArrayList();
+  private final ByteArrayList flags = new ByteArrayList();
+  private final LongArrayList warnings = new LongArrayList();
+  private final IntArrayList uninomial = new IntArrayList();
+  private final IntArrayList genus = new IntArrayList();
+  private final IntArrayList infrageneric = new IntArrayList();
+  private final IntArrayList specific = new IntArrayList();
+  private final IntArrayList infraspecific = new IntArrayList();
+  private final IntArrayList phrase = new IntArrayList();
+  private final ListColumn combinationAuthors = new ListColumn();
+  private final IntArrayList combinationYear = new IntArrayList();
+  private final ListColumn basionymAuthors = new ListColumn();
+  private final IntArrayList basionymYear = new IntArrayList();
+  // the row of the rare columns, -1 if the row has none of them
+  private final IntArrayList rareRow = new IntArrayList();
+  private final RareColumns rare = new RareColumns();
+  private final Int2ObjectOpenHashMap<CombinedAuthorship> genericAuthorship = new Int2ObjectOpenHashMap<>();
+  private final Int2ObjectOpenHashMap<CombinedAuthorship> specificAuthorship = new Int2ObjectOpenHashMap<>();
+
+  /**
+   * The distinct strings of one or more batches, each identified by a positive int.
+   * Id 0 is reserved for null. Not thread safe.
+   */
+  public static class Dictionary {
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+    private final ObjectArrayList<String> values = new ObjectArrayList<>();
+
+    public Dictionary() {
+      values.add(null);
+    }
+
+    /**
+     * @return the id of the string, adding it if it is new, 0 for null
+     */
+    public int id(@Nullable String value) {
+      if (value == null) {
+        return 0;
+      }
+      int id = ids.getInt(value);
+      if (id == 0) {
+        id = values.size();
+        values.add(value);
+        ids.put(value, id);
+      }
+      return id;
+    }
+
+    @Nullable
+    public String get(int id) {
+      return values.get(id);
+    }
+
+    /**
+     * @return the number of distinct strings
+     */
+    public int size() {
+      return values.size() - 1;
+    }
+  }
+
+  /**
+   * Variable length lists of ids: the values of row r are stored from offsets[r] to offsets[r+1].
+   */
+  private static class ListColumn {
+    private final IntArrayList offsets = IntArrayList.of(0);
+    private final IntArrayList values = new IntArrayList();
+
+    void add(Dictionary dict, @Nullable Collection<String> list) {
+      if (list != null) {
+        for (String s : list) {
+          values.add(dict.id(s));
+        }
+      }
+      offsets.add(values.size());
+    }
+
+    void addEmpty() {
+      offsets.add(values.size());
+    }
+
+    int start(int row) {
+      return offsets.getInt(row);
+    }
+
+    int end(int row) {
+      return offsets.getInt(row + 1);
+    }
+
+    void trim() {
+      offsets.trim();
+      values.trim();
+    }
+  }
+
+  /**
+   * The columns of rarely used values, only filled for rows having any of them.
+   */
+  private static class RareColumns {
+    private final ByteArrayList taxonRank = new ByteArrayList();
+    private final IntArrayList cultivar = new IntArrayList();
+    private final IntArrayList sanctioningAuthor = new IntArrayList();
+    private final IntArrayList taxonomicNote = new IntArrayList();
+    private final IntArrayList nomenclaturalNote = new IntArrayList();
+    private final IntArrayList publishedIn = new IntArrayList();
+    private final IntArrayList publishedInYear = new IntArrayList();
+    private final IntArrayList publishedInPage = new IntArrayList();
+    // the unparsed remainder of a name or the verbatim name of an unparsable result
+    private final IntArrayList unparsed = new IntArrayList();
+    private final ListColumn combinationExAuthors = new ListColumn();
+    private final IntArrayList combinationImprintYear = new IntArrayList();
+    private final ListColumn basionymExAuthors = new ListColumn();
+    private final IntArrayList basionymImprintYear = new IntArrayList();
+    private final ListColumn otherWarnings = new ListColumn();
+    // pairs of name part ordinal and qualifier id
+    private final ListColumn epithetQualifier = new ListColumn();
+
+    int size() {
+      return taxonRank.size();
+    }
+
+    void trim() {
+      taxonRank.trim();
+      for (IntArrayList c : List.of(cultivar, sanctioningAuthor, taxonomicNote, nomenclaturalNote, publishedIn,
+          publishedInYear, publishedInPage, unparsed, combinationImprintYear, basionymImprintYear)) {
+        c.trim();
+      }
+      for (ListColumn c : List.of(combinationExAuthors, basionymExAuthors, otherWarnings, epithetQualifier)) {
+        c.trim();
+      }
+    }
+  }
+
+  public ParseResultBatch() {
+    this(new Dictionary());
+  }
+
+  /**
+   * @param dictionary the string dictionary to use, possibly shared with other batches
+   */
+  public ParseResultBatch(Dictionary dictionary) {
+    this.dict = dictionary;
+  }
+
+  public static ParseResultBatch of(Collection<ParseResult> results) {
+    ParseResultBatch batch = new ParseResultBatch();
+    batch.addAll(results);
+    batch.trim();
+    return batch;
+  }
+
+  public Dictionary dictionary() {
+    return dict;
+  }
+
+  public int size() {
+    return variant.size();
+  }
+
+  public void addAll(Collection<ParseResult> results) {
+    for (ParseResult r : results) {
+      add(r);
+    }
+  }
+
+  /**
+   * Appends a result as a new row.
+   *
+   * @return the row number
+   */
+  public int add(ParseResult result) {
+    int row = size();
+    variant.add((byte) result.variant().ordinal());
+    if (result instanceof ParseResult.Parsed p) {
+      addName(p.name());
+    } else if (result instanceof ParseResult.Informal i) {
+      boolean isGenus = i.taxonRank() == Rank.GENUS;
+      addFlat(NameType.INFORMAL, i.code(), i.rank(), isGenus ? null : i.taxon(), isGenus ? i.taxon() : null, i.phrase());
+      addRare(ordinal(i.taxonRank()), 0);
+    } else {
+      ParseResult.Unparsable u = (ParseResult.Unparsable) result;
+      addFlat(u.type(), u.code(), null, null, null, null);
+      addRare(NULL, dict.id(u.name()));
+    }
+    return row;
+  }
+
+  private void addName(ParsedName n) {
+    type.add(ordinal(n.getType()));
+    code.add(ordinal(n.getCode()));
+    rank.add(ordinal(n.getRank()));
+    state.add(ordinal(n.getState()));
+    int mask = 0;
+    if (n.getNotho() != null) {
+      for (NamePart p : n.getNotho()) {
+        mask |= 1 << p.ordinal();
+      }
+    }
+    notho.add((byte) mask);
+    int f = 0;
+    f |= n.isCandidatus() ? CANDIDATUS : 0;
+    f |= n.isExtinct() ? EXTINCT : 0;
+    f |= n.isDoubtful() ? DOUBTFUL : 0;
+    f |= n.isManuscript() ? MANUSCRIPT : 0;
+    if (n.isOriginalSpelling() != null) {
+      f |= n.isOriginalSpelling() ? ORIGINAL_SPELLING : CORRECTED_SPELLING;
+    }
+    flags.add((byte) f);
+    warnings.add(n.getWarningMask());
+    uninomial.add(dict.id(n.getUninomial()));
+    genus.add(dict.id(n.getGenus()));
+    infrageneric.add(dict.id(n.getInfragenericEpithet()));
+    specific.add(dict.id(n.getSpecificEpithet()));
+    infraspecific.add(dict.id(n.getInfraspecificEpithet()));
+    phrase.add(dict.id(n.getPhrase()));
+    // the getters would allocate missing authorships of a mutable name
+    Authorship comb = n.hasCombinationAuthorship() ? n.getCombinationAuthorship() : null;
+    Authorship bas = n.hasBasionymAuthorship() ? n.getBasionymAuthorship() : null;
+    combinationAuthors.add(dict, comb != null && comb.hasAuthors() ? comb.getAuthors() : null);
+    combinationYear.add(dict.id(comb == null ? null : comb.getYear()));
+    basionymAuthors.add(dict, bas != null && bas.hasAuthors() ? bas.getAuthors() : null);
+    basionymYear.add(dict.id(bas == null ? null : bas.getYear()));
+
+    List<String> other = null;
+    if (Long.bitCount(n.getWarningMask()) < n.getWarnings().size()) {
+      other = new ArrayList<>();
+      for (String w : n.getWarnings()) {
+        if (Warning.of(w) == null) {
+          other.add(w);
+        }
+      }
+    }
+    Map<NamePart, String> qualifiers = n.getEpithetQualifier();
+    boolean hasQualifiers = qualifiers != null && !qualifiers.isEmpty();
+    if (n.getCultivarEpithet() == null && n.getSanctioningAuthor() == null && n.getTaxonomicNote() == null
+        && n.getNomenclaturalNote() == null && n.getPublishedIn() == null && n.getPublishedInYear() == null
+        && n.getPublishedInPage() == null && n.getUnparsed() == null && !hasRare(comb) && !hasRare(bas)
+        && other == null && !hasQualifiers) {
+      rareRow.add(-1);
+    } else {
+      rareRow.add(rare.size());
+      rare.taxonRank.add(NULL);
+      rare.cultivar.add(dict.id(n.getCultivarEpithet()));
+      rare.sanctioningAuthor.add(dict.id(n.getSanctioningAuthor()));
+      rare.taxonomicNote.add(dict.id(n.getTaxonomicNote()));
+      rare.nomenclaturalNote.add(dict.id(n.getNomenclaturalNote()));
+      rare.publishedIn.add(dict.id(n.getPublishedIn()));
+      rare.publishedInYear.add(n.getPublishedInYear() == null ? NO_YEAR : n.getPublishedInYear());
+      rare.publishedInPage.add(dict.id(n.getPublishedInPage()));
+      rare.unparsed.add(dict.id(n.getUnparsed()));
+      rare.combinationExAuthors.add(dict, comb != null && comb.hasExAuthors() ? comb.getExAuthors() : null);
+      rare.combinationImprintYear.add(dict.id(comb == null ? null : comb.getImprintYear()));
+      rare.basionymExAuthors.add(dict, bas != null && bas.hasExAuthors() ? bas.getExAuthors() : null);
+      rare.basionymImprintYear.add(dict.id(bas == null ? null : bas.getImprintYear()));
+      rare.otherWarnings.add(dict, other);
+      if (hasQualifiers) {
+        for (Map.Entry<NamePart, String> e : qualifiers.entrySet()) {
+          rare.epithetQualifier.values.add(e.getKey().ordinal());
+          rare.epithetQualifier.values.add(dict.id(e.getValue()));
+        }
+      }
+      rare.epithetQualifier.addEmpty();
+    }
+    int row = size() - 1;
+    if (n.getGenericAuthorship() != null) {
+      genericAuthorship.put(row, n.getGenericAuthorship());
+    }
+    if (n.getSpecificAuthorship() != null) {
+      specificAuthorship.put(row, n.getSpecificAuthorship());
+    }
+  }
+
+  private static boolean hasRare(Authorship a) {
+    return a != null && (a.hasExAuthors() || a.hasImprintYear());
+  }
+
+  /**
+   * Adds the main columns for informal and unparsable results.
+   */
+  private void addFlat(NameType t, NomCode c, Rank r, String uni, String gen, String phr) {
+    type.add(ordinal(t));
+    code.add(ordinal(c));
+    rank.add(ordinal(r));
+    state.add(ordinal(ParsedName.State.NONE));
+    notho.add((byte) 0);
+    flags.add((byte) 0);
+    warnings.add(0);
+    uninomial.add(dict.id(uni));
+    genus.add(dict.id(gen));
+    infrageneric.add(0);
+    specific.add(0);
+    infraspecific.add(0);
+    phrase.add(dict.id(phr));
+    combinationAuthors.addEmpty();
+    combinationYear.add(0);
+    basionymAuthors.addEmpty();
+    basionymYear.add(0);
+  }
+
+  /**
+   * Adds a row of rare columns for informal and unparsable results.
+   */
+  private void addRare(byte tr, int verbatim) {
+    rareRow.add(rare.size());
+    rare.taxonRank.add(tr);
+    for (IntArrayList c : List.of(rare.cultivar, rare.sanctioningAuthor, rare.taxonomicNote, rare.nomenclaturalNote,
+        rare.publishedIn, rare.publishedInPage, rare.combinationImprintYear, rare.basionymImprintYear)) {
+      c.add(0);
+    }
+    rare.publishedInYear.add(NO_YEAR);
+    rare.unparsed.add(verbatim);
+    for (ListColumn c : List.of(rare.combinationExAuthors, rare.basionymExAuthors, rare.otherWarnings,
+        rare.epithetQualifier)) {
+      c.addEmpty();
+    }
+  }
+
+  private static byte ordinal(@Nullable Enum<?> value) {
+    return value == null ? NULL : (byte) value.ordinal();
+  }
+
+  private static <T> T value(T[] values, byte ordinal) {
+    return ordinal == NULL ? null : values[ordinal];
+  }
+
+  /**
+   * Trims all columns to their size, e.g. once a batch is complete.
+   */
+  public void trim() {
+    for (ByteArrayList c : List.of(variant, type, code, rank, state, notho, flags)) {
+      c.trim();
+    }
+    for (IntArrayList c : List.of(uninomial, genus, infrageneric, specific, infraspecific, phrase,
+        combinationYear, basionymYear, rareRow)) {
+      c.trim();
+    }
+    warnings.trim();
+    combinationAuthors.trim();
+    basionymAuthors.trim();
+    rare.trim();
+  }
+
+  public ParseResult.Variant variant(int row) {
+    return VARIANTS[variant.getByte(row)];
+  }
+
+  public NameType type(int row) {
+    return value(TYPES, type.getByte(row));
+  }
+
+  @Nullable
+  public NomCode code(int row) {
+    return value(CODES, code.getByte(row));
+  }
+
+  @Nullable
+  public Rank rank(int row) {
+    return value(RANKS, rank.getByte(row));
+  }
+
+  public ParsedName.State state(int row) {
+    return value(STATES, state.getByte(row));
+  }
+
+  /**
+   * @return the standard warnings of a row as a bitmask, see {@link Warning}
+   */
+  public long warningMask(int row) {
+    return warnings.getLong(row);
+  }
+
+  /**
+   * @return the id of the generic part, the uninomial or genus, in the {@link #dictionary()}, 0 for none
+   */
+  public int genericId(int row) {
+    int id = uninomial.getInt(row);
+    return id != 0 ? id : genus.getInt(row);
+  }
+
+  /**
+   * @return a read only view of the Linnean name parts of a row. Informal results show their taxon, unparsable
+   *     ones no parts at all.
+   */
+  public LinneanName name(int row) {
+    return new Row(row);
+  }
+
+  /**
+   * Materializes a row as a new result equal to the added one.
+   */
+  public ParseResult get(int row) {
+    switch (variant(row)) {
+      case PARSED:
+        return new ParseResult.Parsed(toParsedName(row));
+      case INFORMAL:
+        return new ParseResult.Informal(dict.get(genericId(row)), value(RANKS, rare.taxonRank.getByte(rareRow.getInt(row))),
+            rank(row), dict.get(phrase.getInt(row)), code(row));
+      default:
+        return new ParseResult.Unparsable(type(row), code(row), dict.get(rare.unparsed.getInt(rareRow.getInt(row))));
+    }
+  }
+
+  /**
+   * Materializes a row as a new {@link ParsedName}, see {@link #copyTo(int, ParsedName)}.
+   */
+  public ParsedName toParsedName(int row) {
+    ParsedName pn = new ParsedName();
+    copyTo(row, pn);
+    return pn;
+  }
+
+  /**
+   * Resets the target name and writes a row into it, just as
+   * {@link NameParser#parseInto(ParsedName, String, String, Rank, NomCode)} does for informal and unparsable results.
+   *
+   * @return the variant of the row
+   */
+  public ParseResult.Variant copyTo(int row, ParsedName target) {
+    target.reset();
+    ParseResult.Variant v = variant(row);
+    int r = rareRow.getInt(row);
+    target.setType(type(row));
+    target.setCode(code(row));
+    target.setRank(rank(row));
+    target.setUninomial(dict.get(uninomial.getInt(row)));
+    target.setGenus(dict.get(genus.getInt(row)));
+    target.setPhrase(dict.get(phrase.getInt(row)));
+    if (v != ParseResult.Variant.PARSED) {
+      target.setUnparsed(dict.get(rare.unparsed.getInt(r)));
+      return v;
+    }
+    target.setState(state(row));
+    target.setInfragenericEpithet(dict.get(infrageneric.getInt(row)));
+    target.setSpecificEpithet(dict.get(specific.getInt(row)));
+    target.setInfraspecificEpithet(dict.get(infraspecific.getInt(row)));
+    int mask = notho.getByte(row);
+    for (NamePart p : PARTS) {
+      if ((mask & 1 << p.ordinal()) != 0) {
+        target.addNotho(p);
+      }
+    }
+    int f = flags.getByte(row);
+    target.setCandidatus((f & CANDIDATUS) != 0);
+    target.setExtinct((f & EXTINCT) != 0);
+    target.setDoubtful((f & DOUBTFUL) != 0);
+    target.setManuscript((f & MANUSCRIPT) != 0);
+    if ((f & (ORIGINAL_SPELLING | CORRECTED_SPELLING)) != 0) {
+      target.setOriginalSpelling((f & ORIGINAL_SPELLING) != 0);
+    }
+    for (Warning warning : Warning.fromMask(warnings.getLong(row))) {
+      target.addWarning(warning);
+    }
+    // authorships are only materialized for rows holding authors or a year, others stay lazily empty
+    if (hasAuthorship(row, combinationAuthors, combinationYear)) {
+      copyTo(row, combinationAuthors, combinationYear, target.getCombinationAuthorship());
+    }
+    if (hasAuthorship(row, basionymAuthors, basionymYear)) {
+      copyTo(row, basionymAuthors, basionymYear, target.getBasionymAuthorship());
+    }
+    if (r >= 0) {
+      copyRareTo(r, target);
+    }
+    target.setGenericAuthorship(genericAuthorship.get(row));
+    target.setSpecificAuthorship(specificAuthorship.get(row));
+    return v;
+  }
+
+  private static boolean hasAuthorship(int row, ListColumn authors, IntArrayList year) {
+    return authors.start(row) < authors.end(row) || year.getInt(row) != 0;
+  }
+
+  private void copyTo(int row, ListColumn authors, IntArrayList year, Authorship a) {
+    for (int i = authors.start(row); i < authors.end(row); i++) {
+      a.addAuthor(dict.get(authors.values.getInt(i)));
+    }
+    a.setYear(dict.get(year.getInt(row)));
+  }
+
+  private void copyRareTo(int r, ParsedName target) {
+    target.setCultivarEpithet(dict.get(rare.cultivar.getInt(r)));
+    target.setSanctioningAuthor(dict.get(rare.sanctioningAuthor.getInt(r)));
+    target.setTaxonomicNote(dict.get(rare.taxonomicNote.getInt(r)));
+    target.setNomenclaturalNote(dict.get(rare.nomenclaturalNote.getInt(r)));
+    // setting publishedIn derives its year, which might have been changed afterwards
+    target.setPublishedIn(dict.get(rare.publishedIn.getInt(r)));
+    int year = rare.publishedInYear.getInt(r);
+    target.setPublishedInYear(year == NO_YEAR ? null : year);
+    target.setPublishedInPage(dict.get(rare.publishedInPage.getInt(r)));
+    target.setUnparsed(dict.get(rare.unparsed.getInt(r)));
+    ListColumn ex = rare.combinationExAuthors;
+    for (int i = ex.start(r); i < ex.end(r); i++) {
+      target.getCombinationAuthorship().addExAuthor(dict.get(ex.values.getInt(i)));
+    }
+    ex = rare.basionymExAuthors;
+    for (int i = ex.start(r); i < ex.end(r); i++) {
+      target.getBasionymAuthorship().addExAuthor(dict.get(ex.values.getInt(i)));
+    }
+    int imprint = rare.combinationImprintYear.getInt(r);
+    if (imprint != 0) {
+      target.getCombinationAuthorship().setImprintYear(dict.get(imprint));
+    }
+    imprint = rare.basionymImprintYear.getInt(r);
+    if (imprint != 0) {
+      target.getBasionymAuthorship().setImprintYear(dict.get(imprint));
+    }
+    ListColumn w = rare.otherWarnings;
+    for (int i = w.start(r); i < w.end(r); i++) {
+      target.addWarning(dict.get(w.values.getInt(i)));
+    }
+    ListColumn q = rare.epithetQualifier;
+    for (int i = q.start(r); i < q.end(r); i += 2) {
+      target.setEpithetQualifier(PARTS[q.values.getInt(i)], dict.get(q.values.getInt(i + 1)));
+    }
+  }
+
+  /**
+   * A read only view on the name parts of a single row.
+   */
+  private class Row implements LinneanName {
+    private final int row;
+
+    Row(int row) {
+      this.row = row;
+    }
+
+    @Override
+    public Rank getRank() {
+      return rank(row);
+    }
+
+    @Override
+    public NomCode getCode() {
+      return code(row);
+    }
+
+    @Override
+    public String getUninomial() {
+      return dict.get(uninomial.getInt(row));
+    }
+
+    @Override
+    public String getGenus() {
+      return dict.get(genus.getInt(row));
+    }
+
+    @Override
+    public String getInfragenericEpithet() {
+      return dict.get(infrageneric.getInt(row));
+    }
+
+    @Override
+    public String getSpecificEpithet() {
+      return dict.get(specific.getInt(row));
+    }
+
+    @Override
+    public String getInfraspecificEpithet() {
+      return dict.get(infraspecific.getInt(row));
+    }
+
+    @Override
+    public Set<NamePart> getNotho() {
+      int mask = notho.getByte(row);
+      if (mask == 0) {
+        return Collections.emptySet();
+      }
+      EnumSet<NamePart> parts = EnumSet.noneOf(NamePart.class);
+      for (NamePart p : PARTS) {
+        if ((mask & 1 << p.ordinal()) != 0) {
+          parts.add(p);
+        }
+      }
+      return Collections.unmodifiableSet(parts);
+    }
+
+    @Override
+    public void setRank(Rank rank) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setCode(NomCode code) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setUninomial(String uni) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setGenus(String genus) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setInfragenericEpithet(String infraGeneric) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setSpecificEpithet(String species) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setInfraspecificEpithet(String infraSpecies) {
+      throw readOnly();
+    }
+
+    @Override
+    public void setNotho(NamePart notho) {
+      throw readOnly();
+    }
+
+    @Override
+    public void addNotho(NamePart notho) {
+      throw readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+      return new UnsupportedOperationException("Batch rows are read only");
+    }
+  }
+}
@@ -0,0 +1,733 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A compact binary encoding of {@link ParseResult}s for shipping results between JVMs and writing intermediate files,
+ * written by hand without reflection.
+ * <p>
+ * Every result is written as a record: the varint length of the remainder, a header byte with the format
+ * {@link #VERSION} and the variant, followed by the variant specific fields. A parsed name starts with a varint
+ * bitmap of the fields present, so the many null fields of a typical name take no space at all.
+ * Enumerations are written as stable byte codes from append only tables instead of ordinals, nomenclatural codes as
+ * their {@link NomCode#getAbbrev() abbreviation}, so reordering an enum never breaks existing data.
+ * Strings are written as varint length prefixed UTF-8, integers as varints.
+ * <p>
+ * Decoded names equal the encoded ones with two exceptions: null and empty author lists are not distinguished, and
+ * authorships with neither authors nor a year are dropped together with any ex authors or imprint year they hold.
+ * A codec reuses its buffers and is not thread safe, use one instance per thread.
+ */
+public class ParseResultCodec {
+  /**
+   * The version of the format, stored in every record. Decoding rejects records of other versions.
+   */
+  public static final int VERSION = 1;
+
+  // the stable codes are the indices into the following tables. Only ever append to them!
+  private static final ParseResult.Variant[] VARIANTS = {
+      ParseResult.Variant.PARSED, ParseResult.Variant.INFORMAL, ParseResult.Variant.UNPARSABLE
+  };
+  private static final NameType[] TYPES = {
+      NameType.SCIENTIFIC, NameType.FORMULA, NameType.INFORMAL, NameType.PLACEHOLDER, NameType.IDENTIFIER,
+      NameType.OTHER
+  };
+  private static final NamePart[] PARTS = {
+      NamePart.GENERIC, NamePart.INFRAGENERIC, NamePart.SPECIFIC, NamePart.INFRASPECIFIC
+  };
+  private static final ParsedName.State[] STATES = {
+      ParsedName.State.COMPLETE, ParsedName.State.PARTIAL, ParsedName.State.NONE
+  };
+  private static final Warning[] WARNINGS = {
+      Warning.NULL_EPITHET, Warning.HOMOGLYHPS, Warning.UNUSUAL_CHARACTERS, Warning.SUBSPECIES_ASSIGNED,
+      Warning.LC_MONOMIAL, Warning.INDETERMINED, Warning.HIGHER_RANK_BINOMIAL, Warning.QUESTION_MARKS_REMOVED,
+      Warning.REPL_ENCLOSING_QUOTE, Warning.MISSING_GENUS, Warning.DOUBTFUL_GENUS, Warning.RANK_MISMATCH,
+      Warning.CODE_MISMATCH, Warning.HTML_ENTITIES, Warning.XML_TAGS, Warning.BLACKLISTED_EPITHET,
+      Warning.NOMENCLATURAL_REFERENCE, Warning.AUTHORSHIP_REMOVED, Warning.YEAR_INTERPRETED, Warning.UNLIKELY_YEAR,
+      Warning.UNCERTAIN_AUTHORSHIP, Warning.QUADRINOMIAL, Warning.ABBREVIATED_GENUS, Warning.ABBREVIATED_SUBGENUS,
+      Warning.LONG_NAME
+  };
+  private static final Rank[] RANKS = {
+      Rank.SUPERDOMAIN, Rank.DOMAIN, Rank.SUBDOMAIN, Rank.INFRADOMAIN, Rank.EMPIRE, Rank.REALM, Rank.SUBREALM,
+      Rank.SUPERKINGDOM, Rank.KINGDOM, Rank.SUBKINGDOM, Rank.INFRAKINGDOM, Rank.SUPERPHYLUM, Rank.PHYLUM,
+      Rank.SUBPHYLUM, Rank.INFRAPHYLUM, Rank.PARVPHYLUM, Rank.MICROPHYLUM, Rank.NANOPHYLUM, Rank.CLAUDIUS,
+      Rank.GIGACLASS, Rank.MEGACLASS, Rank.SUPERCLASS, Rank.CLASS, Rank.SUBCLASS, Rank.INFRACLASS,
+      Rank.SUBTERCLASS, Rank.PARVCLASS, Rank.SUPERDIVISION, Rank.DIVISION_ZOOLOGY, Rank.SUBDIVISION,
+      Rank.INFRADIVISION, Rank.SUPERLEGION, Rank.LEGION, Rank.SUBLEGION, Rank.INFRALEGION, Rank.MEGACOHORT,
+      Rank.SUPERCOHORT, Rank.COHORT, Rank.SUBCOHORT, Rank.INFRACOHORT, Rank.GIGAORDER, Rank.MAGNORDER,
+      Rank.GRANDORDER, Rank.MIRORDER, Rank.SUPERORDER, Rank.ORDER, Rank.NANORDER, Rank.HYPOORDER, Rank.MINORDER,
+      Rank.SUBORDER, Rank.INFRAORDER, Rank.PARVORDER, Rank.SUPERSECTION_ZOOLOGY, Rank.SECTION_ZOOLOGY,
+      Rank.SUBSECTION_ZOOLOGY, Rank.SUPERSERIES_ZOOLOGY, Rank.SERIES_ZOOLOGY, Rank.SUBSERIES_ZOOLOGY, Rank.FALANX,
+      Rank.GIGAFAMILY, Rank.MEGAFAMILY, Rank.GRANDFAMILY, Rank.SUPERFAMILY, Rank.EPIFAMILY, Rank.FAMILY,
+      Rank.SUBFAMILY, Rank.INFRAFAMILY, Rank.SUPERTRIBE, Rank.TRIBE, Rank.SUBTRIBE, Rank.INFRATRIBE,
+      Rank.SUPRAGENERIC_NAME, Rank.SUPERGENUS, Rank.GENUS, Rank.SUBGENUS, Rank.INFRAGENUS, Rank.DIVISION_BOTANY,
+      Rank.SUPERSECTION_BOTANY, Rank.SECTION_BOTANY, Rank.SUBSECTION_BOTANY, Rank.SUPERSERIES_BOTANY,
+      Rank.SERIES_BOTANY, Rank.SUBSERIES_BOTANY, Rank.INFRAGENERIC_NAME, Rank.SPECIES_AGGREGATE, Rank.SPECIES,
+      Rank.INFRASPECIFIC_NAME, Rank.GREX, Rank.KLEPTON, Rank.SUBSPECIES, Rank.CULTIVAR_GROUP, Rank.CONVARIETY,
+      Rank.INFRASUBSPECIFIC_NAME, Rank.PROLES, Rank.NATIO, Rank.ABERRATION, Rank.MORPH, Rank.SUPERVARIETY,
+      Rank.VARIETY, Rank.SUBVARIETY, Rank.SUPERFORM, Rank.FORM, Rank.SUBFORM, Rank.PATHOVAR, Rank.BIOVAR,
+      Rank.CHEMOVAR, Rank.MORPHOVAR, Rank.PHAGOVAR, Rank.SEROVAR, Rank.CHEMOFORM, Rank.FORMA_SPECIALIS, Rank.LUSUS,
+      Rank.CULTIVAR, Rank.MUTATIO, Rank.STRAIN, Rank.OTHER, Rank.UNRANKED
+  };
+  private static final NomCode[] CODES = new NomCode[128];
+
+  // the reverse tables from ordinal to stable code
+  private static final byte[] VARIANT_CODES = codes(VARIANTS, ParseResult.Variant.values());
+  private static final byte[] TYPE_CODES = codes(TYPES, NameType.values());
+  private static final byte[] PART_CODES = codes(PARTS, NamePart.values());
+  private static final byte[] STATE_CODES = codes(STATES, ParsedName.State.values());
+  private static final byte[] WARNING_CODES = codes(WARNINGS, Warning.values());
+  private static final byte[] RANK_CODES = codes(RANKS, Rank.values());
+
+  static {
+    for (NomCode c : NomCode.values()) {
+      CODES[c.getAbbrev()] = c;
+    }
+  }
+
+  // presence bits of a parsed name
+  private static final int TYPE = 1;
+  private static final int CODE = 1 << 1;
+  private static final int STATE = 1 << 2;
+  private static final int UNINOMIAL = 1 << 3;
+  private static final int GENUS = 1 << 4;
+  private static final int INFRAGENERIC = 1 << 5;
+  private static final int SPECIFIC = 1 << 6;
+  private static final int INFRASPECIFIC = 1 << 7;
+  private static final int CULTIVAR = 1 << 8;
+  private static final int PHRASE = 1 << 9;
+  private static final int NOTHO = 1 << 10;
+  private static final int COMBINATION = 1 << 11;
+  private static final int BASIONYM = 1 << 12;
+  private static final int SANCTIONING_AUTHOR = 1 << 13;
+  private static final int GENERIC_AUTHORSHIP = 1 << 14;
+  private static final int SPECIFIC_AUTHORSHIP = 1 << 15;
+  private static final int TAXONOMIC_NOTE = 1 << 16;
+  private static final int NOMENCLATURAL_NOTE = 1 << 17;
+  private static final int PUBLISHED_IN = 1 << 18;
+  private static final int PUBLISHED_IN_YEAR = 1 << 19;
+  private static final int PUBLISHED_IN_PAGE = 1 << 20;
+  private static final int UNPARSED = 1 << 21;
+  private static final int WARNINGS_SET = 1 << 22;
+  private static final int OTHER_WARNINGS = 1 << 23;
+  private static final int QUALIFIERS = 1 << 24;
+  private static final int CANDIDATUS = 1 << 25;
+  private static final int EXTINCT = 1 << 26;
+  private static final int DOUBTFUL = 1 << 27;
+  private static final int MANUSCRIPT = 1 << 28;
+  private static final int ORIGINAL_SPELLING = 1 << 29;
+  private static final int CORRECTED_SPELLING = 1 << 30;
+
+  // presence bits of an authorship
+  private static final int AUTHORS = 1;
+  private static final int EX_AUTHORS = 1 << 1;
+  private static final int YEAR = 1 << 2;
+  private static final int IMPRINT_YEAR = 1 << 3;
+
+  // presence bits of informal and unparsable results
+  private static final int RESULT_CODE = 1;
+  private static final int RESULT_PHRASE = 1 << 1;
+  private static final int RESULT_NAME = 1 << 2;
+
+  private byte[] buf = new byte[256];
+  private int pos;
+  private int limit;
+
+  /**
+   * Writes a single record.
+   */
+  public void write(ParseResult result, DataOutput out) throws IOException {
+    encodeRecord(result);
+    writeVarint(out, pos);
+    out.write(buf, 0, pos);
+  }
+
+  /**
+   * Writes a single record at the position of the buffer.
+   *
+   * @throws java.nio.BufferOverflowException if the remaining buffer is too small
+   */
+  public void write(ParseResult result, ByteBuffer out) {
+    encodeRecord(result);
+    int len = pos;
+    while ((len & ~0x7F) != 0) {
+      out.put((byte) (len & 0x7F | 0x80));
+      len >>>= 7;
+    }
+    out.put((byte) len);
+    out.put(buf, 0, pos);
+  }
+
+  /**
+   * @return a single record as a new array
+   */
+  public byte[] encode(ParseResult result) {
+    encodeRecord(result);
+    int len = pos;
+    int prefix = 1;
+    for (int x = len >>> 7; x != 0; x >>>= 7) {
+      prefix++;
+    }
+    byte[] bytes = new byte[prefix + len];
+    for (int i = 0; i < prefix - 1; i++, len >>>= 7) {
+      bytes[i] = (byte) (len & 0x7F | 0x80);
+    }
+    bytes[prefix - 1] = (byte) len;
+    System.arraycopy(buf, 0, bytes, prefix, pos);
+    return bytes;
+  }
+
+  /**
+   * Reads a single record.
+   *
+   * @throws java.io.EOFException if the input ends before the record does
+   * @throws IOException if the record is malformed or of another version
+   */
+  public ParseResult read(DataInput in) throws IOException {
+    int len = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = in.readByte();
+      len |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        break;
+      }
+      if (shift >= 28) {
+        throw new IOException("Malformed record length");
+      }
+    }
+    if (buf.length < len) {
+      buf = new byte[Math.max(len, buf.length * 2)];
+    }
+    in.readFully(buf, 0, len);
+    return decodeRecord(buf, 0, len);
+  }
+
+  /**
+   * Reads a single record from the position of the buffer, advancing it to the end of the record.
+   *
+   * @throws IllegalArgumentException if the record is malformed or of another version
+   */
+  public ParseResult read(ByteBuffer in) {
+    try {
+      int len = 0;
+      for (int shift = 0; ; shift += 7) {
+        byte b = in.get();
+        len |= (b & 0x7F) << shift;
+        if (b >= 0) {
+          break;
+        }
+        if (shift >= 28) {
+          throw new IOException("Malformed record length");
+        }
+      }
+      if (len > in.remaining()) {
+        throw new IOException("Truncated record");
+      }
+      ParseResult result;
+      if (in.hasArray()) {
+        result = decodeRecord(in.array(), in.arrayOffset() + in.position(), len);
+      } else {
+        byte[] bytes = new byte[len];
+        in.get(in.position(), bytes);
+        result = decodeRecord(bytes, 0, len);
+      }
+      in.position(in.position() + len);
+      return result;
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads the record of a single {@link #encode(ParseResult) encoded} result.
+   */
+  public ParseResult decode(byte[] bytes) {
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  private static <E extends Enum<E>> byte[] codes(E[] table, E[] values) {
+    byte[] codes = new byte[values.length];
+    Arrays.fill(codes, (byte) -1);
+    for (int i = 0; i < table.length; i++) {
+      codes[table[i].ordinal()] = (byte) i;
+    }
+    for (E v : values) {
+      if (codes[v.ordinal()] < 0) {
+        throw new IllegalStateException("No stable code for " + v.getDeclaringClass().getSimpleName() + "." + v);
+      }
+    }
+    return codes;
+  }
+
+  private static <E> E value(E[] table, int code) throws IOException {
+    if (code < 0 || code >= table.length) {
+      throw new IOException("Unknown " + table.getClass().getComponentType().getSimpleName() + " code " + code);
+    }
+    return table[code];
+  }
+
+  private static void writeVarint(DataOutput out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte(value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  // encoding into the buffer
+
+  private void encodeRecord(ParseResult result) {
+    pos = 0;
+    ParseResult.Variant variant = result.variant();
+    writeByte(VERSION << 2 | VARIANT_CODES[variant.ordinal()]);
+    if (result instanceof ParseResult.Parsed p) {
+      encodeName(p.name());
+    } else if (result instanceof ParseResult.Informal i) {
+      writeByte(RANK_CODES[i.taxonRank().ordinal()]);
+      writeByte(RANK_CODES[i.rank().ordinal()]);
+      writeByte((i.code() != null ? RESULT_CODE : 0) | (i.phrase() != null ? RESULT_PHRASE : 0));
+      writeString(i.taxon());
+      if (i.phrase() != null) {
+        writeString(i.phrase());
+      }
+      if (i.code() != null) {
+        writeByte(i.code().getAbbrev());
+      }
+    } else {
+      ParseResult.Unparsable u = (ParseResult.Unparsable) result;
+      writeByte(TYPE_CODES[u.type().ordinal()]);
+      writeByte((u.code() != null ? RESULT_CODE : 0) | (u.name() != null ? RESULT_NAME : 0));
+      if (u.code() != null) {
+        writeByte(u.code().getAbbrev());
+      }
+      if (u.name() != null) {
+        writeString(u.name());
+      }
+    }
+  }
+
+  private void encodeName(ParsedName n) {
+    // the getters would allocate missing authorships of a mutable name
+    Authorship comb = n.hasCombinationAuthorship() ? n.getCombinationAuthorship() : null;
+    Authorship bas = n.hasBasionymAuthorship() ? n.getBasionymAuthorship() : null;
+    long mask = n.getWarningMask();
+    Set<String> warnings = n.getWarnings();
+    boolean otherWarnings = Long.bitCount(mask) < warnings.size();
+    Map<NamePart, String> qualifiers = n.getEpithetQualifier();
+    int bits = 0;
+    bits |= n.getType() != null ? TYPE : 0;
+    bits |= n.getCode() != null ? CODE : 0;
+    bits |= n.getState() != null ? STATE : 0;
+    bits |= n.getUninomial() != null ? UNINOMIAL : 0;
+    bits |= n.getGenus() != null ? GENUS : 0;
+    bits |= n.getInfragenericEpithet() != null ? INFRAGENERIC : 0;
+    bits |= n.getSpecificEpithet() != null ? SPECIFIC : 0;
+    bits |= n.getInfraspecificEpithet() != null ? INFRASPECIFIC : 0;
+    bits |= n.getCultivarEpithet() != null ? CULTIVAR : 0;
+    bits |= n.getPhrase() != null ? PHRASE : 0;
+    bits |= n.isHybridName() ? NOTHO : 0;
+    bits |= present(comb) ? COMBINATION : 0;
+    bits |= present(bas) ? BASIONYM : 0;
+    bits |= n.getSanctioningAuthor() != null ? SANCTIONING_AUTHOR : 0;
+    bits |= n.getGenericAuthorship() != null ? GENERIC_AUTHORSHIP : 0;
+    bits |= n.getSpecificAuthorship() != null ? SPECIFIC_AUTHORSHIP : 0;
+    bits |= n.getTaxonomicNote() != null ? TAXONOMIC_NOTE : 0;
+    bits |= n.getNomenclaturalNote() != null ? NOMENCLATURAL_NOTE : 0;
+    bits |= n.getPublishedIn() != null ? PUBLISHED_IN : 0;
+    bits |= n.getPublishedInYear() != null ? PUBLISHED_IN_YEAR : 0;
+    bits |= n.getPublishedInPage() != null ? PUBLISHED_IN_PAGE : 0;
+    bits |= n.getUnparsed() != null ? UNPARSED : 0;
+    bits |= mask != 0 ? WARNINGS_SET : 0;
+    bits |= otherWarnings ? OTHER_WARNINGS : 0;
+    bits |= qualifiers != null && !qualifiers.isEmpty() ? QUALIFIERS : 0;
+    bits |= n.isCandidatus() ? CANDIDATUS : 0;
+    bits |= n.isExtinct() ? EXTINCT : 0;
+    bits |= n.isDoubtful() ? DOUBTFUL : 0;
+    bits |= n.isManuscript() ? MANUSCRIPT : 0;
+    if (n.isOriginalSpelling() != null) {
+      bits |= n.isOriginalSpelling() ? ORIGINAL_SPELLING : CORRECTED_SPELLING;
+    }
+    writeVarint(bits);
+    writeByte(RANK_CODES[n.getRank().ordinal()]);
+    if ((bits & TYPE) != 0) {
+      writeByte(TYPE_CODES[n.getType().ordinal()]);
+    }
+    if ((bits & CODE) != 0) {
+      writeByte(n.getCode().getAbbrev());
+    }
+    if ((bits & STATE) != 0) {
+      writeByte(STATE_CODES[n.getState().ordinal()]);
+    }
+    writeString(bits, UNINOMIAL, n.getUninomial());
+    writeString(bits, GENUS, n.getGenus());
+    writeString(bits, INFRAGENERIC, n.getInfragenericEpithet());
+    writeString(bits, SPECIFIC, n.getSpecificEpithet());
+    writeString(bits, INFRASPECIFIC, n.getInfraspecificEpithet());
+    writeString(bits, CULTIVAR, n.getCultivarEpithet());
+    writeString(bits, PHRASE, n.getPhrase());
+    if ((bits & NOTHO) != 0) {
+      int parts = 0;
+      for (NamePart p : n.getNotho()) {
+        parts |= 1 << PART_CODES[p.ordinal()];
+      }
+      writeByte(parts);
+    }
+    if ((bits & COMBINATION) != 0) {
+      encodeAuthorship(comb);
+    }
+    if ((bits & BASIONYM) != 0) {
+      encodeAuthorship(bas);
+    }
+    writeString(bits, SANCTIONING_AUTHOR, n.getSanctioningAuthor());
+    if ((bits & GENERIC_AUTHORSHIP) != 0) {
+      encodeCombinedAuthorship(n.getGenericAuthorship());
+    }
+    if ((bits & SPECIFIC_AUTHORSHIP) != 0) {
+      encodeCombinedAuthorship(n.getSpecificAuthorship());
+    }
+    writeString(bits, TAXONOMIC_NOTE, n.getTaxonomicNote());
+    writeString(bits, NOMENCLATURAL_NOTE, n.getNomenclaturalNote());
+    writeString(bits, PUBLISHED_IN, n.getPublishedIn());
+    if ((bits & PUBLISHED_IN_YEAR) != 0) {
+      int year = n.getPublishedInYear();
+      writeVarint(year << 1 ^ year >> 31);
+    }
+    writeString(bits, PUBLISHED_IN_PAGE, n.getPublishedInPage());
+    writeString(bits, UNPARSED, n.getUnparsed());
+    if ((bits & WARNINGS_SET) != 0) {
+      long stable = 0;
+      // the bits of a warning mask are the ordinals
+      for (long m = mask; m != 0; m &= m - 1) {
+        stable |= 1L << WARNING_CODES[Long.numberOfTrailingZeros(m)];
+      }
+      writeVarint(stable);
+    }
+    if ((bits & OTHER_WARNINGS) != 0) {
+      writeVarint(warnings.size() - Long.bitCount(mask));
+      for (String w : warnings) {
+        if (Warning.of(w) == null) {
+          writeString(w);
+        }
+      }
+    }
+    if ((bits & QUALIFIERS) != 0) {
+      writeVarint(qualifiers.size());
+      for (Map.Entry<NamePart, String> e : qualifiers.entrySet()) {
+        writeByte(PART_CODES[e.getKey().ordinal()]);
+        writeString(e.getValue());
+      }
+    }
+  }
+
+  private static boolean present(@Nullable Authorship a) {
+    return a != null && (a.hasAuthors() || a.hasExAuthors() || a.getYear() != null || a.hasImprintYear());
+  }
+
+  private void encodeAuthorship(Authorship a) {
+    int bits = (a.hasAuthors() ? AUTHORS : 0) | (a.hasExAuthors() ? EX_AUTHORS : 0)
+        | (a.getYear() != null ? YEAR : 0) | (a.hasImprintYear() ? IMPRINT_YEAR : 0);
+    writeByte(bits);
+    if ((bits & AUTHORS) != 0) {
+      writeStrings(a.getAuthors());
+    }
+    if ((bits & EX_AUTHORS) != 0) {
+      writeStrings(a.getExAuthors());
+    }
+    writeString(bits, YEAR, a.getYear());
+    writeString(bits, IMPRINT_YEAR, a.getImprintYear());
+  }
+
+  private void encodeCombinedAuthorship(CombinedAuthorship ca) {
+    Authorship comb = ca.hasCombinationAuthorship() ? ca.getCombinationAuthorship() : null;
+    Authorship bas = ca.hasBasionymAuthorship() ? ca.getBasionymAuthorship() : null;
+    int bits = (present(comb) ? AUTHORS : 0) | (present(bas) ? EX_AUTHORS : 0)
+        | (ca.getSanctioningAuthor() != null ? YEAR : 0);
+    writeByte(bits);
+    if ((bits & AUTHORS) != 0) {
+      encodeAuthorship(comb);
+    }
+    if ((bits & EX_AUTHORS) != 0) {
+      encodeAuthorship(bas);
+    }
+    writeString(bits, YEAR, ca.getSanctioningAuthor());
+  }
+
+  private void ensure(int bytes) {
+    if (pos + bytes > buf.length) {
+      buf = Arrays.copyOf(buf, Math.max(pos + bytes, buf.length * 2));
+    }
+  }
+
+  private void writeByte(int b) {
+    ensure(1);
+    buf[pos++] = (byte) b;
+  }
+
+  private void writeVarint(long value) {
+    ensure(10);
+    while ((value & ~0x7FL) != 0) {
+      buf[pos++] = (byte) (value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+    buf[pos++] = (byte) value;
+  }
+
+  private void writeString(int bits, int bit, String value) {
+    if ((bits & bit) != 0) {
+      writeString(value);
+    }
+  }
+
+  private void writeStrings(List<String> values) {
+    writeVarint(values.size());
+    for (String s : values) {
+      writeString(s);
+    }
+  }
+
+  private void writeString(String s) {
+    int len = s.length();
+    int i = 0;
+    while (i < len && s.charAt(i) < 0x80) {
+      i++;
+    }
+    if (i < len) {
+      byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+      writeVarint(utf8.length);
+      ensure(utf8.length);
+      System.arraycopy(utf8, 0, buf, pos, utf8.length);
+      pos += utf8.length;
+    } else {
+      // plain ASCII, the common case
+      writeVarint(len);
+      ensure(len);
+      for (i = 0; i < len; i++) {
+        buf[pos++] = (byte) s.charAt(i);
+      }
+    }
+  }
+
+  // decoding from a byte array
+
+  private ParseResult decodeRecord(byte[] bytes, int offset, int len) throws IOException {
+    byte[] scratch = buf;
+    buf = bytes;
+    pos = offset;
+    limit = offset + len;
+    try {
+      int header = readByte();
+      if (header >>> 2 != VERSION) {
+        throw new IOException("Unsupported codec version " + (header >>> 2));
+      }
+      ParseResult result;
+      switch (value(VARIANTS, header & 3)) {
+        case PARSED:
+          result = new ParseResult.Parsed(decodeName());
+          break;
+        case INFORMAL:
+          Rank taxonRank = value(RANKS, readByte());
+          Rank rank = value(RANKS, readByte());
+          int bits = readByte();
+          String taxon = readString();
+          String phrase = (bits & RESULT_PHRASE) != 0 ? readString() : null;
+          NomCode code = (bits & RESULT_CODE) != 0 ? readCode() : null;
+          result = new ParseResult.Informal(taxon, taxonRank, rank, phrase, code);
+          break;
+        default:
+          NameType type = value(TYPES, readByte());
+          bits = readByte();
+          code = (bits & RESULT_CODE) != 0 ? readCode() : null;
+          result = new ParseResult.Unparsable(type, code, (bits & RESULT_NAME) != 0 ? readString() : null);
+      }
+      if (pos != limit) {
+        throw new IOException("Unexpected " + (limit - pos) + " bytes at the end of the record");
+      }
+      return result;
+    } finally {
+      buf = scratch;
+    }
+  }
+
+  private ParsedName decodeName() throws IOException {
+    ParsedName n = new ParsedName();
+    int bits = (int) readVarint();
+    n.setRank(value(RANKS, readByte()));
+    if ((bits & TYPE) != 0) {
+      n.setType(value(TYPES, readByte()));
+    }
+    if ((bits & CODE) != 0) {
+      n.setCode(readCode());
+    }
+    n.setState((bits & STATE) != 0 ? value(STATES, readByte()) : null);
+    n.setUninomial(readString(bits, UNINOMIAL));
+    n.setGenus(readString(bits, GENUS));
+    n.setInfragenericEpithet(readString(bits, INFRAGENERIC));
+    n.setSpecificEpithet(readString(bits, SPECIFIC));
+    n.setInfraspecificEpithet(readString(bits, INFRASPECIFIC));
+    if ((bits & CULTIVAR) != 0) {
+      n.setCultivarEpithet(readString());
+    }
+    if ((bits & PHRASE) != 0) {
+      n.setPhrase(readString());
+    }
+    if ((bits & NOTHO) != 0) {
+      int parts = readByte();
+      for (int code = 0; parts != 0; code++, parts >>>= 1) {
+        if ((parts & 1) != 0) {
+          n.addNotho(value(PARTS, code));
+        }
+      }
+    }
+    if ((bits & COMBINATION) != 0) {
+      decodeAuthorship(n.getCombinationAuthorship());
+    }
+    if ((bits & BASIONYM) != 0) {
+      decodeAuthorship(n.getBasionymAuthorship());
+    }
+    if ((bits & SANCTIONING_AUTHOR) != 0) {
+      n.setSanctioningAuthor(readString());
+    }
+    if ((bits & GENERIC_AUTHORSHIP) != 0) {
+      n.setGenericAuthorship(decodeCombinedAuthorship());
+    }
+    if ((bits & SPECIFIC_AUTHORSHIP) != 0) {
+      n.setSpecificAuthorship(decodeCombinedAuthorship());
+    }
+    if ((bits & TAXONOMIC_NOTE) != 0) {
+      n.setTaxonomicNote(readString());
+    }
+    if ((bits & NOMENCLATURAL_NOTE) != 0) {
+      n.setNomenclaturalNote(readString());
+    }
+    if ((bits & PUBLISHED_IN) != 0) {
+      n.setPublishedIn(readString());
+    }
+    // setting publishedIn derives its year, which might have been changed afterwards
+    if ((bits & PUBLISHED_IN_YEAR) != 0) {
+      int year = (int) readVarint();
+      n.setPublishedInYear(year >>> 1 ^ -(year & 1));
+    } else if ((bits & PUBLISHED_IN) != 0) {
+      n.setPublishedInYear(null);
+    }
+    if ((bits & PUBLISHED_IN_PAGE) != 0) {
+      n.setPublishedInPage(readString());
+    }
+    if ((bits & UNPARSED) != 0) {
+      n.setUnparsed(readString());
+    }
+    if ((bits & WARNINGS_SET) != 0) {
+      long stable = readVarint();
+      for (int code = 0; stable != 0; code++, stable >>>= 1) {
+        if ((stable & 1) != 0) {
+          n.addWarning(value(WARNINGS, code));
+        }
+      }
+    }
+    if ((bits & OTHER_WARNINGS) != 0) {
+      for (int i = readLength(); i > 0; i--) {
+        n.addWarning(readString());
+      }
+    }
+    if ((bits & QUALIFIERS) != 0) {
+      for (int i = readLength(); i > 0; i--) {
+        NamePart part = value(PARTS, readByte());
+        n.setEpithetQualifier(part, readString());
+      }
+    }
+    n.setCandidatus((bits & CANDIDATUS) != 0);
+    n.setExtinct((bits & EXTINCT) != 0);
+    n.setDoubtful((bits & DOUBTFUL) != 0);
+    n.setManuscript((bits & MANUSCRIPT) != 0);
+    if ((bits & (ORIGINAL_SPELLING | CORRECTED_SPELLING)) != 0) {
+      n.setOriginalSpelling((bits & ORIGINAL_SPELLING) != 0);
+    }
+    return n;
+  }
+
+  private void decodeAuthorship(Authorship a) throws IOException {
+    int bits = readByte();
+    if ((bits & AUTHORS) != 0) {
+      for (int i = readLength(); i > 0; i--) {
+        a.addAuthor(readString());
+      }
+    }
+    if ((bits & EX_AUTHORS) != 0) {
+      for (int i = readLength(); i > 0; i--) {
+        a.addExAuthor(readString());
+      }
+    }
+    a.setYear(readString(bits, YEAR));
+    a.setImprintYear(readString(bits, IMPRINT_YEAR));
+  }
+
+  private CombinedAuthorship decodeCombinedAuthorship() throws IOException {
+    CombinedAuthorship ca = new CombinedAuthorship();
+    int bits = readByte();
+    if ((bits & AUTHORS) != 0) {
+      decodeAuthorship(ca.getCombinationAuthorship());
+    }
+    if ((bits & EX_AUTHORS) != 0) {
+      decodeAuthorship(ca.getBasionymAuthorship());
+    }
+    ca.setSanctioningAuthor(readString(bits, YEAR));
+    return ca;
+  }
+
+  private int readByte() throws IOException {
+    if (pos >= limit) {
+      throw new IOException("Truncated record");
+    }
+    return buf[pos++] & 0xFF;
+  }
+
+  private long readVarint() throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if (b < 0x80) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed varint");
+  }
+
+  private int readLength() throws IOException {
+    long len = readVarint();
+    if (len > limit - pos) {
+      throw new IOException("Truncated record");
+    }
+    return (int) len;
+  }
+
+  private NomCode readCode() throws IOException {
+    int abbrev = readByte();
+    NomCode code = abbrev < CODES.length ? CODES[abbrev] : null;
+    if (code == null) {
+      throw new IOException("Unknown NomCode code " + (char) abbrev);
+    }
+    return code;
+  }
+
+  @Nullable
+  private String readString(int bits, int bit) throws IOException {
+    return (bits & bit) != 0 ? readString() : null;
+  }
+
+  private String readString() throws IOException {
+    int len = readLength();
+    String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+    pos += len;
+    return s;
+  }
+}
@@ -0,0 +1,80 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+/**
+ * Helpers for handing out parse results that are shared between callers, e.g. from a cache.
+ */
+class ParseResults {
+
+  private ParseResults() {
+  }
+
+  /**
+   * Returns a result that does not share any mutable state with the given one.
+   * {@link ParseResult.Informal} and {@link ParseResult.Unparsable} are immutable records and returned as they are,
+   * the {@link ParsedName} of a {@link ParseResult.Parsed} result is deep copied.
+   */
+  static ParseResult copyOf(ParseResult result) {
+    if (result instanceof ParseResult.Parsed parsed) {
+      return new ParseResult.Parsed(copyOf(parsed.name()));
+    }
+    return result;
+  }
+
+  /**
+   * A deep copy of the given name. In contrast to {@link ParsedName#copy(ParsedName)} the authorship objects
+   * are copied too, not shared by reference.
+   * The source is only read: authorships it never materialized stay {@link Authorship#EMPTY} in the copy,
+   * and authorships with neither authors nor a year are dropped together with any ex authors or imprint year.
+   */
+  static ParsedName copyOf(ParsedName pn) {
+    ParsedName copy = new ParsedName();
+    copy.copy(pn);
+    copyAuthorship(pn, copy);
+    copy.setGenericAuthorship(copyOf(pn.getGenericAuthorship()));
+    copy.setSpecificAuthorship(copyOf(pn.getSpecificAuthorship()));
+    return copy;
+  }
+
+  private static CombinedAuthorship copyOf(CombinedAuthorship ca) {
+    if (ca == null) {
+      return null;
+    }
+    CombinedAuthorship copy;
+    if (ca instanceof ParsedAuthorship pa) {
+      copy = new ParsedAuthorship(pa);
+    } else {
+      copy = new CombinedAuthorship();
+      copy.setCombinationAuthorship(ca.hasCombinationAuthorship() ? ca.getCombinationAuthorship() : Authorship.EMPTY);
+      copy.setBasionymAuthorship(ca.hasBasionymAuthorship() ? ca.getBasionymAuthorship() : Authorship.EMPTY);
+      copy.setSanctioningAuthor(ca.getSanctioningAuthor());
+    }
+    copyAuthorship(ca, copy);
+    return copy;
+  }
+
+  /**
+   * Replaces the combination and basionym authorship the copy still shares with its source by copies of themselves,
+   * and the ones without authors or year by {@link Authorship#EMPTY}.
+   * Getters are only called for existing authorships, so none is materialized in the source or the copy.
+   */
+  private static void copyAuthorship(CombinedAuthorship source, CombinedAuthorship copy) {
+    if (source.hasCombinationAuthorship()) {
+      Authorship a = source.getCombinationAuthorship();
+      if (copy.getCombinationAuthorship() == a) {
+        copy.setCombinationAuthorship(new Authorship(a));
+      }
+    } else {
+      copy.setCombinationAuthorship(Authorship.EMPTY);
+    }
+    if (source.hasBasionymAuthorship()) {
+      Authorship a = source.getBasionymAuthorship();
+      if (copy.getBasionymAuthorship() == a) {
+        copy.setBasionymAuthorship(new Authorship(a));
+      }
+    } else {
+      copy.setBasionymAuthorship(Authorship.EMPTY);
+    }
+  }
+}
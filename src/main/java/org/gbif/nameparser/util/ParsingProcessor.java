@@ -0,0 +1,303 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.NameInput;
+import org.gbif.nameparser.api.NameParser;
+import org.gbif.nameparser.api.ParseResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A reactive-streams parsing stage, transforming a {@link Flow.Publisher} of names into one of parse results
+ * in the same order, using nothing but the JDK {@link Flow} interfaces.
+ * <p>
+ * Names are requested from upstream in micro-batches of {@code batchSize} and every batch is parsed with
+ * {@link NameParser#parseAll(List)} on the executor. A batch is dispatched once all of its requested names
+ * have arrived, or when upstream completes. Up to {@code parallelism} batches are parsed concurrently.
+ * <p>
+ * Demand is propagated: upstream names are only requested while the downstream subscriber has requested more
+ * results than are already parsed or in flight. A slow subscriber therefore throttles parsing and the number of
+ * buffered results never exceeds {@code parallelism * batchSize}.
+ * <p>
+ * The processor supports a single subscriber and a single subscription, as a processor sits at one place in a
+ * pipeline. A failing parser or upstream error cancels the stage and is signalled downstream via {@code onError}.
+ */
+public class ParsingProcessor implements Flow.Processor<NameInput, ParseResult> {
+  private final NameParser parser;
+  private final Executor executor;
+  private final int batchSize;
+  private final int parallelism;
+
+  // all mutable state is guarded by this lock, downstream signals are serialized by the drain loop
+  private final Object lock = new Object();
+  private final AtomicInteger wip = new AtomicInteger();
+  private final Deque<CompletableFuture<List<ParseResult>>> batches = new ArrayDeque<>();
+  private Flow.Subscription upstream;
+  private Flow.Subscriber<? super ParseResult> downstream;
+  // true once the downstream onSubscribe call has returned and other signals may follow
+  private boolean downstreamReady;
+  private List<NameInput> current = new ArrayList<>();
+  private List<ParseResult> head;
+  private int headIdx;
+  // results requested by downstream, but not yet delivered
+  private long demand;
+  // names requested from upstream, but not yet received
+  private long outstanding;
+  // results parsed or in flight, but not yet delivered
+  private long buffered;
+  private boolean upstreamDone;
+  private boolean cancelled;
+  private boolean terminated;
+  private Throwable error;
+
+  /**
+   * Creates a processor that parses on the common fork-join pool.
+   */
+  public ParsingProcessor(NameParser parser, int batchSize, int parallelism) {
+    this(parser, ForkJoinPool.commonPool(), batchSize, parallelism);
+  }
+
+  /**
+   * @param batchSize   number of names requested from upstream and parsed together
+   * @param parallelism maximum number of batches being parsed at the same time
+   */
+  public ParsingProcessor(NameParser parser, Executor executor, int batchSize, int parallelism) {
+    if (batchSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("batchSize and parallelism must be positive");
+    }
+    this.parser = parser;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.parallelism = parallelism;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super ParseResult> subscriber) {
+    Objects.requireNonNull(subscriber);
+    synchronized (lock) {
+      if (downstream != null) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+          @Override
+          public void request(long n) {
+          }
+
+          @Override
+          public void cancel() {
+          }
+        });
+        subscriber.onError(new IllegalStateException("ParsingProcessor supports only a single subscriber"));
+        return;
+      }
+      downstream = subscriber;
+    }
+    subscriber.onSubscribe(new Flow.Subscription() {
+      @Override
+      public void request(long n) {
+        synchronized (lock) {
+          if (n <= 0) {
+            error = new IllegalArgumentException("non-positive request: " + n);
+          } else {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+          }
+        }
+        drain();
+      }
+
+      @Override
+      public void cancel() {
+        cancelUpstream();
+      }
+    });
+    synchronized (lock) {
+      downstreamReady = true;
+    }
+    drain();
+  }
+
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    Objects.requireNonNull(subscription);
+    boolean cancel;
+    synchronized (lock) {
+      cancel = upstream != null || cancelled;
+      if (upstream == null) {
+        upstream = subscription;
+      }
+    }
+    if (cancel) {
+      subscription.cancel();
+    } else {
+      drain();
+    }
+  }
+
+  @Override
+  public void onNext(NameInput item) {
+    CompletableFuture<?> batch;
+    synchronized (lock) {
+      if (upstreamDone || cancelled) {
+        return;
+      }
+      current.add(Objects.requireNonNull(item));
+      outstanding--;
+      if (current.size() < batchSize && outstanding > 0) {
+        return;
+      }
+      batch = dispatch();
+    }
+    batch.whenComplete((r, e) -> drain());
+    // request the next batch right away, if there is demand for it
+    drain();
+  }
+
+  @Override
+  public void onError(Throwable throwable) {
+    synchronized (lock) {
+      if (error == null) {
+        error = throwable;
+      }
+      upstreamDone = true;
+    }
+    drain();
+  }
+
+  @Override
+  public void onComplete() {
+    CompletableFuture<?> batch = null;
+    synchronized (lock) {
+      if (!current.isEmpty()) {
+        batch = dispatch();
+      }
+      upstreamDone = true;
+    }
+    if (batch != null) {
+      batch.whenComplete((r, e) -> drain());
+    }
+    drain();
+  }
+
+  /**
+   * Submits the current batch for parsing. Must hold the lock.
+   * The caller has to trigger a drain once the returned future completes, outside of the lock.
+   */
+  private CompletableFuture<?> dispatch() {
+    List<NameInput> batch = current;
+    current = new ArrayList<>(batchSize);
+    buffered += batch.size();
+    CompletableFuture<List<ParseResult>> future = CompletableFuture.supplyAsync(() -> parser.parseAll(batch), executor);
+    batches.add(future);
+    return future;
+  }
+
+  /**
+   * Emits parsed results while there is demand, terminates the subscriber and requests more names from upstream.
+   * Runs on whichever thread calls it, but only one thread at a time.
+   */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    do {
+      while (true) {
+        ParseResult next = null;
+        Throwable err = null;
+        boolean complete = false;
+        Flow.Subscriber<? super ParseResult> sub;
+        synchronized (lock) {
+          sub = downstream;
+          if (sub == null || !downstreamReady || terminated) {
+            break;
+          }
+          if (cancelled) {
+            terminated = true;
+            batches.clear();
+            break;
+          }
+          if (error == null && demand > 0) {
+            next = poll();
+          }
+          if (error != null) {
+            err = error;
+            terminated = true;
+          } else if (next != null) {
+            demand--;
+            buffered--;
+          } else if (upstreamDone && buffered == 0) {
+            complete = true;
+            terminated = true;
+          }
+        }
+        if (err != null) {
+          cancelUpstream();
+          sub.onError(err);
+          break;
+        } else if (complete) {
+          sub.onComplete();
+          break;
+        } else if (next == null) {
+          break;
+        }
+        sub.onNext(next);
+      }
+      requestUpstream();
+      missed = wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * @return the next parsed result in order, or null if it is not yet available. Must hold the lock.
+   */
+  private ParseResult poll() {
+    while (head == null || headIdx >= head.size()) {
+      CompletableFuture<List<ParseResult>> f = batches.peek();
+      if (f == null || !f.isDone()) {
+        return null;
+      }
+      batches.poll();
+      try {
+        head = f.join();
+        headIdx = 0;
+      } catch (CompletionException e) {
+        error = e.getCause() == null ? e : e.getCause();
+        return null;
+      }
+    }
+    return head.get(headIdx++);
+  }
+
+  private void requestUpstream() {
+    Flow.Subscription up;
+    long n;
+    synchronized (lock) {
+      up = upstream;
+      if (up == null || upstreamDone || cancelled || terminated || outstanding > 0
+          || batches.size() >= parallelism || demand <= buffered + current.size()) {
+        return;
+      }
+      n = batchSize - current.size();
+      outstanding = n;
+    }
+    up.request(n);
+  }
+
+  private void cancelUpstream() {
+    Flow.Subscription up;
+    synchronized (lock) {
+      up = upstream;
+      cancelled = true;
+    }
+    if (up != null) {
+      up.cancel();
+    }
+  }
+}
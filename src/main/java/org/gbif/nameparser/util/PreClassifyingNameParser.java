@@ -0,0 +1,94 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link NameParser} decorator answering identifiers and placeholders recognized by a {@link NamePreClassifier}
+ * directly with a {@link ParseResult.Unparsable} result, without calling the wrapped parser.
+ * All other names, and the remainder of a {@link #parseAll(List)} batch, are passed on unchanged.
+ * <p>
+ * The parser is thread safe if the wrapped parser is.
+ */
+public class PreClassifyingNameParser implements NameParser {
+  private final NameParser parser;
+  private final NamePreClassifier classifier;
+  private final LongAdder names = new LongAdder();
+  private final LongAdder classified = new LongAdder();
+
+  /**
+   * Number of names requested and number of names answered by the pre-classifier since the parser was created.
+   */
+  public record Stats(long names, long classified) {
+
+    /**
+     * @return the share of names that never reached the wrapped parser, 0 if there were none yet
+     */
+    public double classifiedRatio() {
+      return names == 0 ? 0 : (double) classified / names;
+    }
+  }
+
+  public PreClassifyingNameParser(NameParser parser) {
+    this(parser, NamePreClassifier.DEFAULT);
+  }
+
+  public PreClassifyingNameParser(NameParser parser, NamePreClassifier classifier) {
+    this.parser = parser;
+    this.classifier = classifier;
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    names.increment();
+    ParseResult result = classify(scientificName, code);
+    return result != null ? result : parser.parse(scientificName, authorship, rank, code);
+  }
+
+  @Override
+  public List<ParseResult> parseAll(List<NameInput> inputs) {
+    names.add(inputs.size());
+    List<ParseResult> results = new ArrayList<>(inputs.size());
+    List<NameInput> remaining = new ArrayList<>();
+    int[] remainingIdx = new int[inputs.size()];
+    for (NameInput n : inputs) {
+      ParseResult result = classify(n.scientificName(), n.code());
+      if (result == null) {
+        remainingIdx[remaining.size()] = results.size();
+        remaining.add(n);
+      }
+      results.add(result);
+    }
+    if (!remaining.isEmpty()) {
+      List<ParseResult> parsed = parser.parseAll(remaining);
+      for (int i = 0; i < remaining.size(); i++) {
+        results.set(remainingIdx[i], parsed.get(i));
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+
+  public Stats stats() {
+    return new Stats(names.sum(), classified.sum());
+  }
+
+  @Nullable
+  private ParseResult classify(String scientificName, @Nullable NomCode code) {
+    NameType type = classifier.classify(scientificName);
+    if (type == null) {
+      return null;
+    }
+    classified.increment();
+    return new ParseResult.Unparsable(type, code, scientificName);
+  }
+}
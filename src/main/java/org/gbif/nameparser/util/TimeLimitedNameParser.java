@@ -0,0 +1,217 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * A {@link NameParser} decorator enforcing a deadline for every single name, so a few pathological inputs,
+ * e.g. kilobytes of garbage, cannot stall a whole batch.
+ * <p>
+ * Every parse runs on a worker thread while the caller waits at most {@code timeout} for it. A parse that times out
+ * is interrupted and answered with a {@link ParseResult.Unparsable} result of type {@link NameType#OTHER}.
+ * Inputs longer than {@code maxLength} characters are answered the same way without being parsed at all.
+ * Timeouts and rejected inputs are counted and can optionally be passed to a quarantine sink for later inspection.
+ * <p>
+ * A parser that ignores interrupts keeps its worker thread busy until it is done. At most {@code maxInFlight} parses,
+ * by default {@link #DEFAULT_MAX_IN_FLIGHT}, run at the same time, including abandoned ones that timed out but did not
+ * stop yet, so the worker pool never grows beyond that many threads. A name waiting longer than its deadline for a
+ * free slot is answered and counted as a timeout without being parsed.
+ * Batches are parsed name by name, each with its own deadline.
+ * Close the parser to shut down the worker pool when it was created by this parser.
+ */
+public class TimeLimitedNameParser implements NameParser, AutoCloseable {
+  public static final int DEFAULT_MAX_IN_FLIGHT = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+  private final NameParser parser;
+  private final ExecutorService executor;
+  private final boolean ownExecutor;
+  private final long timeoutNanos;
+  private final int maxLength;
+  private final Semaphore inFlight;
+  private final Consumer<NameInput> quarantine;
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+
+  /**
+   * Number of parses that timed out and number of inputs rejected for their length since the parser was created.
+   */
+  public record Stats(long timeouts, long rejected) {
+  }
+
+  /**
+   * Creates a parser without a length limit or quarantine.
+   */
+  public TimeLimitedNameParser(NameParser parser, Duration timeout) {
+    this(parser, timeout, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Creates a parser with its own pool of daemon worker threads.
+   *
+   * @param maxLength  the maximum combined length of name and authorship passed on to the wrapped parser
+   * @param quarantine optional sink receiving all inputs that timed out or were too long
+   */
+  public TimeLimitedNameParser(NameParser parser, Duration timeout, int maxLength, @Nullable Consumer<NameInput> quarantine) {
+    this(parser, timeout, maxLength, DEFAULT_MAX_IN_FLIGHT, quarantine);
+  }
+
+  /**
+   * Creates a parser with its own pool of at most {@code maxInFlight} daemon worker threads.
+   *
+   * @param maxLength   the maximum combined length of name and authorship passed on to the wrapped parser
+   * @param maxInFlight the maximum number of parses running at the same time, including abandoned ones
+   * @param quarantine  optional sink receiving all inputs that timed out or were too long
+   */
+  public TimeLimitedNameParser(NameParser parser, Duration timeout, int maxLength, int maxInFlight,
+                               @Nullable Consumer<NameInput> quarantine) {
+    this(parser, Executors.newCachedThreadPool(new WorkerFactory()), true, timeout, maxLength, maxInFlight, quarantine);
+  }
+
+  /**
+   * Creates a parser running on an external executor which is not shut down on close.
+   */
+  public TimeLimitedNameParser(NameParser parser, ExecutorService executor, Duration timeout, int maxLength,
+                               @Nullable Consumer<NameInput> quarantine) {
+    this(parser, executor, false, timeout, maxLength, DEFAULT_MAX_IN_FLIGHT, quarantine);
+  }
+
+  /**
+   * Creates a parser running at most {@code maxInFlight} parses on an external executor which is not shut down on close.
+   */
+  public TimeLimitedNameParser(NameParser parser, ExecutorService executor, Duration timeout, int maxLength,
+                               int maxInFlight, @Nullable Consumer<NameInput> quarantine) {
+    this(parser, executor, false, timeout, maxLength, maxInFlight, quarantine);
+  }
+
+  private TimeLimitedNameParser(NameParser parser, ExecutorService executor, boolean ownExecutor, Duration timeout,
+                                int maxLength, int maxInFlight, @Nullable Consumer<NameInput> quarantine) {
+    if (timeout.isNegative() || timeout.isZero()) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    if (maxLength < 1) {
+      throw new IllegalArgumentException("maxLength must be positive");
+    }
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be positive");
+    }
+    this.parser = parser;
+    this.executor = executor;
+    this.ownExecutor = ownExecutor;
+    this.timeoutNanos = timeout.toNanos();
+    this.maxLength = maxLength;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.quarantine = quarantine;
+  }
+
+  @Override
+  public ParseResult parse(String scientificName, @Nullable String authorship, @Nullable Rank rank, @Nullable NomCode code) {
+    NameInput input = new NameInput(scientificName, authorship, rank, code);
+    if (input.length() > maxLength) {
+      rejected.increment();
+      return quarantine(input);
+    }
+    // waiting for a free slot counts towards the deadline
+    final long remainingNanos;
+    try {
+      final long start = System.nanoTime();
+      if (!inFlight.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+        timeouts.increment();
+        return quarantine(input);
+      }
+      remainingNanos = timeoutNanos - (System.nanoTime() - start);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while parsing " + scientificName);
+    }
+    // the permit is released exactly once, by the task or by the caller if the task never started
+    AtomicBoolean started = new AtomicBoolean();
+    Future<ParseResult> future;
+    try {
+      future = executor.submit(() -> {
+        if (!started.compareAndSet(false, true)) {
+          return null;
+        }
+        try {
+          return parser.parse(scientificName, authorship, rank, code);
+        } finally {
+          inFlight.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      inFlight.release();
+      throw e;
+    }
+    try {
+      return future.get(remainingNanos, TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      abandon(future, started);
+      timeouts.increment();
+      return quarantine(input);
+    } catch (InterruptedException e) {
+      abandon(future, started);
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Interrupted while parsing " + scientificName);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException re) {
+        throw re;
+      } else if (e.getCause() instanceof Error err) {
+        throw err;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public Optional<ParsedAuthorship> parseAuthorship(String authorship, @Nullable NomCode code) {
+    return parser.parseAuthorship(authorship, code);
+  }
+
+  public Stats stats() {
+    return new Stats(timeouts.sum(), rejected.sum());
+  }
+
+  /**
+   * Shuts down the worker pool if it was created by this parser, interrupting parses still running.
+   */
+  @Override
+  public void close() {
+    if (ownExecutor) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void abandon(Future<ParseResult> future, AtomicBoolean started) {
+    if (started.compareAndSet(false, true)) {
+      inFlight.release();
+    }
+    future.cancel(true);
+  }
+
+  private ParseResult quarantine(NameInput input) {
+    if (quarantine != null) {
+      quarantine.accept(input);
+    }
+    return new ParseResult.Unparsable(NameType.OTHER, input.code(), input.scientificName());
+  }
+
+  private static class WorkerFactory implements ThreadFactory {
+    private static final AtomicInteger POOL = new AtomicInteger();
+    private final int pool = POOL.incrementAndGet();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread t = new Thread(r, "time-limited-parser-" + pool + "-" + counter.incrementAndGet());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
@@ -27,7 +27,6 @@ import java.util.stream.Collectors;
 public class UnicodeUtils {
   private static final Logger LOG = LoggerFactory.getLogger(UnicodeUtils.class);
   private static final boolean DEBUG = false;
-  private static Pattern MARKER = Pattern.compile("\\p{M}");
   private static final Pattern OCT = Pattern.compile("^[0-7]+$");
   private static final Pattern HEX = Pattern.compile("^[0-9abcdefABCDEF]+$");
   private static final IntSet DIACRITICS; // unicode codepoints as keys to avoid dealing with chars & surrogate pairs
@@ -246,6 +245,14 @@ public class UnicodeUtils {
    * @param keep optional list of unicode characters/codepoints to not replace even though they are considered homoglyphs
    */
   public static String replaceHomoglyphs(final CharSequence cs, boolean inclHyphens, @Nullable String keep) {
+    NormalizeEvent event = new NormalizeEvent();
+    event.begin();
+    String result = replaceHomoglyphsImpl(cs, inclHyphens, keep);
+    NormalizeEvent.commit(event, "replaceHomoglyphs", cs, result);
+    return result;
+  }
+
+  private static String replaceHomoglyphsImpl(final CharSequence cs, boolean inclHyphens, @Nullable String keep) {
     if (cs == null) {
       return null;
     }
@@ -286,13 +293,100 @@ public class UnicodeUtils {
    * @return string converted to ASCII equivalent, expanding common ligatures
    */
   public static String foldToAscii(String x) {
+    NormalizeEvent event = new NormalizeEvent();
+    event.begin();
+    String result = foldToAsciiImpl(x);
+    NormalizeEvent.commit(event, "foldToAscii", x, result);
+    return result;
+  }
+
+  private static String foldToAsciiImpl(String x) {
     if (x == null) {
       return null;
     }
     x = replaceSpecialCases(x);
     // use java unicode normalizer to remove accents
     x = Normalizer.normalize(x, Normalizer.Form.NFD);
-    return MARKER.matcher(x).replaceAll("");
+    return removeMarks(x);
+  }
+
+  /**
+   * Removes all combining marks, i.e. the characters matched by {@code \p{M}}.
+   *
+   * @return the same string if there are none
+   */
+  static String removeMarks(String x) {
+    StringBuilder sb = null;
+    int last = 0;
+    int i = 0;
+    while (i < x.length()) {
+      int cp = x.codePointAt(i);
+      int next = i + Character.charCount(cp);
+      int type = Character.getType(cp);
+      if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+          || type == Character.COMBINING_SPACING_MARK) {
+        if (sb == null) {
+          sb = new StringBuilder(x.length());
+        }
+        sb.append(x, last, i);
+        last = next;
+      }
+      i = next;
+    }
+    return sb == null ? x : sb.append(x, last, x.length()).toString();
+  }
+
+  /**
+   * Applies {@link #decompose(String)} and/or {@link #foldToAscii(String)} in place to the characters of a buffer
+   * after start. ASCII characters are skipped, the results for all others are cached per character.
+   */
+  static void foldInPlace(StringBuilder sb, int start, boolean decompose, boolean asciiOnly) {
+    if (!decompose && !asciiOnly) {
+      return;
+    }
+    int idx = (decompose ? 1 : 0) + (asciiOnly ? 2 : 0) - 1;
+    String[] cache = FOLDED[idx];
+    if (cache == null) {
+      // a race only computes a few entries more than once
+      cache = new String[Character.MAX_VALUE + 1];
+      FOLDED[idx] = cache;
+    }
+    int i = start;
+    while (i < sb.length()) {
+      char c = sb.charAt(i);
+      if (c < 0x80) {
+        i++;
+        continue;
+      }
+      String x;
+      int len = 1;
+      if (Character.isHighSurrogate(c) && i + 1 < sb.length() && Character.isLowSurrogate(sb.charAt(i + 1))) {
+        len = 2;
+        x = fold(sb.substring(i, i + 2), decompose, asciiOnly);
+      } else {
+        x = cache[c];
+        if (x == null) {
+          x = fold(String.valueOf(c), decompose, asciiOnly);
+          cache[c] = x;
+        }
+        if (x.length() == 1 && x.charAt(0) == c) {
+          i++;
+          continue;
+        }
+      }
+      sb.replace(i, i + len, x);
+      i += x.length();
+    }
+  }
+
+  // the results of foldInPlace per character for decompose, foldToAscii and both
+  private static final String[][] FOLDED = new String[3][];
+
+  private static String fold(String x, boolean decompose, boolean asciiOnly) {
+    if (decompose) {
+      x = decompose(x);
+    }
+    return asciiOnly ? foldToAsciiImpl(x) : x;
   }
 
   // Unicode apostrophe / single-quote variants that normalise to the ASCII apostrophe '
@@ -524,6 +618,14 @@ public class UnicodeUtils {
    * E.g. Ã¼ is the German Umlaut ü and indicates we have encoded utf8 text still.
    */
   public static String decodeUtf8Garbage(String text) {
+    NormalizeEvent event = new NormalizeEvent();
+    event.begin();
+    String result = decodeUtf8GarbageImpl(text);
+    NormalizeEvent.commit(event, "decodeUtf8Garbage", text, result);
+    return result;
+  }
+
+  private static String decodeUtf8GarbageImpl(String text) {
     Pattern UTF8_TEST = Pattern.compile("(Ã¤|Ã¼|Ã¶|Ã\u0084|Ã\u009C|Ã\u0096|" + // äüöÄÜÖ
                                         "Ã±|Ã¸|Ã§|Ã®|Ã´|Ã»|Ã\u0091|Ã\u0098|Ã\u0087|Ã\u008E|Ã\u0094|Ã\u009B" + // ñøçîôûÑØÇÎÔÛ
                                         "Ã¡|Ã©|Ã³|Ãº|Ã\u00AD|Ã\u0081|Ã\u0089|Ã\u0093|Ã\u009A|Ã\u008D)" // áéóúíÁÉÓÚÍ
@@ -0,0 +1,81 @@
+package org.gbif.nameparser.api;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NameParserTest {
+
+  /**
+   * A trivial parser that returns an unparsable result echoing the input and its rank.
+   */
+  static final NameParser ECHO = (name, authorship, rank, code) ->
+      new ParseResult.Unparsable(NameType.OTHER, code, name + "|" + authorship + "|" + rank);
+
+  @Test
+  public void parseInput() {
+    assertEquals(ECHO.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL),
+        ECHO.parse(new NameInput("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL)));
+    assertEquals(ECHO.parse("Abies"), ECHO.parse(new NameInput("Abies")));
+    assertEquals(ECHO.parse("Abies", Rank.GENUS), ECHO.parse(new NameInput("Abies", Rank.GENUS)));
+  }
+
+  @Test
+  public void parseAllKeepsOrder() {
+    List<NameInput> names = List.of(
+        new NameInput("Abies alba"),
+        new NameInput("Picea", Rank.GENUS),
+        new NameInput("Abies alba"),
+        new NameInput("Puma concolor", "(L.)", Rank.SPECIES, NomCode.ZOOLOGICAL)
+    );
+    List<ParseResult> results = ECHO.parseAll(names);
+    assertEquals(names.size(), results.size());
+    for (int i = 0; i < names.size(); i++) {
+      assertEquals(ECHO.parse(names.get(i)), results.get(i));
+    }
+    assertEquals(List.of(), ECHO.parseAll(List.of()));
+  }
+
+  @Test
+  public void parseInto() {
+    NameParser parser = (name, authorship, rank, code) -> {
+      if (name.endsWith("sp. 1")) {
+        return new ParseResult.Informal(name.split(" ")[0], Rank.GENUS, Rank.SPECIES, "1", code);
+      } else if (name.contains(" ")) {
+        ParsedName pn = new ParsedName();
+        pn.setGenus(name.split(" ")[0]);
+        pn.setSpecificEpithet(name.split(" ")[1]);
+        pn.setRank(rank);
+        pn.setType(NameType.SCIENTIFIC);
+        pn.setState(ParsedName.State.COMPLETE);
+        pn.getCombinationAuthorship().addAuthor(authorship);
+        pn.addWarning(Warnings.HOMOGLYHPS);
+        return new ParseResult.Parsed(pn);
+      }
+      return new ParseResult.Unparsable(NameType.PLACEHOLDER, code, name);
+    };
+    ParsedName target = new ParsedName();
+
+    assertEquals(ParseResult.Variant.PARSED, parser.parseInto(target, "Abies alba", "Mill.", Rank.SPECIES, null));
+    assertEquals(parser.parse("Abies alba", "Mill.", Rank.SPECIES, null).orElseThrow(), target);
+
+    assertEquals(ParseResult.Variant.INFORMAL, parser.parseInto(target, new NameInput("Allium sp. 1", null, null, NomCode.BOTANICAL)));
+    ParseResult.Informal informal = new ParseResult.Informal("Allium", Rank.GENUS, Rank.SPECIES, "1", NomCode.BOTANICAL);
+    assertEquals(informal.toParsedName(), target);
+
+    assertEquals(ParseResult.Variant.UNPARSABLE, parser.parseInto(target, "unknown", null, null, NomCode.ZOOLOGICAL));
+    assertEquals(NameType.PLACEHOLDER, target.getType());
+    assertEquals(NomCode.ZOOLOGICAL, target.getCode());
+    assertEquals(ParsedName.State.NONE, target.getState());
+    assertEquals("unknown", target.getUnparsed());
+    assertNull(target.getGenus());
+    assertNull(target.getPhrase());
+    assertFalse(target.hasAuthorship());
+    assertTrue(target.getWarnings().isEmpty());
+
+    assertEquals(ParseResult.Variant.PARSED, parser.parseInto(target, "Picea abies", "L.", Rank.SPECIES, null));
+    assertEquals(parser.parse("Picea abies", "L.", Rank.SPECIES, null).orElseThrow(), target);
+  }
+}
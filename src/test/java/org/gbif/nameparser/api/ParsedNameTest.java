@@ -1,10 +1,19 @@
 package org.gbif.nameparser.api;
 
 
+import org.apache.commons.lang3.time.StopWatch;
+import org.gbif.nameparser.util.HeapFootprint;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.*;
 
@@ -158,6 +167,152 @@ public class ParsedNameTest {
     assertFalse(a.hasEpithetQualifier(NamePart.GENERIC));
   }
 
+  @Test
+  public void testWarnings() {
+    ParsedName pn = new ParsedName();
+    assertTrue(pn.getWarnings().isEmpty());
+    assertEquals(0, pn.getWarningMask());
+
+    pn.addWarning(Warnings.HOMOGLYHPS, Warnings.REMOVED_PREFIX + "foo");
+    pn.addWarning(Warning.LONG_NAME);
+    pn.getWarnings().add(Warnings.HOMOGLYHPS);
+    assertEquals(Warning.HOMOGLYHPS.mask() | Warning.LONG_NAME.mask(), pn.getWarningMask());
+    assertTrue(pn.hasWarning(Warning.HOMOGLYHPS));
+    assertFalse(pn.hasWarning(Warning.XML_TAGS));
+    assertEquals(List.of(Warnings.HOMOGLYHPS, Warnings.LONG_NAME, Warnings.REMOVED_PREFIX + "foo"),
+        new ArrayList<>(pn.getWarnings()));
+    assertEquals(Set.of(Warnings.HOMOGLYHPS, Warnings.LONG_NAME, Warnings.REMOVED_PREFIX + "foo"), pn.getWarnings());
+    assertEquals(Set.of(Warnings.HOMOGLYHPS, Warnings.LONG_NAME, Warnings.REMOVED_PREFIX + "foo").hashCode(),
+        pn.getWarnings().hashCode());
+
+    // the view writes through
+    Set<String> view = pn.getWarnings();
+    assertTrue(view.remove(Warnings.LONG_NAME));
+    assertTrue(view.remove(Warnings.REMOVED_PREFIX + "foo"));
+    assertFalse(view.remove("bar"));
+    assertEquals(Set.of(Warnings.HOMOGLYHPS), pn.getWarnings());
+    view.removeIf(w -> w.equals(Warnings.HOMOGLYHPS));
+    assertTrue(pn.getWarnings().isEmpty());
+
+    ParsedName a = new ParsedName();
+    a.addWarning(Warning.XML_TAGS);
+    a.addWarning("w1", "w2");
+    ParsedName b = new ParsedName();
+    b.addWarning("w2", Warnings.XML_TAGS, "w1");
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+    b.getWarnings().clear();
+    assertNotEquals(a, b);
+
+    assertEquals(Set.of(Warning.XML_TAGS), Warning.fromMask(a.getWarningMask()));
+    assertEquals(a.getWarningMask(), Warning.mask(List.of(Warning.XML_TAGS)));
+    long[] counts = new long[Warning.values().length];
+    Warning.count(a.getWarningMask(), counts);
+    Warning.count(Warning.mask(List.of(Warning.XML_TAGS, Warning.QUADRINOMIAL)), counts);
+    assertEquals(2, counts[Warning.XML_TAGS.ordinal()]);
+    assertEquals(1, counts[Warning.QUADRINOMIAL.ordinal()]);
+    assertEquals(0, counts[Warning.LONG_NAME.ordinal()]);
+  }
+
+  @Test
+  public void testAllWarningsFitMask() throws Exception {
+    assertTrue(Warning.values().length <= Long.SIZE);
+    for (java.lang.reflect.Field f : Warnings.class.getFields()) {
+      String msg = (String) f.get(null);
+      if (!msg.equals(Warnings.REMOVED_PREFIX)) {
+        assertEquals(f.getName(), Warning.of(msg).name());
+        assertEquals(msg, Warning.of(msg).message());
+      }
+    }
+  }
+
+  @Test
+  public void testReset() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setRank(Rank.SPECIES);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.PARTIAL);
+    pn.setCandidatus(true);
+    pn.setDoubtful(true);
+    pn.addNotho(NamePart.SPECIFIC);
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    pn.setPublishedIn("Gard. Dict. 1768");
+    pn.addWarning(Warnings.HOMOGLYHPS, "other");
+    Authorship combination = pn.getCombinationAuthorship();
+    combination.addAuthor("Mill.");
+    List<String> authors = combination.getAuthors();
+    Set<NamePart> notho = pn.getNotho();
+    Authorship shared = Authorship.authors("L.");
+    pn.setBasionymAuthorship(shared);
+
+    pn.reset();
+    assertEquals(new ParsedName(), pn);
+    assertEquals(new ParsedName().hashCode(), pn.hashCode());
+    assertFalse(pn.hasAuthorship());
+    assertFalse(pn.isHybridName());
+    assertNull(pn.getPublishedInYear());
+    // owned objects are reused, shared ones left untouched
+    assertSame(combination, pn.getCombinationAuthorship());
+    assertSame(authors, pn.getCombinationAuthorship().getAuthors());
+    assertSame(notho, pn.getNotho());
+    assertEquals(List.of("L."), shared.getAuthors());
+
+    // author lists given by the caller are released, not cleared
+    List<String> given = new ArrayList<>(List.of("DC."));
+    List<String> givenEx = new ArrayList<>(List.of("Bassier"));
+    pn.getCombinationAuthorship().setAuthors(given);
+    pn.getCombinationAuthorship().setExAuthors(givenEx);
+    pn.reset();
+    assertEquals(List.of("DC."), given);
+    assertEquals(List.of("Bassier"), givenEx);
+    assertFalse(pn.getCombinationAuthorship().hasAuthors());
+    assertFalse(pn.getCombinationAuthorship().hasExAuthors());
+    pn.getCombinationAuthorship().addAuthor("L.");
+    assertEquals(List.of("DC."), given);
+
+    ParsedName frozen = new ParsedName();
+    frozen.freeze();
+    assertThrows(UnsupportedOperationException.class, frozen::reset);
+  }
+
+  @Test
+  public void testCopyThenReset() {
+    ParsedName src = new ParsedName();
+    src.setGenus("Abies");
+    src.getCombinationAuthorship().addAuthor("Mill.");
+    src.getBasionymAuthorship().addAuthor("L.");
+    Authorship comb = src.getCombinationAuthorship();
+    ParsedName cp = new ParsedName();
+    cp.copy(src);
+    // authorships created by the source are copied, the source keeps owning its own
+    assertNotSame(comb, cp.getCombinationAuthorship());
+
+    // reusing the source must not clear the authorships of the copy
+    src.reset();
+    assertFalse(src.hasAuthorship());
+    assertSame(comb, src.getCombinationAuthorship());
+    assertEquals(List.of("Mill."), cp.getCombinationAuthorship().getAuthors());
+    assertEquals(List.of("L."), cp.getBasionymAuthorship().getAuthors());
+
+    // and the other way round
+    src.getCombinationAuthorship().addAuthor("DC.");
+    cp.copy(src);
+    cp.reset();
+    assertEquals(List.of("DC."), src.getCombinationAuthorship().getAuthors());
+
+    // authorships set from outside are shared and released, not cleared, on reset
+    Authorship given = Authorship.authors("Hook.f.");
+    src.setBasionymAuthorship(given);
+    cp.copy(src);
+    assertSame(given, cp.getBasionymAuthorship());
+    cp.reset();
+    src.reset();
+    assertEquals(List.of("Hook.f."), given.getAuthors());
+  }
+
   @Test
   public void testIncomplete() throws Exception {
     ParsedName pn = new ParsedName();
@@ -172,4 +327,464 @@ public class ParsedNameTest {
     pn.setGenus(null);
     assertTrue(pn.isIncomplete());
   }
+
+  @Test
+  public void testFreeze() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setRank(Rank.SPECIES);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.getCombinationAuthorship().addAuthor("Mill.");
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    pn.addNotho(NamePart.SPECIFIC);
+    pn.addWarning("w1");
+    CombinedAuthorship sa = new CombinedAuthorship();
+    sa.getCombinationAuthorship().addAuthor("L.");
+    pn.setSpecificAuthorship(sa);
+    ParsedAuthorship ga = new ParsedAuthorship();
+    ga.getCombinationAuthorship().addAuthor("Mill.");
+    pn.setGenericAuthorship(ga);
+
+    ParsedName copy = new ParsedName();
+    copy.copy(pn);
+    assertSame(pn.freeze(), pn);
+    assertTrue(pn.isFrozen());
+    assertEquals(copy, pn);
+    assertEquals(copy.hashCode(), pn.hashCode());
+    assertEquals(copy.canonicalName(), pn.canonicalName());
+
+    // empty authorships are shared, the specific authorship is frozen without touching the shared original
+    assertSame(Authorship.EMPTY, pn.getBasionymAuthorship());
+    assertTrue(pn.getSpecificAuthorship().isFrozen());
+    assertFalse(sa.isFrozen());
+    sa.setSanctioningAuthor("Fr.");
+
+    assertThrows(UnsupportedOperationException.class, () -> pn.setGenus("Picea"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.setPhrase("x"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.setPublishedIn("x"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.addWarning("w2"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.addNotho(NamePart.GENERIC));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getWarnings().add("w2"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getCombinationAuthorship().addAuthor("L."));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getCombinationAuthorship().getAuthors().add("L."));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getEpithetQualifier().put(NamePart.GENERIC, "aff."));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getSpecificAuthorship().setSanctioningAuthor("Fr."));
+
+    // copies of a frozen name are mutable again
+    ParsedName mutable = new ParsedName();
+    mutable.copy(pn);
+    assertFalse(mutable.isFrozen());
+    mutable.addNotho(NamePart.GENERIC);
+    mutable.setEpithetQualifier(NamePart.GENERIC, "aff.");
+    mutable.addWarning("w2");
+    assertEquals(1, pn.getWarnings().size());
+    mutable.getCombinationAuthorship().addAuthor("L.");
+    mutable.getBasionymAuthorship().addAuthor("DC.");
+    mutable.getGenericAuthorship().getCombinationAuthorship().addAuthor("Fr.");
+    mutable.getGenericAuthorship().setSanctioningAuthor("Pers.");
+    mutable.getSpecificAuthorship().getCombinationAuthorship().setYear("1753");
+    mutable.getSpecificAuthorship().getBasionymAuthorship().addAuthor("Kunth");
+    assertEquals(List.of("Mill.", "L."), mutable.getCombinationAuthorship().getAuthors());
+    assertEquals(List.of("Mill."), pn.getCombinationAuthorship().getAuthors());
+    assertFalse(pn.hasBasionymAuthorship());
+    assertEquals(List.of("Mill."), pn.getGenericAuthorship().getCombinationAuthorship().getAuthors());
+    assertNull(pn.getSpecificAuthorship().getCombinationAuthorship().getYear());
+    assertTrue(pn.isFrozen() && pn.getSpecificAuthorship().isFrozen());
+    assertEquals(copy, pn);
+  }
+
+  @Test
+  public void testFreezeKeepsOrder() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.addNotho(NamePart.INFRASPECIFIC);
+    pn.addNotho(NamePart.GENERIC);
+    pn.addNotho(NamePart.SPECIFIC);
+    pn.setEpithetQualifier(NamePart.INFRASPECIFIC, "cf.");
+    pn.setEpithetQualifier(NamePart.GENERIC, "aff.");
+    pn.addWarning("w3", "w1", "w2");
+    ParsedName frozen = new ParsedName();
+    frozen.copy(pn);
+    frozen.freeze();
+    assertEquals(new ArrayList<>(pn.getNotho()), new ArrayList<>(frozen.getNotho()));
+    assertEquals(List.of(NamePart.GENERIC, NamePart.SPECIFIC, NamePart.INFRASPECIFIC), new ArrayList<>(frozen.getNotho()));
+    assertEquals(new ArrayList<>(pn.getEpithetQualifier().keySet()), new ArrayList<>(frozen.getEpithetQualifier().keySet()));
+    assertEquals(new ArrayList<>(pn.getWarnings()), new ArrayList<>(frozen.getWarnings()));
+    assertEquals(List.of("w3", "w1", "w2"), new ArrayList<>(frozen.getWarnings()));
+  }
+
+  @Test
+  public void testFreezeEmptyCollections() {
+    ParsedName pn = new ParsedName();
+    pn.setUninomial("Abies");
+    pn.setNotho(NamePart.GENERIC);
+    pn.getNotho().clear();
+    pn.setEpithetQualifier(new java.util.EnumMap<>(NamePart.class));
+    pn.freeze();
+    ParsedName copy = new ParsedName();
+    copy.copy(pn);
+    assertEquals(pn, copy);
+    copy.addNotho(NamePart.GENERIC);
+    copy.setEpithetQualifier(NamePart.GENERIC, "aff.");
+  }
+
+  @Test
+  public void testLazyAuthorship() {
+    ParsedName pn = new ParsedName();
+    pn.setUninomial("Abies");
+    assertFalse(pn.hasCombinationAuthorship());
+    assertFalse(pn.hasBasionymAuthorship());
+    assertFalse(pn.hasAuthorship());
+    ParsedName materialized = new ParsedName();
+    materialized.setUninomial("Abies");
+    materialized.getCombinationAuthorship();
+    assertEquals(materialized, pn);
+    assertEquals(materialized.hashCode(), pn.hashCode());
+
+    // the getters hand out mutable authorships
+    pn.getCombinationAuthorship().addAuthor("L.");
+    pn.getBasionymAuthorship().getAuthors().add("Mill.");
+    pn.getBasionymAuthorship().getExAuthors().add("Bassier");
+    assertTrue(pn.hasCombinationAuthorship());
+    assertEquals("Abies (Bassier ex Mill.) L.", pn.canonicalNameComplete());
+
+    // a copy of a frozen name without authorship is mutable again
+    ParsedName frozen = new ParsedName();
+    frozen.setUninomial("Picea");
+    frozen.freeze();
+    assertSame(Authorship.EMPTY, frozen.getCombinationAuthorship());
+    ParsedName copy = new ParsedName();
+    copy.copy(frozen);
+    assertEquals(frozen, copy);
+    copy.getCombinationAuthorship().addAuthor("L.");
+    assertFalse(frozen.hasCombinationAuthorship());
+
+    Authorship a = new Authorship(List.of("L."));
+    assertEquals(new Authorship(List.of("L."), new ArrayList<>(), null), a);
+    assertTrue(a.getExAuthors().isEmpty());
+    assertEquals(List.of(), new Authorship(a).getExAuthors());
+  }
+
+  /**
+   * Reports the bytes allocated per name by the current thread for names with and without authorship,
+   * for copies, as done by the caching parser, and for a single name reused with {@link ParsedName#reset()}.
+   */
+  @Test
+  public void allocation() {
+    final int size = 200_000;
+    List<ParsedName> names = new ArrayList<>(size);
+    for (int x = 0; x < 2; x++) {
+      long uninomials = allocated(() -> {
+        for (int i = 0; i < size; i++) {
+          ParsedName pn = new ParsedName();
+          pn.setUninomial("Abies");
+          pn.setRank(Rank.GENUS);
+          names.add(pn);
+        }
+      });
+      long authored = allocated(() -> {
+        for (int i = 0; i < size; i++) {
+          ParsedName pn = new ParsedName();
+          pn.setGenus("Abies");
+          pn.setSpecificEpithet("alba");
+          pn.getCombinationAuthorship().addAuthor("Mill.");
+          names.add(pn);
+        }
+      });
+      long copies = allocated(() -> {
+        for (int i = 0; i < size; i++) {
+          ParsedName pn = new ParsedName();
+          pn.copy(names.get(i));
+          names.set(i, pn);
+        }
+      });
+      ParsedName target = new ParsedName();
+      long reused = allocated(() -> {
+        for (int i = 0; i < size; i++) {
+          target.reset();
+          target.setGenus("Abies");
+          target.setSpecificEpithet("alba");
+          target.getCombinationAuthorship().addAuthor("Mill.");
+        }
+      });
+      names.clear();
+      print(x, String.format("Bytes allocated per name: uninomial %d, binomial with author %d, uninomial copy %d, reset binomial with author %d",
+          uninomials / size, authored / size, copies / size, reused / size));
+    }
+  }
+
+  private static long allocated(Runnable task) {
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+    long before = bean.getThreadAllocatedBytes(tid);
+    task.run();
+    return bean.getThreadAllocatedBytes(tid) - before;
+  }
+
+  /**
+   * Compares the retained heap of mutable and frozen binomials with a combination author.
+   */
+  @Test
+  public void freezeFootprint() {
+    final int size = 200_000;
+    HeapFootprint.Report mutable = HeapFootprint.measure("Mutable binomials", size, i -> binomialWithAuthor());
+    HeapFootprint.Report frozen = HeapFootprint.measure("Frozen binomials", size, i -> binomialWithAuthor().freeze());
+    System.out.print(mutable.format());
+    System.out.print(frozen.format());
+    assertEquals(size, frozen.entry(ParsedName.class).instances());
+    assertTrue(frozen.bytes() < mutable.bytes());
+  }
+
+  private static ParsedName binomialWithAuthor() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setRank(Rank.SPECIES);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.COMPLETE);
+    pn.getCombinationAuthorship().addAuthor("Mill.");
+    return pn;
+  }
+
+  @Test
+  public void testHashCode() {
+    ParsedName a = fullName();
+    ParsedName b = fullName();
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+
+    // every field contributes
+    b.setPublishedIn("Fl. Franc. 1805");
+    assertNotEquals(a, b);
+    assertNotEquals(a.hashCode(), b.hashCode());
+    b = fullName();
+    b.addWarning("w2");
+    assertNotEquals(a, b);
+    assertNotEquals(a.hashCode(), b.hashCode());
+    b = fullName();
+    b.getCombinationAuthorship().setYear("1769");
+    assertNotEquals(a, b);
+    assertNotEquals(a.hashCode(), b.hashCode());
+
+    // setting and removing an optional part keeps the hash
+    b = fullName();
+    b.setPhrase("x");
+    b.setPhrase(null);
+    b.setTaxonomicNote("s.l.");
+    b.setTaxonomicNote(null);
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+
+    // frozen names equal and hash like mutable ones, and cache the hash
+    b = fullName().freeze();
+    assertEquals(a, b);
+    assertEquals(b, a);
+    assertEquals(a.hashCode(), b.hashCode());
+    assertEquals(b.hashCode(), b.hashCode());
+    assertEquals(b, fullName().freeze());
+    assertEquals(b.getCombinationAuthorship().hashCode(), a.getCombinationAuthorship().hashCode());
+
+    // a cached subclass hash never decides equality against a plain combined authorship
+    CombinedAuthorship ca = new CombinedAuthorship();
+    ca.copyAuthorship(b);
+    ca.freeze();
+    ParsedAuthorship pa = new ParsedAuthorship();
+    pa.copyAuthorship(b);
+    pa.freeze();
+    assertNotEquals(ca.hashCode(), pa.hashCode());
+    assertEquals(ca, pa);
+  }
+
+  /**
+   * Hashing and equality of mutable and frozen names: plain hash codes, comparisons of mostly different names
+   * and names as keys of a hash map, as done by deduplication jobs.
+   */
+  @Test
+  public void hashingPerformance() {
+    final int size = 10_000;
+    final int rounds = 200;
+    List<ParsedName> mutable = new ArrayList<>(size);
+    List<ParsedName> frozen = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ParsedName pn = fullName();
+      pn.setSpecificEpithet("alba" + i % 1000);
+      pn.setRank(i / 1000 % 2 == 0 ? Rank.SPECIES : Rank.VARIETY);
+      mutable.add(pn);
+      ParsedName copy = new ParsedName();
+      copy.copy(pn);
+      frozen.add(copy.freeze());
+    }
+    // the first pass warms up
+    for (int x = 0; x < 2; x++) {
+      for (List<ParsedName> names : List.of(mutable, frozen)) {
+        String label = names == frozen ? "Frozen " : "Mutable ";
+        StopWatch watch = StopWatch.createStarted();
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+          for (ParsedName pn : names) {
+            sum += pn.hashCode();
+          }
+        }
+        watch.stop();
+        assertNotEquals(0, sum);
+        print(x, label + "hashCode: " + watch);
+
+        watch = StopWatch.createStarted();
+        int equal = 0;
+        for (int r = 0; r < rounds; r++) {
+          for (int i = 1; i < names.size(); i++) {
+            if (names.get(i).equals(names.get(i - 1))) {
+              equal++;
+            }
+          }
+        }
+        watch.stop();
+        assertEquals(0, equal);
+        print(x, label + "equals: " + watch);
+
+        watch = StopWatch.createStarted();
+        Map<ParsedName, Integer> counts = new HashMap<>();
+        for (int r = 0; r < rounds / 4; r++) {
+          for (ParsedName pn : names) {
+            counts.merge(pn, 1, Integer::sum);
+          }
+        }
+        watch.stop();
+        assertEquals(2000, counts.size());
+        print(x, label + "hash map keys: " + watch);
+      }
+    }
+  }
+
+  @Test
+  public void testCacheCanonicalNames() {
+    ParsedName pn = fullName();
+    assertFalse(pn.isCachingCanonicalNames());
+    assertSame(pn, pn.cacheCanonicalNames());
+    assertTrue(pn.isCachingCanonicalNames());
+    String canonical = pn.canonicalName();
+    assertEquals("Abies alba (L.) Mill., 1768", canonical);
+    assertSame(canonical, pn.canonicalName());
+    assertSame(pn.canonicalNameMinimal(), pn.canonicalNameMinimal());
+    assertEquals("Abies alba (L.) Mill., 1768, nom. cons.", pn.canonicalNameComplete());
+
+    // every setter discards the cached names
+    pn.setInfraspecificEpithet("alpina");
+    pn.setRank(Rank.VARIETY);
+    assertEquals("Abies alba var. alpina (L.) Mill., 1768", pn.canonicalName());
+    pn.addNotho(NamePart.INFRASPECIFIC);
+    assertEquals("Abies alba nothovar. alpina", pn.canonicalNameWithoutAuthorship());
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    assertEquals("Abies cf. alba nothovar. alpina", pn.canonicalNameWithoutAuthorship());
+    pn.setCombinationAuthorship(Authorship.authors("DC."));
+    pn.setBasionymAuthorship(Authorship.EMPTY);
+    assertEquals("Abies cf. alba nothovar. alpina DC.", pn.canonicalName());
+    pn.setNomenclaturalNote("nom. illeg.");
+    assertEquals("Abies cf. alba nothovar. alpina DC., nom. illeg.", pn.canonicalNameComplete());
+    pn.copy(fullName());
+    assertEquals("Abies alba (L.) Mill., 1768", pn.canonicalName());
+    pn.reset();
+    assertNull(pn.canonicalName());
+    assertNull(pn.canonicalName());
+    pn.setUninomial("Abies");
+    assertEquals("Abies", pn.canonicalName());
+
+    // copies do not inherit the cache
+    ParsedName copy = new ParsedName();
+    copy.copy(pn);
+    assertFalse(copy.isCachingCanonicalNames());
+  }
+
+  @Test
+  public void testCacheCanonicalNamesConcurrently() throws Exception {
+    List<ParsedName> names = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ParsedName pn = fullName();
+      pn.setSpecificEpithet("alba" + i);
+      names.add(pn.freeze().cacheCanonicalNames());
+    }
+    ExecutorService exec = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        results.add(exec.submit(() -> {
+          int errors = 0;
+          for (int i = 0; i < names.size(); i++) {
+            String expected = "Abies alba" + i + " (L.) Mill., 1768";
+            if (!expected.equals(names.get(i).canonicalName())) {
+              errors++;
+            }
+          }
+          return errors;
+        }));
+      }
+      for (Future<Integer> f : results) {
+        assertEquals(0, (int) f.get());
+      }
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  /**
+   * Repeated access of the canonical names of the same names, as done for indexing, matching and output,
+   * with and without the cache.
+   */
+  @Test
+  public void canonicalNamePerformance() {
+    final int size = 10_000;
+    final int rounds = 20;
+    List<ParsedName> plain = new ArrayList<>(size);
+    List<ParsedName> cached = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ParsedName pn = fullName();
+      pn.setSpecificEpithet("alba" + i % 1000);
+      pn.setRank(i / 1000 % 2 == 0 ? Rank.SPECIES : Rank.VARIETY);
+      plain.add(pn.freeze());
+      ParsedName copy = new ParsedName();
+      copy.copy(pn);
+      cached.add(copy.freeze().cacheCanonicalNames());
+    }
+    // the first pass warms up
+    for (int x = 0; x < 2; x++) {
+      for (List<ParsedName> names : List.of(plain, cached)) {
+        StopWatch watch = StopWatch.createStarted();
+        long sum = 0;
+        for (int r = 0; r < rounds; r++) {
+          for (ParsedName pn : names) {
+            sum += pn.canonicalName().length();
+            sum += pn.canonicalNameWithoutAuthorship().length();
+            sum += pn.canonicalNameMinimal().length();
+          }
+        }
+        watch.stop();
+        assertNotEquals(0, sum);
+        print(x, String.format("%s canonical names, %d accesses of 3 forms per name: %s",
+            names == cached ? "Cached" : "Rendered", rounds, watch));
+      }
+    }
+  }
+
+  private static void print(int pass, String msg) {
+    if (pass > 0) {
+      System.out.println(msg);
+    }
+  }
+
+  private static ParsedName fullName() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setRank(Rank.SPECIES);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.COMPLETE);
+    pn.getCombinationAuthorship().addAuthor("Mill.");
+    pn.getCombinationAuthorship().setYear("1768");
+    pn.getBasionymAuthorship().addAuthor("L.");
+    pn.addWarning("w1");
+    pn.setNomenclaturalNote("nom. cons.");
+    return pn;
+  }
 }
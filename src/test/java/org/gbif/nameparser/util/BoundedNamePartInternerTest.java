@@ -0,0 +1,95 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BoundedNamePartInternerTest {
+
+  @Test
+  public void intern() {
+    BoundedNamePartInterner interner = new BoundedNamePartInterner(1000);
+    assertEquals(1024, interner.capacity());
+    assertNull(interner.intern(null));
+
+    String alba = new String("alba");
+    assertSame(alba, interner.intern(alba));
+    assertSame(alba, interner.intern(new String("alba")));
+    assertEquals("vulgaris", interner.intern(new String("vulgaris")));
+    assertSame(alba, interner.intern(new String("alba")));
+
+    // a single slot keeps the last value only
+    BoundedNamePartInterner tiny = new BoundedNamePartInterner(1);
+    String abies = new String("Abies");
+    tiny.intern(abies);
+    tiny.intern("Picea");
+    assertNotSame(abies, tiny.intern(new String("Abies")));
+  }
+
+  @Test
+  public void routedThroughModel() {
+    NamePartInterner.setGlobal(new BoundedNamePartInterner(1 << 10));
+    try {
+      ParsedName pn1 = binomial();
+      ParsedName pn2 = binomial();
+      assertSame(pn1.getGenus(), pn2.getGenus());
+      assertSame(pn1.getSpecificEpithet(), pn2.getSpecificEpithet());
+      assertSame(pn1.getInfraspecificEpithet(), pn2.getInfraspecificEpithet());
+      assertSame(pn1.getCombinationAuthorship().getAuthors().get(0), pn2.getCombinationAuthorship().getAuthors().get(0));
+      assertSame(pn1.getCombinationAuthorship().getYear(), pn2.getCombinationAuthorship().getYear());
+      // the hybrid marker is removed before interning
+      pn1.setGenus("×" + "Abies");
+      assertSame(pn2.getGenus(), pn1.getGenus());
+    } finally {
+      NamePartInterner.setGlobal(NamePartInterner.NONE);
+    }
+    assertNotSame(binomial().getGenus(), binomial().getGenus());
+  }
+
+  /**
+   * Compares the retained heap of names built from freshly allocated strings, as read from a file,
+   * with and without interning.
+   */
+  @Test
+  public void footprint() {
+    final int size = 200_000;
+    HeapFootprint.Report plain = HeapFootprint.measure("Plain names", size, BoundedNamePartInternerTest::freshName);
+    NamePartInterner.setGlobal(new BoundedNamePartInterner(1 << 16));
+    HeapFootprint.Report interned;
+    try {
+      interned = HeapFootprint.measure("Interned names", size, BoundedNamePartInternerTest::freshName);
+    } finally {
+      NamePartInterner.setGlobal(NamePartInterner.NONE);
+    }
+    System.out.print(plain.format());
+    System.out.print(interned.format());
+    // interned parts are shared, leaving no strings per name
+    assertTrue(plain.entry(String.class).instances() >= 3L * size);
+    assertTrue(interned.entry(String.class) == null || interned.entry(String.class).instances() < size / 10);
+  }
+
+  private static ParsedName freshName(int i) {
+    String[] genera = {"Abies", "Picea", "Pinus", "Quercus", "Carex"};
+    String[] epithets = {"alba", "vulgaris", "nigra", "montana", "sylvestris", "officinalis"};
+    String[] authors = {"L.", "Mill.", "DC.", "Wall."};
+    ParsedName pn = new ParsedName();
+    pn.setGenus(new String(genera[i % genera.length]));
+    pn.setSpecificEpithet(new String(epithets[i % epithets.length]));
+    pn.getCombinationAuthorship().addAuthor(new String(authors[i % authors.length]));
+    return pn;
+  }
+
+  private static ParsedName binomial() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus(new String("Abies"));
+    pn.setSpecificEpithet(new String("alba"));
+    pn.setInfraspecificEpithet(new String("nana"));
+    pn.getCombinationAuthorship().addAuthor(new String("Mill."));
+    pn.getCombinationAuthorship().setYear(new String("1768"));
+    return pn;
+  }
+}
@@ -0,0 +1,109 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BulkNameParserTest {
+
+  /**
+   * Echoes the input as an unparsable name after a short random delay, so batches complete out of order.
+   */
+  static final NameParser SLOW_ECHO = (name, authorship, rank, code) -> {
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return new ParseResult.Unparsable(NameType.OTHER, name);
+  };
+
+  private static String name(ParseResult r) {
+    return ((ParseResult.Unparsable) r).name();
+  }
+
+  @Test
+  public void keepsOrder() {
+    List<String> names = IntStream.range(0, 2000).mapToObj(i -> "name" + i).collect(Collectors.toList());
+    try (BulkNameParser bulk = new BulkNameParser(SLOW_ECHO, 8);
+         Stream<ParseResult> results = bulk.parse(names.stream().map(NameInput::new))) {
+      assertEquals(names, results.map(BulkNameParserTest::name).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void bounded() {
+    AtomicInteger read = new AtomicInteger();
+    Iterator<NameInput> source = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return true;
+      }
+
+      @Override
+      public NameInput next() {
+        return new NameInput("name" + read.incrementAndGet());
+      }
+    };
+    ExecutorService exec = Executors.newFixedThreadPool(2);
+    try (BulkNameParser bulk = new BulkNameParser(SLOW_ECHO, exec, 10, 3)) {
+      Iterator<ParseResult> results = bulk.parse(source);
+      for (int i = 1; i <= 100; i++) {
+        assertEquals("name" + i, name(results.next()));
+        // never more than the current and 3 pending batches of 10 ahead of the consumer
+        assertTrue(read.get() <= i + 40);
+      }
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  @Test
+  public void lineReader() {
+    String lines = "Abies alba\n\n# comment\nPicea abies\nPinus\n";
+    LineReader reader = new LineReader(new BufferedReader(new StringReader(lines)));
+    try (BulkNameParser bulk = new BulkNameParser(SLOW_ECHO, 2);
+         Stream<ParseResult> results = bulk.parse(reader)) {
+      assertEquals(List.of("Abies alba", "Picea abies", "Pinus"), results.map(BulkNameParserTest::name).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void empty() {
+    try (BulkNameParser bulk = new BulkNameParser(SLOW_ECHO, 2)) {
+      assertFalse(bulk.parse(List.<NameInput>of().iterator()).hasNext());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failure() {
+    NameParser failing = (name, authorship, rank, code) -> {
+      if (name.equals("name150")) {
+        throw new IllegalStateException("boom");
+      }
+      return new ParseResult.Unparsable(NameType.OTHER, name);
+    };
+    try (BulkNameParser bulk = new BulkNameParser(failing, 4)) {
+      Iterator<ParseResult> results = bulk.parse(IntStream.range(0, 1000).mapToObj(i -> new NameInput("name" + i)).iterator());
+      for (int i = 0; i < 100; i++) {
+        assertEquals("name" + i, name(results.next()));
+      }
+      while (results.hasNext()) {
+        results.next();
+      }
+    }
+  }
+}
@@ -0,0 +1,255 @@
+package org.gbif.nameparser.util;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CachingNameParserTest {
+
+  /**
+   * Parses "Genus epithet" binomials into a ParsedName with a combination author and counts its calls.
+   */
+  static class CountingParser implements NameParser {
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicInteger batches = new AtomicInteger();
+
+    @Override
+    public ParseResult parse(String scientificName, String authorship, Rank rank, NomCode code) {
+      calls.incrementAndGet();
+      String[] parts = scientificName.split(" ");
+      if (parts.length != 2) {
+        return new ParseResult.Unparsable(NameType.OTHER, code, scientificName);
+      }
+      ParsedName pn = new ParsedName();
+      pn.setGenus(parts[0]);
+      pn.setSpecificEpithet(parts[1]);
+      pn.setRank(rank);
+      pn.setCode(code);
+      pn.setType(NameType.SCIENTIFIC);
+      pn.setState(ParsedName.State.COMPLETE);
+      if (authorship != null) {
+        pn.getCombinationAuthorship().addAuthor(authorship);
+      }
+      return new ParseResult.Parsed(pn);
+    }
+
+    @Override
+    public List<ParseResult> parseAll(List<NameInput> names) {
+      batches.incrementAndGet();
+      return NameParser.super.parseAll(names);
+    }
+  }
+
+  @Test
+  public void hitsAndMisses() {
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 10);
+
+    ParseResult r1 = parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    ParseResult r2 = parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    assertEquals(r1, r2);
+    assertEquals(1, counter.calls.get());
+
+    // a different rank, code or authorship is a different input
+    parser.parse("Abies alba", "Mill.", Rank.SPECIES, null);
+    parser.parse("Abies alba", null, Rank.SPECIES, NomCode.BOTANICAL);
+    parser.parse("Abies alba", "Mill.", Rank.UNRANKED, NomCode.BOTANICAL);
+    assertEquals(4, counter.calls.get());
+
+    // unparsable results are cached too
+    parser.parse("Abies");
+    parser.parse("Abies");
+    assertEquals(5, counter.calls.get());
+
+    CachingNameParser.Stats stats = parser.stats();
+    assertEquals(2, stats.hits());
+    assertEquals(5, stats.misses());
+    assertEquals(0, stats.evictions());
+    assertEquals(5, stats.size());
+    assertEquals(2d / 7, stats.hitRate(), 0.0001);
+
+    parser.clear();
+    assertEquals(0, parser.stats().size());
+    parser.parse("Abies");
+    assertEquals(6, counter.calls.get());
+  }
+
+  @Test
+  public void defensiveCopies() {
+    CachingNameParser parser = new CachingNameParser(new CountingParser(), 10);
+    ParsedName pn = parser.parse("Abies alba", "Mill.", Rank.SPECIES, null).orElseThrow();
+    assertEquals("Abies alba Mill.", pn.canonicalName());
+
+    // mutating a returned name must not change the cached one
+    pn.setSpecificEpithet("nigra");
+    pn.getCombinationAuthorship().addAuthor("L.");
+    pn.addWarning("changed");
+
+    ParsedName pn2 = parser.parse("Abies alba", "Mill.", Rank.SPECIES, null).orElseThrow();
+    assertNotSame(pn, pn2);
+    assertEquals("Abies alba Mill.", pn2.canonicalName());
+    assertTrue(pn2.getWarnings().isEmpty());
+    assertNotSame(pn2, parser.parse("Abies alba", "Mill.", Rank.SPECIES, null).orElseThrow());
+  }
+
+  @Test
+  public void bounded() {
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 100);
+    for (int i = 0; i < 1000; i++) {
+      parser.parse("Abies alba" + i);
+      parser.parse("Abies alba" + i);
+      parser.parse("Abies alba" + i);
+    }
+    CachingNameParser.Stats stats = parser.stats();
+    assertEquals(100, stats.size());
+    // names only replace the eldest entry when they were requested more often
+    assertTrue(stats.evictions() > 0);
+    assertTrue(stats.evictions() < 900);
+  }
+
+  @Test
+  public void frequentNamesSurviveScans() {
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 100);
+    // a working set of 50 names which is requested again and again
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 50; i++) {
+        parser.parse("Abies frequent" + i);
+      }
+    }
+    assertEquals(50, counter.calls.get());
+
+    // a scan of one-off names, much larger than the cache, must not flush the frequent ones
+    for (int i = 0; i < 500; i++) {
+      parser.parse("Picea rare" + i);
+    }
+    counter.calls.set(0);
+    for (int i = 0; i < 50; i++) {
+      parser.parse("Abies frequent" + i);
+    }
+    assertEquals(0, counter.calls.get());
+    assertEquals(100, parser.stats().size());
+  }
+
+  @Test
+  public void parseAll() {
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 100);
+    parser.parse("Abies alba");
+    parser.parse("Picea abies");
+    assertEquals(2, counter.calls.get());
+
+    List<NameInput> names = List.of(
+        new NameInput("Abies alba"),
+        new NameInput("Abies nigra"),
+        new NameInput("Picea abies"),
+        new NameInput("Pinus"),
+        new NameInput("Abies alba")
+    );
+    List<ParseResult> results = parser.parseAll(names);
+    assertEquals(5, results.size());
+    for (int i = 0; i < names.size(); i++) {
+      assertEquals(counter.parse(names.get(i)), results.get(i));
+    }
+    // only the 2 unknown names were passed on, in a single batch
+    assertEquals(1, counter.batches.get());
+    assertEquals(2 + 2 + names.size(), counter.calls.get());
+    assertEquals(3, parser.stats().hits());
+  }
+
+  /**
+   * Compares the cost of a cache hit, which deep copies the cached name, with a plain copy free parse
+   * of the simple test parser.
+   */
+  @Test
+  public void performance() {
+    final int iterations = 200_000;
+    List<NameInput> names = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      names.add(new NameInput("Abies alba" + i, "Mill.", Rank.SPECIES, NomCode.BOTANICAL));
+    }
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 1000);
+
+    StopWatch watch = StopWatch.createStarted();
+    for (int x = 0; x < iterations; x++) {
+      counter.parse(names.get(x % names.size()));
+    }
+    watch.stop();
+    System.out.println("Parse: " + watch);
+
+    watch = StopWatch.createStarted();
+    for (int x = 0; x < iterations; x++) {
+      parser.parse(names.get(x % names.size()));
+    }
+    watch.stop();
+    System.out.println("Cached with copies: " + watch + " " + parser.stats());
+
+    parser = new CachingNameParser(counter, 1000, true);
+    watch = StopWatch.createStarted();
+    for (int x = 0; x < iterations; x++) {
+      parser.parse(names.get(x % names.size()));
+    }
+    watch.stop();
+    System.out.println("Cached frozen: " + watch + " " + parser.stats());
+  }
+
+  @Test
+  public void frozen() {
+    CountingParser counter = new CountingParser();
+    CachingNameParser parser = new CachingNameParser(counter, 10, true);
+    ParseResult r1 = parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    ParseResult r2 = parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    assertEquals(1, counter.calls.get());
+    // frozen names are shared
+    ParsedName pn = r1.parsed().get();
+    assertSame(pn, r2.parsed().get());
+    assertTrue(pn.isFrozen());
+    assertThrows(UnsupportedOperationException.class, () -> pn.setGenus("Picea"));
+    assertThrows(UnsupportedOperationException.class, () -> pn.getCombinationAuthorship().addAuthor("L."));
+
+    List<ParseResult> results = parser.parseAll(List.of(new NameInput("Picea abies"), new NameInput("Picea abies")));
+    assertTrue(results.get(0).parsed().get().isFrozen());
+    assertTrue(results.get(1).parsed().get().isFrozen());
+    assertEquals(results.get(0), parser.parse("Picea abies"));
+  }
+
+  /**
+   * Copies handed out for cache hits only read the cached name and never materialize empty authorships.
+   */
+  @Test
+  public void copiesKeepEmptyAuthorship() throws Exception {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setGenericAuthorship(new CombinedAuthorship());
+    ParsedAuthorship specific = new ParsedAuthorship();
+    specific.getCombinationAuthorship().addAuthor("L.");
+    pn.setSpecificAuthorship(specific);
+
+    ParsedName copy = ParseResults.copyOf(pn);
+    assertEquals(pn, copy);
+    for (CombinedAuthorship ca : List.of(pn, copy, pn.getGenericAuthorship(), copy.getGenericAuthorship())) {
+      assertSame(Authorship.EMPTY, authorship(ca, "combinationAuthorship"));
+      assertSame(Authorship.EMPTY, authorship(ca, "basionymAuthorship"));
+    }
+    assertSame(Authorship.EMPTY, authorship(copy.getSpecificAuthorship(), "basionymAuthorship"));
+    // existing authorships are copied, not shared
+    assertNotSame(specific.getCombinationAuthorship(), copy.getSpecificAuthorship().getCombinationAuthorship());
+    copy.getSpecificAuthorship().getCombinationAuthorship().addAuthor("Mill.");
+    assertEquals(List.of("L."), specific.getCombinationAuthorship().getAuthors());
+  }
+
+  private static Object authorship(CombinedAuthorship ca, String field) throws ReflectiveOperationException {
+    java.lang.reflect.Field f = CombinedAuthorship.class.getDeclaredField(field);
+    f.setAccessible(true);
+    return f.get(ca);
+  }
+}
@@ -0,0 +1,65 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DeduplicatingNameParserTest {
+
+  @Test
+  public void parseAll() {
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    DeduplicatingNameParser parser = new DeduplicatingNameParser(counter);
+
+    List<NameInput> names = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      names.add(new NameInput("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL));
+      names.add(new NameInput("Abies alba", null, Rank.SPECIES, NomCode.BOTANICAL));
+      names.add(new NameInput("Picea abies"));
+      names.add(new NameInput("Pinus"));
+    }
+    List<ParseResult> results = parser.parseAll(names);
+    assertEquals(4, counter.calls.get());
+    assertEquals(1, counter.batches.get());
+
+    assertEquals(names.size(), results.size());
+    for (int i = 0; i < names.size(); i++) {
+      assertEquals(counter.parse(names.get(i)), results.get(i));
+    }
+
+    DeduplicatingNameParser.Stats stats = parser.stats();
+    assertEquals(400, stats.names());
+    assertEquals(4, stats.parsed());
+    assertEquals(396, stats.saved());
+    assertEquals(0.99, stats.dedupRatio(), 0.0001);
+  }
+
+  @Test
+  public void independentResults() {
+    DeduplicatingNameParser parser = new DeduplicatingNameParser(new CachingNameParserTest.CountingParser());
+    NameInput abies = new NameInput("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    List<ParseResult> results = parser.parseAll(List.of(abies, abies));
+
+    ParsedName pn1 = ((ParseResult.Parsed) results.get(0)).name();
+    ParsedName pn2 = ((ParseResult.Parsed) results.get(1)).name();
+    assertNotSame(pn1, pn2);
+    assertNotSame(pn1.getCombinationAuthorship(), pn2.getCombinationAuthorship());
+    pn1.setSpecificEpithet("nordmanniana");
+    pn1.getCombinationAuthorship().addAuthor("L.");
+    assertEquals("alba", pn2.getSpecificEpithet());
+    assertEquals(List.of("Mill."), pn2.getCombinationAuthorship().getAuthors());
+  }
+
+  @Test
+  public void empty() {
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    DeduplicatingNameParser parser = new DeduplicatingNameParser(counter);
+    assertTrue(parser.parseAll(List.of()).isEmpty());
+    assertEquals(0, counter.batches.get());
+    assertEquals(0, parser.stats().dedupRatio(), 0);
+  }
+}
@@ -0,0 +1,91 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ExecutorAsyncNameParserTest {
+
+  static final NameParser ECHO = (name, authorship, rank, code) -> new ParseResult.Unparsable(NameType.OTHER, code, name);
+
+  @Test
+  public void parseAsync() {
+    ExecutorService exec = Executors.newFixedThreadPool(2);
+    try {
+      AsyncNameParser parser = new ExecutorAsyncNameParser(ECHO, exec);
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, NomCode.VIRUS, "Abies"),
+          parser.parseAsync("Abies", null, null, NomCode.VIRUS).join());
+
+      // compose without blocking
+      CompletableFuture<String> canonical = parser.parseAsync(new NameInput("Abies alba"))
+          .thenApply(ParseResult::canonicalName);
+      assertEquals("Abies alba", canonical.join());
+
+      List<NameInput> names = List.of(new NameInput("Abies"), new NameInput("Picea"), new NameInput("Pinus"));
+      List<ParseResult> results = parser.parseAllAsync(names).join();
+      assertEquals(3, results.size());
+      for (int i = 0; i < names.size(); i++) {
+        assertEquals(ECHO.parse(names.get(i)), results.get(i));
+      }
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  @Test
+  public void maxConcurrent() {
+    AtomicInteger concurrent = new AtomicInteger();
+    AtomicInteger maxSeen = new AtomicInteger();
+    NameParser slow = (name, authorship, rank, code) -> {
+      maxSeen.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      concurrent.decrementAndGet();
+      return new ParseResult.Unparsable(NameType.OTHER, name);
+    };
+    ExecutorService exec = Executors.newCachedThreadPool();
+    try {
+      ExecutorAsyncNameParser parser = new ExecutorAsyncNameParser(slow, exec, 3);
+      List<CompletableFuture<ParseResult>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        futures.add(parser.parseAsync("name" + i));
+      }
+      for (int i = 0; i < 100; i++) {
+        assertEquals(new ParseResult.Unparsable(NameType.OTHER, "name" + i), futures.get(i).join());
+      }
+      assertTrue(maxSeen.get() <= 3);
+      assertEquals(0, parser.getQueued());
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  @Test
+  public void failure() {
+    NameParser failing = (name, authorship, rank, code) -> {
+      throw new IllegalStateException("boom");
+    };
+    ExecutorService exec = Executors.newSingleThreadExecutor();
+    try {
+      AsyncNameParser parser = new ExecutorAsyncNameParser(failing, exec, 1);
+      CompletionException e = assertThrows(CompletionException.class, () -> parser.parseAsync("Abies").join());
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      // the slot is released again
+      assertThrows(CompletionException.class, () -> parser.parseAsync("Picea").join());
+    } finally {
+      exec.shutdown();
+    }
+  }
+}
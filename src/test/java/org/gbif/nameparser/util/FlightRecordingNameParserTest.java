@@ -0,0 +1,58 @@
+package org.gbif.nameparser.util;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class FlightRecordingNameParserTest {
+
+  @Test
+  public void events() throws Exception {
+    NameParser parser = new FlightRecordingNameParser(new CachingNameParserTest.CountingParser());
+    Path file = Files.createTempFile("nameparser", ".jfr");
+    try (Recording recording = new Recording()) {
+      for (String e : List.of("org.gbif.nameparser.Parse", "org.gbif.nameparser.Format", "org.gbif.nameparser.Normalize")) {
+        recording.enable(e).withThreshold(Duration.ZERO);
+      }
+      recording.start();
+      ParsedName pn = parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL).orElseThrow();
+      parser.parse("Abies");
+      parser.parseAll(List.of(new NameInput("Abies alba"), new NameInput("Picea abies")));
+      pn.canonicalName();
+      UnicodeUtils.foldToAscii("Schönbrunn");
+      recording.stop();
+      recording.dump(file);
+    }
+
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    List<RecordedEvent> parses = events.stream()
+        .filter(e -> e.getEventType().getName().equals("org.gbif.nameparser.Parse"))
+        .collect(Collectors.toList());
+    assertEquals(3, parses.size());
+    RecordedEvent first = parses.stream().filter(e -> e.getInt("inputLength") == 15).findFirst().orElseThrow();
+    assertEquals(1, first.getInt("batchSize"));
+    assertEquals("SPECIES", first.getString("rank"));
+    assertEquals("PARSED", first.getString("variant"));
+    assertEquals("SCIENTIFIC", first.getString("type"));
+    assertEquals("COMPLETE", first.getString("state"));
+    assertFalse(first.getBoolean("failed"));
+    assertTrue(parses.stream().anyMatch(e -> e.getInt("batchSize") == 2 && e.getInt("inputLength") == 21));
+    assertTrue(parses.stream().anyMatch(e -> "UNPARSABLE".equals(e.getString("variant"))));
+
+    assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("org.gbif.nameparser.Format")
+        && e.getString("type").equals("SCIENTIFIC")));
+    assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("org.gbif.nameparser.Normalize")
+        && e.getString("operation").equals("foldToAscii") && e.getBoolean("changed")));
+  }
+}
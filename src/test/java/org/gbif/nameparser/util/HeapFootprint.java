@@ -0,0 +1,141 @@
+package org.gbif.nameparser.util;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures the heap retained by a population of objects, broken down by class.
+ * <p>
+ * A live class histogram of the JVM, as printed by {@code jcmd <pid> GC.class_histogram}, is taken before and after
+ * building the population and the difference is reported. Taking a histogram forces a full GC, so only reachable
+ * objects are counted. The array holding the population is not part of the result. Classes with fewer instances
+ * than 1% of the population are left out as noise from other threads.
+ * <p>
+ * The figures are exact shallow sizes as laid out by the running JVM, so they depend on its settings,
+ * e.g. compressed oops, and are comparable between runs of the same JVM only.
+ */
+public class HeapFootprint {
+  private static final Pattern HISTOGRAM_LINE = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+(\\d+)\\s+(\\S+)");
+
+  /**
+   * Retained instances and shallow bytes of a single class.
+   */
+  public record Entry(String className, long instances, long bytes) {
+  }
+
+  /**
+   * The heap retained by a population, largest classes first.
+   */
+  public record Report(String label, int population, List<Entry> entries) {
+
+    public long bytes() {
+      long bytes = 0;
+      for (Entry e : entries) {
+        bytes += e.bytes;
+      }
+      return bytes;
+    }
+
+    public double bytesPerInstance() {
+      return (double) bytes() / population;
+    }
+
+    /**
+     * @return the entry of a class, e.g. {@code java.lang.String}, or null if none was retained
+     */
+    public Entry entry(Class<?> cl) {
+      for (Entry e : entries) {
+        if (e.className.equals(cl.getName())) {
+          return e;
+        }
+      }
+      return null;
+    }
+
+    public String format() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("%s: %,d instances retain %,d bytes, %.1f bytes per instance, %,d MB per million%n",
+          label, population, bytes(), bytesPerInstance(), (long) (bytesPerInstance() * 1_000_000 / 1024 / 1024)));
+      for (Entry e : entries) {
+        sb.append(String.format("  %-60s %10.2f objects %8.1f bytes per instance%n",
+            e.className, (double) e.instances / population, (double) e.bytes / population));
+      }
+      return sb.toString();
+    }
+  }
+
+  private HeapFootprint() {
+  }
+
+  /**
+   * Builds a population of the given size and reports the heap it retains.
+   *
+   * @param factory creates the instance with the given index of the population
+   */
+  public static Report measure(String label, int size, IntFunction<?> factory) {
+    Object[] population = new Object[size];
+    Map<String, Entry> before = histogram();
+    for (int i = 0; i < size; i++) {
+      population[i] = factory.apply(i);
+    }
+    Map<String, Entry> after = histogram();
+    Reference.reachabilityFence(population);
+
+    List<Entry> entries = new ArrayList<>();
+    for (Entry e : after.values()) {
+      Entry b = before.get(e.className);
+      long instances = e.instances - (b == null ? 0 : b.instances);
+      long bytes = e.bytes - (b == null ? 0 : b.bytes);
+      if (e.className.equals(Object[].class.getName())) {
+        // the population array itself
+        instances--;
+        bytes -= arrayBytes(size);
+      }
+      if (instances >= size / 100 && instances > 0) {
+        entries.add(new Entry(e.className, instances, bytes));
+      }
+    }
+    entries.sort(Comparator.comparingLong(Entry::bytes).reversed());
+    return new Report(label, size, entries);
+  }
+
+  private static long arrayBytes(int length) {
+    boolean compressed = Boolean.parseBoolean(ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+        .getVMOption("UseCompressedOops").getValue());
+    long bytes = 16 + (long) length * (compressed ? 4 : 8);
+    return (bytes + 7) / 8 * 8;
+  }
+
+  /**
+   * @return the live class histogram, forcing a full GC
+   */
+  private static Map<String, Entry> histogram() {
+    String histogram;
+    try {
+      histogram = (String) ManagementFactory.getPlatformMBeanServer().invoke(
+          new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+          new Object[]{new String[0]}, new String[]{String[].class.getName()});
+    } catch (Exception e) {
+      throw new IllegalStateException("Class histograms are not supported by this JVM", e);
+    }
+    Map<String, Entry> entries = new HashMap<>();
+    for (String line : histogram.split("\n")) {
+      Matcher m = HISTOGRAM_LINE.matcher(line);
+      if (m.find()) {
+        entries.put(m.group(3), new Entry(m.group(3), Long.parseLong(m.group(1)), Long.parseLong(m.group(2))));
+      }
+    }
+    return entries;
+  }
+}
@@ -0,0 +1,108 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Reports the heap retained per instance by realistic populations of names and parse results,
+ * as reproducible figures for changes to the model classes.
+ * The population size defaults to a million and can be changed with the system property {@code footprint.size}.
+ */
+public class HeapFootprintTest {
+  static final int SIZE = Integer.getInteger("footprint.size", 1_000_000);
+
+  static final String[] GENERA = {"Abies", "Picea", "Quercus", "Puma", "Otus", "Bacillus", "Rhizobium", "Carex",
+      "Aster", "Pinus", "Larix", "Salix"};
+  static final String[] EPITHETS = {"alba", "abies", "robur", "concolor", "scops", "subtilis", "leguminosarum",
+      "nigra", "montana", "sylvestris", "officinalis", "vulgaris", "alpina"};
+  static final String[] AUTHORS = {"L.", "Mill.", "DC.", "Wall.", "Cohn", "Pers.", "Fr.", "Kunth", "Hook.f."};
+
+  /**
+   * @return a copy not sharing its bytes with the original, as a parser cutting up its input creates
+   */
+  static String fresh(String x) {
+    return new String(x.toCharArray());
+  }
+
+  /**
+   * A binomial with combination authorship and year, built from new strings as a parser reading a file does.
+   */
+  static ParsedName binomial(int i) {
+    ParsedName pn = new ParsedName();
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.COMPLETE);
+    pn.setRank(Rank.SPECIES);
+    pn.setGenus(fresh(GENERA[i % GENERA.length]));
+    pn.setSpecificEpithet(fresh(EPITHETS[i % EPITHETS.length]));
+    pn.getCombinationAuthorship().addAuthor(fresh(AUTHORS[i % AUTHORS.length]));
+    pn.getCombinationAuthorship().setYear(String.valueOf(1753 + i % 250));
+    return pn;
+  }
+
+  /**
+   * A trinomial with basionym and combination authorship, e.g. Abies alba subsp. alpina (L.) Mill.
+   */
+  static ParsedName trinomial(int i) {
+    ParsedName pn = binomial(i);
+    pn.setRank(Rank.SUBSPECIES);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setInfraspecificEpithet(fresh(EPITHETS[(i / 7) % EPITHETS.length]));
+    pn.getBasionymAuthorship().addAuthor(fresh(AUTHORS[(i / 3) % AUTHORS.length]));
+    pn.getBasionymAuthorship().setYear(String.valueOf(1753 + i % 100));
+    return pn;
+  }
+
+  static ParseResult.Informal informal(int i) {
+    return new ParseResult.Informal(fresh(GENERA[i % GENERA.length]), Rank.GENUS, Rank.SPECIES,
+        String.valueOf(i % 1000), null);
+  }
+
+  static ParseResult.Unparsable unparsable(int i) {
+    return new ParseResult.Unparsable(NameType.IDENTIFIER, String.format("BOLD:A%c%c%04d",
+        'A' + i % 26, 'A' + i / 26 % 26, i % 10000));
+  }
+
+  /**
+   * A mix as found in occurrence data: mostly binomials, some trinomials, informal and unparsable names.
+   */
+  static ParseResult mixed(int i) {
+    int x = i % 20;
+    if (x < 12) {
+      return new ParseResult.Parsed(binomial(i));
+    } else if (x < 16) {
+      return new ParseResult.Parsed(trinomial(i));
+    } else if (x < 18) {
+      return informal(i);
+    }
+    return unparsable(i);
+  }
+
+  @Test
+  public void parsedNames() {
+    HeapFootprint.Report binomials = report("Binomials", HeapFootprintTest::binomial);
+    assertEquals(SIZE, binomials.entry(ParsedName.class).instances());
+    report("Trinomials with basionym authorship", HeapFootprintTest::trinomial);
+    report("Informal names", i -> informal(i).toParsedName());
+  }
+
+  @Test
+  public void parseResults() {
+    HeapFootprint.Report informal = report("Informal results", HeapFootprintTest::informal);
+    assertEquals(SIZE, informal.entry(ParseResult.Informal.class).instances());
+    assertNull(informal.entry(ParsedName.class));
+    report("Unparsable results", HeapFootprintTest::unparsable);
+    HeapFootprint.Report mixed = report("Mixed results", HeapFootprintTest::mixed);
+    assertEquals(SIZE * 16 / 20, mixed.entry(ParsedName.class).instances());
+  }
+
+  private static HeapFootprint.Report report(String label, IntFunction<?> factory) {
+    HeapFootprint.Report report = HeapFootprint.measure(label, SIZE, factory);
+    System.out.print(report.format());
+    assertTrue(report.bytesPerInstance() > 0);
+    return report;
+  }
+}
@@ -0,0 +1,79 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InstrumentedNameParserTest {
+
+  @Test
+  public void breakdown() {
+    InstrumentedNameParser parser = new InstrumentedNameParser(new CachingNameParserTest.CountingParser());
+    parser.parse("Abies alba", "Mill.", Rank.SPECIES, NomCode.BOTANICAL);
+    parser.parse("Abies alba");
+    parser.parse("Abies");
+    parser.parseAll(List.of(new NameInput("Picea abies"), new NameInput("Pinus")));
+
+    InstrumentedNameParser.Snapshot s = parser.snapshot();
+    assertEquals(5, s.calls());
+    assertEquals(0, s.failures());
+    assertEquals(3, (long) s.variants().get(ParseResult.Variant.PARSED));
+    assertEquals(0, (long) s.variants().get(ParseResult.Variant.INFORMAL));
+    assertEquals(2, (long) s.variants().get(ParseResult.Variant.UNPARSABLE));
+    assertEquals(3, (long) s.types().get(NameType.SCIENTIFIC));
+    assertEquals(2, (long) s.types().get(NameType.OTHER));
+    assertEquals(3, (long) s.states().get(ParsedName.State.COMPLETE));
+    assertEquals(2, (long) s.states().get(ParsedName.State.NONE));
+
+    assertEquals(5, s.latency().count());
+    assertEquals(5, s.inputLength().count());
+    assertEquals(15, s.inputLength().max());
+    assertEquals(5, s.inputLength().valueAtPercentile(0));
+    assertEquals(15, s.inputLength().valueAtPercentile(100));
+    assertTrue(s.latency().valueAtPercentile(50) <= s.latency().max());
+
+    // distributions cannot be modified through their counts
+    InstrumentedNameParser.Distribution lengths = s.inputLength();
+    int bucket = InstrumentedNameParser.Histogram.bucket(15);
+    assertEquals(1, lengths.bucketCount(bucket));
+    lengths.counts()[bucket] = 100;
+    assertEquals(1, lengths.counts()[bucket]);
+    assertEquals(15, lengths.valueAtPercentile(100));
+    assertEquals(lengths, parser.snapshot().inputLength());
+    assertEquals(lengths.hashCode(), parser.snapshot().inputLength().hashCode());
+  }
+
+  @Test
+  public void failures() {
+    NameParser failing = (name, authorship, rank, code) -> {
+      throw new IllegalStateException("boom");
+    };
+    InstrumentedNameParser parser = new InstrumentedNameParser(failing);
+    assertThrows(IllegalStateException.class, () -> parser.parse("Abies"));
+    assertThrows(IllegalStateException.class, () -> parser.parseAll(List.of(new NameInput("Abies"), new NameInput("Picea"))));
+    InstrumentedNameParser.Snapshot s = parser.snapshot();
+    assertEquals(3, s.calls());
+    assertEquals(3, s.failures());
+    assertEquals(0, (long) s.variants().get(ParseResult.Variant.UNPARSABLE));
+  }
+
+  @Test
+  public void buckets() {
+    for (long v : new long[]{0, 1, 7, 8, 9, 15, 16, 17, 100, 1000, 123456789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+      int b = InstrumentedNameParser.Histogram.bucket(v);
+      assertTrue(b < InstrumentedNameParser.Histogram.BUCKETS);
+      assertTrue(InstrumentedNameParser.Distribution.lowerBound(b) <= v);
+      assertTrue(InstrumentedNameParser.Distribution.upperBound(b) >= v);
+      // at most 12.5% relative error
+      long width = InstrumentedNameParser.Distribution.upperBound(b) - InstrumentedNameParser.Distribution.lowerBound(b);
+      assertTrue(width <= Math.max(0, v / 8));
+    }
+    // buckets are contiguous
+    for (int b = 0; b + 1 < InstrumentedNameParser.Histogram.BUCKETS; b++) {
+      assertEquals(InstrumentedNameParser.Distribution.upperBound(b) + 1, InstrumentedNameParser.Distribution.lowerBound(b + 1));
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package org.gbif.nameparser.util;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class NameFingerprintTest {
+
+  @Test
+  public void stable() {
+    // persisted fingerprints depend on these values, changing the algorithm must be deliberate
+    assertEquals(-7960844568880641155L, name("Abies", "alba", null, Rank.SPECIES).fingerprint());
+    ParsedName hybrid = name("Abies", "alba", "nana", Rank.VARIETY);
+    hybrid.addNotho(NamePart.SPECIFIC);
+    hybrid.addNotho(NamePart.INFRASPECIFIC);
+    hybrid.getCombinationAuthorship().addAuthor("Mill.");
+    hybrid.getCombinationAuthorship().setYear("1768");
+    assertEquals(-2504104778870142541L, hybrid.fingerprint(true));
+  }
+
+  @Test
+  public void normalization() throws Exception {
+    ParsedName pn = name("Abies", "alba", null, Rank.SPECIES);
+    long fp = pn.fingerprint();
+    assertEquals(fp, name("ABIES", "Alba", null, Rank.SPECIES).fingerprint());
+    assertEquals(fp, name("Abies", "alba", null, Rank.UNRANKED).fingerprint());
+    assertEquals(fp, name("Abies", "alba", null, null).fingerprint());
+    assertNotEquals(fp, name("Abies", "albus", null, Rank.SPECIES).fingerprint());
+    assertNotEquals(fp, name("Abiesa", "lba", null, Rank.SPECIES).fingerprint());
+    assertNotEquals(fp, name("Abies", null, "alba", Rank.SPECIES).fingerprint());
+
+    // the authorship is optional
+    pn.getCombinationAuthorship().addAuthor("Mill.");
+    assertEquals(fp, pn.fingerprint());
+    assertEquals(fp, pn.fingerprint(false));
+    long withAuthor = pn.fingerprint(true);
+    assertNotEquals(fp, withAuthor);
+    ParsedName pn2 = name("Abies", "alba", null, Rank.SPECIES);
+    pn2.getCombinationAuthorship().addAuthor("Mill");
+    assertEquals(withAuthor, pn2.fingerprint(true));
+    pn2.getCombinationAuthorship().setYear("1768");
+    assertNotEquals(withAuthor, pn2.fingerprint(true));
+    pn2.getCombinationAuthorship().setYear(null);
+    pn2.getBasionymAuthorship().addAuthor("L.");
+    assertNotEquals(withAuthor, pn2.fingerprint(true));
+
+    // fingerprinting never modifies the name, e.g. by materializing the author list of a year only authorship
+    ParsedName yearOnly = name("Abies", "alba", null, Rank.SPECIES);
+    yearOnly.getCombinationAuthorship().setYear("1768");
+    Object authors = authors(yearOnly.getCombinationAuthorship());
+    assertNotEquals(fp, yearOnly.fingerprint(true));
+    assertSame(authors, authors(yearOnly.getCombinationAuthorship()));
+
+    // uninomials and lone genera are the same, indetermined names are not
+    ParsedName uni = new ParsedName();
+    uni.setUninomial("Abies");
+    ParsedName genus = new ParsedName();
+    genus.setGenus("Abies");
+    assertEquals(uni.fingerprint(), genus.fingerprint());
+    genus.setRank(Rank.SPECIES);
+    assertNotEquals(uni.fingerprint(), genus.fingerprint());
+  }
+
+  @Test
+  public void ranksAndHybrids() {
+    long subsp = name("Abies", "alba", "alpina", Rank.SUBSPECIES).fingerprint();
+    assertEquals(subsp, name("Abies", "alba", "alpina", Rank.INFRASPECIFIC_NAME).fingerprint());
+    assertEquals(subsp, name("Abies", "alba", "alpina", Rank.UNRANKED).fingerprint());
+    assertNotEquals(subsp, name("Abies", "alba", "alpina", Rank.VARIETY).fingerprint());
+    assertNotEquals(name("Abies", "alba", "alpina", Rank.FORM).fingerprint(),
+        name("Abies", "alba", "alpina", Rank.VARIETY).fingerprint());
+
+    ParsedName sect = new ParsedName();
+    sect.setGenus("Abies");
+    sect.setInfragenericEpithet("Pseudopicea");
+    sect.setRank(Rank.SECTION_BOTANY);
+    ParsedName subgen = new ParsedName();
+    subgen.copy(sect);
+    subgen.setRank(Rank.SUBGENUS);
+    assertNotEquals(sect.fingerprint(), subgen.fingerprint());
+
+    ParsedName hybrid = name("Abies", "alba", null, Rank.SPECIES);
+    hybrid.setNotho(NamePart.SPECIFIC);
+    assertNotEquals(name("Abies", "alba", null, Rank.SPECIES).fingerprint(), hybrid.fingerprint());
+    ParsedName hybrid2 = name("Abies", "alba", null, Rank.SPECIES);
+    hybrid2.setNotho(NamePart.GENERIC);
+    assertNotEquals(hybrid2.fingerprint(), hybrid.fingerprint());
+  }
+
+  @Test
+  public void informal() {
+    for (ParseResult.Informal inf : List.of(
+        new ParseResult.Informal("Rhizobium", Rank.GENUS, Rank.SPECIES, "RMCC TR1811", null),
+        new ParseResult.Informal("Allium", Rank.GENUS, Rank.SPECIES, null, null),
+        new ParseResult.Informal("Ichneumonidae", Rank.FAMILY, Rank.SPECIES, null, null),
+        new ParseResult.Informal("Bartonella", Rank.GENUS, Rank.UNRANKED, "group", null))) {
+      assertEquals(inf.toString(), inf.toParsedName().fingerprint(), inf.fingerprint());
+    }
+    assertNotEquals(new ParseResult.Informal("Allium", Rank.GENUS, Rank.SPECIES, "1", null).fingerprint(),
+        new ParseResult.Informal("Allium", Rank.GENUS, Rank.SPECIES, "2", null).fingerprint());
+  }
+
+  /**
+   * Compares fingerprinting with hashing rendered canonical names, checking that fingerprints allocate nothing
+   * and collide no more often than the rendered names.
+   */
+  @Test
+  public void performance() {
+    final int size = 100_000;
+    List<ParsedName> names = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ParsedName pn = name("Genus" + i % 1000, "epithet" + i / 1000, i % 3 == 0 ? "infra" + i % 7 : null,
+          i % 3 == 0 ? Rank.VARIETY : Rank.SPECIES);
+      pn.getCombinationAuthorship().addAuthor("Author " + i % 50);
+      names.add(pn);
+    }
+    Set<Long> fingerprints = new HashSet<>();
+    Set<String> canonicals = new HashSet<>();
+    for (ParsedName pn : names) {
+      fingerprints.add(pn.fingerprint());
+      canonicals.add(pn.canonicalNameWithoutAuthorship());
+    }
+    assertEquals(canonicals.size(), fingerprints.size());
+
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+    for (int x = 0; x < 5; x++) {
+      StopWatch watch = new StopWatch();
+      long sum = 0;
+      long allocated = bean.getThreadAllocatedBytes(tid);
+      watch.start();
+      for (int i = 0; i < size; i++) {
+        sum += names.get(i).fingerprint();
+      }
+      watch.stop();
+      allocated = bean.getThreadAllocatedBytes(tid) - allocated;
+      assertNotEquals(0, sum);
+
+      StopWatch watch2 = StopWatch.createStarted();
+      for (ParsedName pn : names) {
+        sum += pn.canonicalNameWithoutAuthorship().hashCode();
+      }
+      watch2.stop();
+      if (x == 4) {
+        // a few bytes may be allocated by the measurement itself, but none per name
+        assertEquals(0, allocated / size);
+        System.out.printf("Fingerprinted %d names in %s, hashed canonical names in %s%n", size, watch, watch2);
+      }
+    }
+  }
+
+  private static ParsedName name(String genus, String species, String infraspecies, Rank rank) {
+    ParsedName pn = new ParsedName();
+    pn.setGenus(genus);
+    pn.setSpecificEpithet(species);
+    pn.setInfraspecificEpithet(infraspecies);
+    pn.setRank(rank);
+    pn.setType(NameType.SCIENTIFIC);
+    return pn;
+  }
+
+  private static Object authors(Authorship a) throws ReflectiveOperationException {
+    java.lang.reflect.Field f = Authorship.class.getDeclaredField("authors");
+    f.setAccessible(true);
+    return f.get(a);
+  }
+}
@@ -1,16 +1,19 @@
 package org.gbif.nameparser.util;
 
+import org.apache.commons.lang3.time.StopWatch;
 import org.gbif.nameparser.api.*;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.Pattern;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 /**
  *
@@ -716,6 +719,301 @@ public class NameFormatterTest {
     return a;
   }
   
+  @Test
+  public void testFormatProfile() throws Exception {
+    pn.setGenus("Abies");
+    pn.setSpecificEpithet("alba");
+    pn.setInfraspecificEpithet("alpina");
+    pn.setRank(Rank.VARIETY);
+    pn.setNotho(NamePart.SPECIFIC);
+    pn.setCombinationAuthorship(Authorship.yearAuthors("1768", "Mill."));
+    pn.setTaxonomicNote("s.l.");
+    assertEquals(NameFormatter.canonical(pn), NameFormatter.format(pn, FormatProfile.CANONICAL));
+    assertEquals(NameFormatter.canonicalCompleteHtml(pn), NameFormatter.format(pn, FormatProfile.CANONICAL_COMPLETE_HTML));
+
+    FormatProfile profile = FormatProfile.builder()
+        .with(FormatProfile.Option.RANK_MARKER, FormatProfile.Option.AUTHORSHIP, FormatProfile.Option.SENSU)
+        .build();
+    assertEquals("Abies alba var. alpina Mill., 1768 s.l.", NameFormatter.format(pn, profile));
+    assertEquals("Abies × alba var. alpina s.l.", NameFormatter.format(pn, profile.toBuilder()
+        .with(FormatProfile.Option.HYBRID_MARKER)
+        .without(FormatProfile.Option.AUTHORSHIP)
+        .build()));
+    assertEquals("Abies alba alpina", NameFormatter.format(pn, FormatProfile.of()));
+
+    // profiles are cached per mask
+    assertSame(profile, FormatProfile.of(profile.mask()));
+    assertSame(FormatProfile.CANONICAL_COMPLETE, FormatProfile.CANONICAL_COMPLETE_HTML.without(FormatProfile.Option.HTML));
+    assertTrue(FormatProfile.CANONICAL.has(FormatProfile.Option.AUTHORSHIP));
+    assertFalse(FormatProfile.CANONICAL_WITHOUT_AUTHORSHIP.has(FormatProfile.Option.AUTHORSHIP));
+    assertEquals("FormatProfile{RANK_MARKER, AUTHORSHIP, SENSU}", profile.toString());
+    assertThrows(IllegalArgumentException.class, () -> FormatProfile.of(1 << 16));
+  }
+
+  /**
+   * The positional flags of buildName map to the options in declaration order.
+   */
+  @Test
+  public void testBuildNameProfiles() throws Exception {
+    pn.setGenus("Abies");
+    pn.setInfragenericEpithet("Pseudopicea");
+    pn.setSpecificEpithet("alba");
+    pn.setInfraspecificEpithet("alpina");
+    pn.setCultivarEpithet("Nana");
+    pn.setRank(Rank.VARIETY);
+    pn.setNotho(NamePart.INFRASPECIFIC);
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    pn.setCombinationAuthorship(Authorship.yearAuthors("1768", "Mill."));
+    pn.setTaxonomicNote("s.l.");
+    pn.setNomenclaturalNote("nom. illeg.");
+    FormatProfile all = FormatProfile.CANONICAL_COMPLETE.with(FormatProfile.Option.HYBRID_MARKER)
+        .without(FormatProfile.Option.DECOMPOSITION);
+    String name = "Abies (Pseudopicea) cf. alba nothovar. alpina 'Nana' Mill., 1768 s.l., nom. illeg.";
+    assertEquals(name, NameFormatter.format(pn, all));
+    assertEquals(name, NameFormatter.buildName(pn, true, true, true, true, true, false, false, true, true, true, true,
+        true, true, true, true, false));
+  }
+
+  @Test
+  public void testAppendTo() throws Exception {
+    pn.setGenus("Æsculus");
+    pn.setSpecificEpithet("hippocastanum");
+    pn.setCombinationAuthorship(Authorship.authors("Østergård"));
+    pn.setTaxonomicNote("s.l.");
+
+    // appends to existing content
+    StringBuilder sb = new StringBuilder("name\t");
+    assertTrue(NameFormatter.appendTo(sb, pn, FormatProfile.CANONICAL_COMPLETE));
+    assertEquals("name\t" + NameFormatter.canonicalComplete(pn), sb.toString());
+    assertEquals("name\tAesculus hippocastanum Østergård s.l.", sb.toString());
+
+    sb.append('\t');
+    assertTrue(NameFormatter.appendTo(sb, pn, FormatProfile.CANONICAL.with(FormatProfile.Option.ASCII_ONLY)));
+    assertEquals("name\tAesculus hippocastanum Østergård s.l.\tAEsculus hippocastanum Ostergard", sb.toString());
+
+    StringWriter writer = new StringWriter();
+    assertTrue(NameFormatter.appendTo(writer, pn, FormatProfile.CANONICAL_MINIMAL));
+    writer.append(',');
+    assertTrue(NameFormatter.appendTo((Appendable) writer, pn, FormatProfile.CANONICAL_COMPLETE_HTML));
+    assertEquals(NameFormatter.canonicalMinimal(pn) + "," + NameFormatter.canonicalCompleteHtml(pn), writer.toString());
+
+    // nothing appended where format returns null
+    ParsedName empty = new ParsedName();
+    sb.setLength(0);
+    sb.append("x");
+    assertNull(NameFormatter.format(empty, FormatProfile.CANONICAL));
+    assertFalse(NameFormatter.appendTo(sb, empty, FormatProfile.CANONICAL));
+    assertFalse(NameFormatter.appendTo(writer, empty, FormatProfile.CANONICAL));
+    assertEquals("x", sb.toString());
+
+    // a reused buffer saves all intermediate strings
+    com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+    long formatted = 0;
+    long appended = 0;
+    for (int x = 0; x < 5; x++) {
+      long allocated = bean.getThreadAllocatedBytes(tid);
+      for (int i = 0; i < 10000; i++) {
+        NameFormatter.format(pn, FormatProfile.CANONICAL_MINIMAL);
+      }
+      formatted = bean.getThreadAllocatedBytes(tid) - allocated;
+      allocated = bean.getThreadAllocatedBytes(tid);
+      for (int i = 0; i < 10000; i++) {
+        sb.setLength(0);
+        NameFormatter.appendTo(sb, pn, FormatProfile.CANONICAL_MINIMAL);
+      }
+      appended = bean.getThreadAllocatedBytes(tid) - allocated;
+    }
+    System.out.printf("Bytes allocated per name: %d formatted, %d appended%n", formatted / 10000, appended / 10000);
+    assertTrue(appended < formatted);
+  }
+
+  @Test
+  public void testRenderAll() throws Exception {
+    assertEquals(new CanonicalForms(null, null, null, null), NameFormatter.renderAll(pn));
+
+    pn.setGenus("Æsculus");
+    pn.setSpecificEpithet("hippocastanum");
+    pn.setInfraspecificEpithet("hippocastanum");
+    pn.setRank(Rank.VARIETY);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setCombinationAuthorship(Authorship.authors("L."));
+    pn.setTaxonomicNote("s.l.");
+    assertRenderAll();
+    CanonicalForms forms = NameFormatter.renderAll(pn);
+    assertEquals("Æsculus hippocastanum L. var. hippocastanum", forms.canonical());
+    assertEquals("Æsculus hippocastanum var. hippocastanum", forms.canonicalWithoutAuthorship());
+    assertEquals("Aesculus hippocastanum hippocastanum", forms.canonicalMinimal());
+    assertEquals("Aesculus hippocastanum L. var. hippocastanum s.l.", forms.canonicalComplete());
+
+    pn.setInfraspecificEpithet("alba");
+    pn.setCultivarEpithet("Baumannii");
+    pn.setNomenclaturalNote("nom. illeg.");
+    assertRenderAll();
+    pn.setInfragenericEpithet("Calyptrostigma");
+    pn.addNotho(NamePart.SPECIFIC);
+    assertRenderAll();
+    pn.setCultivarEpithet(null);
+    pn.setSpecificAuthorship(new CombinedAuthorship());
+    pn.getSpecificAuthorship().getCombinationAuthorship().addAuthor("Mill.");
+    assertRenderAll();
+    pn.setPhrase("sp. 1 (Alpha 2)");
+    pn.setType(NameType.INFORMAL);
+    assertRenderAll();
+  }
+
+  private void assertRenderAll() {
+    CanonicalForms forms = NameFormatter.renderAll(pn);
+    assertEquals(NameFormatter.canonical(pn), forms.canonical());
+    assertEquals(NameFormatter.canonicalWithoutAuthorship(pn), forms.canonicalWithoutAuthorship());
+    assertEquals(NameFormatter.canonicalMinimal(pn), forms.canonicalMinimal());
+    assertEquals(NameFormatter.canonicalComplete(pn), forms.canonicalComplete());
+  }
+
+  /**
+   * Rendering the four standard forms of each name, as an indexer does, individually and at once.
+   */
+  @Test
+  public void renderAllPerformance() {
+    final int size = 10_000;
+    List<ParsedName> names = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ParsedName n = new ParsedName();
+      n.setGenus("Abies");
+      n.setSpecificEpithet("alba" + i % 100);
+      if (i % 3 == 0) {
+        n.setInfraspecificEpithet("alpina");
+        n.setRank(Rank.SUBSPECIES);
+        n.getBasionymAuthorship().addAuthor("L.");
+      } else {
+        n.setRank(Rank.SPECIES);
+      }
+      n.getCombinationAuthorship().addAuthor("Mill.");
+      n.getCombinationAuthorship().setYear("1768");
+      names.add(n);
+    }
+    // the first rounds warm up
+    for (int x = 0; x < 5; x++) {
+      StopWatch watch = StopWatch.createStarted();
+      long sum = 0;
+      for (ParsedName n : names) {
+        sum += NameFormatter.canonical(n).length() + NameFormatter.canonicalWithoutAuthorship(n).length()
+            + NameFormatter.canonicalMinimal(n).length() + NameFormatter.canonicalComplete(n).length();
+      }
+      watch.stop();
+      StopWatch watch2 = StopWatch.createStarted();
+      long sum2 = 0;
+      for (ParsedName n : names) {
+        CanonicalForms f = NameFormatter.renderAll(n);
+        sum2 += f.canonical().length() + f.canonicalWithoutAuthorship().length()
+            + f.canonicalMinimal().length() + f.canonicalComplete().length();
+      }
+      watch2.stop();
+      assertEquals(sum, sum2);
+      if (x == 4) {
+        System.out.printf("Rendered 4 forms of %d names: individually %s, at once %s%n", size, watch, watch2);
+      }
+    }
+  }
+
+  /**
+   * The scanners of the formatter against the regular expressions they replace,
+   * for all short strings of characters relevant to them.
+   */
+  @Test
+  public void testScannersMatchRegex() {
+    // ASCII and line terminators only, \b is ASCII only from JDK 19 on while the scanners keep the JDK 17 semantics
+    String[] chars = {"A", "a", "B", ".", " ", "_", "1", ")", "\n", "\r", "\u0085", "\u2028"};
+    Pattern authorTail = Pattern.compile("(?U)[\\p{Lu}](?:\\.[\\p{Lu}])*\\..+");
+    Pattern speciesMarker = Pattern.compile("^(?:species|spec|sp)\\b.*", Pattern.CASE_INSENSITIVE);
+    Pattern al = Pattern.compile("^al\\.?$");
+    String[] prefixes = {"", " ", "s", "sp", "SP", "Sp", "spec", "sPeC", "speci", "species", "SPECIES", "\u017Fp", "al", "al."};
+    for (String prefix : prefixes) {
+      for (String x : strings(chars, 4)) {
+        x = prefix + x;
+        assertEquals(x, authorTail.matcher(x.trim()).matches(), NameFormatter.isAuthorTail(x, 0));
+        assertEquals(x, speciesMarker.matcher(x.trim()).matches(), NameFormatter.leadsWithSpeciesMarker(x));
+        assertEquals(x, al.matcher(x).find(), NameFormatter.isAl(x));
+      }
+    }
+    assertTrue(NameFormatter.isAuthorTail("Sandheath (D.Murfet 3190) R.J.Bates", 25));
+    assertFalse(NameFormatter.isAuthorTail("Sandheath (D.Murfet 3190) NT Herbarium", 25));
+    assertTrue(NameFormatter.leadsWithSpeciesMarker(" Species 1"));
+    assertFalse(NameFormatter.leadsWithSpeciesMarker("special"));
+    // letters, digits and non spacing marks following a word character continue the word
+    assertFalse(NameFormatter.leadsWithSpeciesMarker("spΔ"));
+    assertFalse(NameFormatter.leadsWithSpeciesMarker("sp\uD835\uDC00"));
+    assertFalse(NameFormatter.leadsWithSpeciesMarker("sp\u0301"));
+    assertFalse(NameFormatter.leadsWithSpeciesMarker("spec\u0663"));
+    assertTrue(NameFormatter.leadsWithSpeciesMarker("sp\u0903"));
+    assertTrue(NameFormatter.leadsWithSpeciesMarker("sp Δ"));
+    assertTrue(NameFormatter.leadsWithSpeciesMarker("species\u00A0A"));
+    assertTrue(NameFormatter.isAuthorTail("Δ.Mill.", 0));
+    assertTrue(NameFormatter.isAuthorTail("\uD835\uDC00.\u0301", 0));
+    assertFalse(NameFormatter.isAuthorTail("δ.Mill.", 0));
+    assertTrue(NameFormatter.isAl("al."));
+  }
+
+  /**
+   * The scanners against the regular expressions they replace on typical phrases and authors.
+   */
+  @Test
+  public void scannerPerformance() {
+    String[] phrases = {"Sandheath (D.Murfet 3190) R.J.Bates", "Bigge Island (A.A. Mitchell 3436)",
+        "sp. 1 (Alpha 2) NT Herbarium", "species A", "Mt Cooke (D.Murfet 3190) C.E.M.Bicudo"};
+    String[] authors = {"Mill.", "L.", "al.", "DC.", "Hook.f.", "et al."};
+    Pattern authorTail = Pattern.compile("(?U)[\\p{Lu}](?:\\.[\\p{Lu}])*\\..+");
+    Pattern speciesMarker = Pattern.compile("^(?:species|spec|sp)\\b.*", Pattern.CASE_INSENSITIVE);
+    Pattern al = Pattern.compile("^al\\.?$");
+    final int rounds = 200_000;
+    // the first pass warms up
+    for (int x = 0; x < 2; x++) {
+      int regexMatches = 0;
+      StopWatch regex = StopWatch.createStarted();
+      for (int r = 0; r < rounds; r++) {
+        String phrase = phrases[r % phrases.length];
+        String tail = phrase.substring(phrase.lastIndexOf(')') + 1).trim();
+        regexMatches += tail.matches(authorTail.pattern()) ? 1 : 0;
+        regexMatches += speciesMarker.matcher(phrase.trim()).matches() ? 1 : 0;
+        regexMatches += al.matcher(authors[r % authors.length]).find() ? 1 : 0;
+      }
+      regex.stop();
+      int scannerMatches = 0;
+      StopWatch scanner = StopWatch.createStarted();
+      for (int r = 0; r < rounds; r++) {
+        String phrase = phrases[r % phrases.length];
+        scannerMatches += NameFormatter.isAuthorTail(phrase, phrase.lastIndexOf(')') + 1) ? 1 : 0;
+        scannerMatches += NameFormatter.leadsWithSpeciesMarker(phrase) ? 1 : 0;
+        scannerMatches += NameFormatter.isAl(authors[r % authors.length]) ? 1 : 0;
+      }
+      scanner.stop();
+      assertEquals(regexMatches, scannerMatches);
+      if (x > 0) {
+        System.out.printf("Matched %d phrases and authors: regular expressions %s, scanners %s%n",
+            rounds, regex, scanner);
+      }
+    }
+  }
+
+  /**
+   * @return all strings of up to max of the given characters
+   */
+  private static List<String> strings(String[] chars, int max) {
+    List<String> strings = new ArrayList<>();
+    strings.add("");
+    int from = 0;
+    for (int len = 1; len <= max; len++) {
+      int to = strings.size();
+      for (int i = from; i < to; i++) {
+        for (String c : chars) {
+          strings.add(strings.get(i) + c);
+        }
+      }
+      from = to;
+    }
+    return strings;
+  }
+
   private void assertNameNull() {
     assertName(null, null, null);
   }
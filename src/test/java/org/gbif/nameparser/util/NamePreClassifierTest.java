@@ -0,0 +1,141 @@
+package org.gbif.nameparser.util;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.gbif.nameparser.api.NameType.IDENTIFIER;
+import static org.gbif.nameparser.api.NameType.PLACEHOLDER;
+import static org.junit.Assert.*;
+
+public class NamePreClassifierTest {
+  final NamePreClassifier classifier = NamePreClassifier.DEFAULT;
+
+  @Test
+  public void identifiers() {
+    for (String x : List.of("BOLD:AAA1234", "BOLD:AAB5053", "bold:ACZ0001", " BOLD:AAA1234 ",
+        "SH0864666.10FU", "SH1.08FU", "sh123456.07fu",
+        "OTU_12", "OTU12", "OTU 12", "otu-7", "ASV:3", "ESV 99", "zOTU42", "ZOTU_1")) {
+      assertEquals(x, IDENTIFIER, classifier.classify(x));
+    }
+  }
+
+  @Test
+  public void placeholders() {
+    for (String x : List.of("incertae sedis", "Incertae Sedis", "Incertae sedis.", "unknown", "Unknown", "UNKNOWN",
+        "unknown genus", "Unknown  family", "unknown_species", "unidentified", "unidentified sp.", "not assigned",
+        "Not-Assigned", "None", "null", "N/A", " indet. ")) {
+      assertEquals(x, PLACEHOLDER, classifier.classify(x));
+    }
+  }
+
+  @Test
+  public void names() {
+    for (String x : List.of("", "  ", "Abies alba Mill.", "Otus scops", "Otus", "Asvia", "Esvaria", "Shorea robusta",
+        "Boldoa", "Bold", "BOLD:AAA123", "BOLD:AAA12345", "BOLD:aaa1234", "SH.10FU", "SH0864666FU", "SH0864666.10",
+        "OTU", "OTU_", "OTU_1a", "zOTU", "Rhizobium sp. OTU_12", "Fungi incertae sedis", "unknown Abies",
+        "Unknownia", "Nonea lutea", "Nullius", "Puma concolor (Linnaeus, 1771)", "Zotula", "Aster sp.")) {
+      assertNull(x, classifier.classify(x));
+    }
+    assertNull(classifier.classify(null));
+  }
+
+  @Test
+  public void customPlaceholders() {
+    NamePreClassifier custom = new NamePreClassifier(List.of("dummy", "to be determined"));
+    assertEquals(PLACEHOLDER, custom.classify("Dummy"));
+    assertEquals(PLACEHOLDER, custom.classify("to be  determined."));
+    assertNull(custom.classify("to be"));
+    assertNull(custom.classify("unknown"));
+    assertEquals(IDENTIFIER, custom.classify("BOLD:AAA1234"));
+    assertThrows(IllegalArgumentException.class, () -> new NamePreClassifier(List.of("ünknown")));
+  }
+
+  @Test
+  public void decorator() {
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    PreClassifyingNameParser parser = new PreClassifyingNameParser(counter);
+    assertEquals(new ParseResult.Unparsable(IDENTIFIER, NomCode.BACTERIAL, "BOLD:AAA1234"),
+        parser.parse("BOLD:AAA1234", null, null, NomCode.BACTERIAL));
+    assertTrue(parser.parse("Abies alba").isParsable());
+    assertEquals(1, counter.calls.get());
+
+    List<ParseResult> results = parser.parseAll(List.of(new NameInput("unknown"), new NameInput("Abies alba"),
+        new NameInput("SH0864666.10FU"), new NameInput("Picea abies")));
+    assertEquals(new ParseResult.Unparsable(PLACEHOLDER, "unknown"), results.get(0));
+    assertEquals("Abies alba", results.get(1).canonicalName());
+    assertEquals(new ParseResult.Unparsable(IDENTIFIER, "SH0864666.10FU"), results.get(2));
+    assertEquals("Picea abies", results.get(3).canonicalName());
+    assertEquals(3, counter.calls.get());
+    assertEquals(1, counter.batches.get());
+
+    assertEquals(new PreClassifyingNameParser.Stats(6, 3), parser.stats());
+    assertEquals(0.5, parser.stats().classifiedRatio(), 0.0001);
+  }
+
+  /**
+   * Reports the share of parser calls removed and the cost of classifying on a synthetic corpus.
+   * The corpus is 35% identifiers and 5% placeholders by construction, so the share removed only reflects that mix
+   * and says nothing about real data. The cost per name is the meaningful number.
+   */
+  @Test
+  public void performance() {
+    List<NameInput> corpus = syntheticCorpus(200_000);
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    PreClassifyingNameParser parser = new PreClassifyingNameParser(counter);
+    // warm up
+    for (NameInput n : corpus) {
+      classifier.classify(n.scientificName());
+    }
+
+    StopWatch watch = StopWatch.createStarted();
+    int hits = 0;
+    for (NameInput n : corpus) {
+      if (classifier.classify(n.scientificName()) != null) {
+        hits++;
+      }
+    }
+    watch.stop();
+    parser.parseAll(corpus);
+    assertEquals(hits, parser.stats().classified());
+    assertEquals(corpus.size() - hits, counter.calls.get());
+    System.out.printf("Pre-classified %d of %d synthetic names (%.1f%% of parser calls removed) in %s, %d ns/name%n",
+        hits, corpus.size(), parser.stats().classifiedRatio() * 100, watch, watch.getNanoTime() / corpus.size());
+  }
+
+  /**
+   * A metabarcoding-heavy mix: 65% binomials, 15% BOLD BINs, 8% UNITE species hypotheses, 7% OTU labels
+   * and 5% placeholders.
+   */
+  private static List<NameInput> syntheticCorpus(int size) {
+    String[] genera = {"Abies", "Picea", "Quercus", "Puma", "Otus", "Bacillus", "Rhizobium", "Carex", "Aster", "Boldoa"};
+    String[] epithets = {"alba", "abies", "robur", "concolor", "scops", "subtilis", "leguminosarum", "nigra", "sp."};
+    String[] authors = {null, "L.", "Mill.", "(Linnaeus, 1771)", "Cohn 1872"};
+    String[] placeholders = {"incertae sedis", "Unknown", "unidentified", "Not assigned", "unknown genus"};
+    Random rnd = new Random(42);
+    List<NameInput> names = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int x = rnd.nextInt(100);
+      String name;
+      if (x < 65) {
+        name = genera[rnd.nextInt(genera.length)] + " " + epithets[rnd.nextInt(epithets.length)];
+        names.add(new NameInput(name, authors[rnd.nextInt(authors.length)], null, null));
+        continue;
+      } else if (x < 80) {
+        name = String.format("BOLD:A%c%c%04d", 'A' + rnd.nextInt(26), 'A' + rnd.nextInt(26), rnd.nextInt(10000));
+      } else if (x < 88) {
+        name = String.format("SH%07d.%02dFU", rnd.nextInt(10_000_000), 8 + rnd.nextInt(3));
+      } else if (x < 95) {
+        name = "OTU_" + rnd.nextInt(5000);
+      } else {
+        name = placeholders[rnd.nextInt(placeholders.length)];
+      }
+      names.add(new NameInput(name));
+    }
+    return names;
+  }
+}
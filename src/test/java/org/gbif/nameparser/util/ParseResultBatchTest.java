@@ -0,0 +1,175 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ParseResultBatchTest {
+
+  @Test
+  public void roundtrip() throws Exception {
+    List<ParseResult> results = List.of(
+        new ParseResult.Parsed(full()),
+        new ParseResult.Parsed(binomial("Abies", "alba")),
+        new ParseResult.Informal("Rhizobium", Rank.GENUS, Rank.SPECIES, "RMCC TR1811", NomCode.BACTERIAL),
+        new ParseResult.Informal("Ichneumonidae", Rank.FAMILY, Rank.SPECIES, null, null),
+        new ParseResult.Unparsable(NameType.IDENTIFIER, "BOLD:AAA1234"),
+        new ParseResult.Unparsable(NameType.OTHER, NomCode.VIRUS, "Tobacco mosaic virus"),
+        new ParseResult.Parsed(new ParsedName())
+    );
+    ParseResultBatch batch = ParseResultBatch.of(results);
+    assertEquals(results.size(), batch.size());
+    for (int i = 0; i < results.size(); i++) {
+      assertEquals(results.get(i), batch.get(i));
+      assertEquals(results.get(i).variant(), batch.variant(i));
+      assertEquals(results.get(i).type(), batch.type(i));
+      assertEquals(results.get(i).code(), batch.code(i));
+    }
+    assertEquals(full().canonicalNameComplete(), batch.toParsedName(0).canonicalNameComplete());
+    assertEquals(Rank.VARIETY, batch.rank(0));
+    assertEquals(ParsedName.State.PARTIAL, batch.state(0));
+    assertEquals(Warning.HOMOGLYHPS.mask(), batch.warningMask(0));
+    assertEquals("Abies", batch.dictionary().get(batch.genericId(1)));
+    assertEquals(batch.genericId(0), batch.genericId(1));
+
+    // rows are materialized like parseInto does
+    ParsedName target = new ParsedName();
+    assertEquals(ParseResult.Variant.INFORMAL, batch.copyTo(2, target));
+    assertEquals(((ParseResult.Informal) results.get(2)).toParsedName(), target);
+    assertEquals(ParseResult.Variant.UNPARSABLE, batch.copyTo(4, target));
+    assertEquals(NameType.IDENTIFIER, target.getType());
+    assertEquals("BOLD:AAA1234", target.getUnparsed());
+    assertEquals(ParseResult.Variant.PARSED, batch.copyTo(1, target));
+    assertEquals(binomial("Abies", "alba"), target);
+
+    // rows without authors or year leave the authorships lazily empty
+    ParsedName noAuthors = batch.toParsedName(1);
+    assertSame(Authorship.EMPTY, authorship(noAuthors, "combinationAuthorship"));
+    assertSame(Authorship.EMPTY, authorship(noAuthors, "basionymAuthorship"));
+    assertNotSame(Authorship.EMPTY, authorship(batch.toParsedName(0), "combinationAuthorship"));
+  }
+
+  private static Object authorship(CombinedAuthorship ca, String field) throws ReflectiveOperationException {
+    java.lang.reflect.Field f = CombinedAuthorship.class.getDeclaredField(field);
+    f.setAccessible(true);
+    return f.get(ca);
+  }
+
+  @Test
+  public void views() {
+    ParseResultBatch batch = new ParseResultBatch();
+    assertEquals(0, batch.add(new ParseResult.Parsed(full())));
+    assertEquals(1, batch.add(new ParseResult.Informal("Allium", Rank.GENUS, Rank.SPECIES, "1", null)));
+    assertEquals(2, batch.add(new ParseResult.Unparsable(NameType.PLACEHOLDER, "unknown")));
+
+    LinneanName n = batch.name(0);
+    assertEquals("Abies", n.getGenus());
+    assertEquals("alba", n.getSpecificEpithet());
+    assertEquals("alpina", n.getInfraspecificEpithet());
+    assertEquals("Pseudopicea", n.getInfragenericEpithet());
+    assertNull(n.getUninomial());
+    assertEquals(Rank.VARIETY, n.getRank());
+    assertEquals(NomCode.BOTANICAL, n.getCode());
+    assertEquals(Set.of(NamePart.SPECIFIC, NamePart.INFRASPECIFIC), n.getNotho());
+    assertEquals("alba", n.getNamePart(NamePart.SPECIFIC));
+    assertThrows(UnsupportedOperationException.class, () -> n.setGenus("Picea"));
+    assertThrows(UnsupportedOperationException.class, () -> n.getNotho().add(NamePart.GENERIC));
+
+    assertEquals("Allium", batch.name(1).getGenus());
+    assertEquals(Rank.SPECIES, batch.name(1).getRank());
+    assertNull(batch.name(2).getGenus());
+    assertTrue(batch.name(2).getNotho().isEmpty());
+  }
+
+  @Test
+  public void sharedDictionary() {
+    ParseResultBatch.Dictionary dict = new ParseResultBatch.Dictionary();
+    ParseResultBatch b1 = new ParseResultBatch(dict);
+    ParseResultBatch b2 = new ParseResultBatch(dict);
+    b1.add(new ParseResult.Parsed(binomial("Abies", "alba")));
+    b2.add(new ParseResult.Parsed(binomial("Picea", "alba")));
+    b2.add(new ParseResult.Parsed(binomial("Abies", "nigra")));
+    assertEquals(4, dict.size());
+    assertEquals(b1.genericId(0), b2.genericId(1));
+    assertEquals(0, dict.id(null));
+    assertNull(dict.get(0));
+  }
+
+  /**
+   * Compares the retained heap of parse results with a batch holding the same results.
+   */
+  @Test
+  public void footprint() {
+    final int size = 200_000;
+    List<ParseResult> results = new ArrayList<>(size);
+    HeapFootprint.Report list = HeapFootprint.measure("Parse results", size, i -> {
+      ParsedName pn = binomial("Genus" + i % 2000, "epithet" + i % 500);
+      pn.getCombinationAuthorship().addAuthor("Author" + i % 300);
+      pn.getCombinationAuthorship().setYear(String.valueOf(1750 + i % 250));
+      ParseResult r = new ParseResult.Parsed(pn);
+      results.add(r);
+      return r;
+    });
+    // a single batch, reported per result it holds
+    HeapFootprint.Report batch = HeapFootprint.measure("Batch", 1, i -> ParseResultBatch.of(results));
+    assertEquals(1, batch.entry(ParseResultBatch.class).instances());
+    System.out.print(list.format());
+    System.out.printf("Batch: %,d results retain %,d bytes, %.1f bytes per result%n",
+        size, batch.bytes(), (double) batch.bytes() / size);
+  }
+
+  private static ParsedName binomial(String genus, String species) {
+    ParsedName pn = new ParsedName();
+    pn.setGenus(genus);
+    pn.setSpecificEpithet(species);
+    pn.setRank(Rank.SPECIES);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.COMPLETE);
+    return pn;
+  }
+
+  private static ParsedName full() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setInfragenericEpithet("Pseudopicea");
+    pn.setSpecificEpithet("alba");
+    pn.setInfraspecificEpithet("alpina");
+    pn.setCultivarEpithet("Nana");
+    pn.setRank(Rank.VARIETY);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.PARTIAL);
+    pn.setCandidatus(true);
+    pn.setExtinct(true);
+    pn.setDoubtful(true);
+    pn.setManuscript(true);
+    pn.setOriginalSpelling(false);
+    pn.addNotho(NamePart.SPECIFIC);
+    pn.addNotho(NamePart.INFRASPECIFIC);
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    pn.addWarning(Warnings.HOMOGLYHPS, Warnings.REMOVED_PREFIX + "xyz");
+    pn.setTaxonomicNote("s.l.");
+    pn.setNomenclaturalNote("nom. illeg.");
+    pn.setPublishedIn("Gard. Dict. 1768");
+    pn.setPublishedInYear(1767);
+    pn.setPublishedInPage("12");
+    pn.setUnparsed(" xyz");
+    pn.setSanctioningAuthor("Fr.");
+    Authorship comb = pn.getCombinationAuthorship();
+    comb.addAuthor("Mill.");
+    comb.addAuthor("DC.");
+    comb.addExAuthor("Bassier");
+    comb.setYear("1768");
+    comb.setImprintYear("1769");
+    pn.getBasionymAuthorship().addAuthor("L.");
+    CombinedAuthorship sa = new CombinedAuthorship();
+    sa.getCombinationAuthorship().addAuthor("Pers.");
+    pn.setSpecificAuthorship(sa);
+    return pn;
+  }
+}
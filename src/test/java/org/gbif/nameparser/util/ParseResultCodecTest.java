@@ -0,0 +1,352 @@
+package org.gbif.nameparser.util;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.io.*;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParseResultCodecTest {
+  final ParseResultCodec codec = new ParseResultCodec();
+
+  static final List<ParseResult> RESULTS = List.of(
+      new ParseResult.Parsed(full()),
+      new ParseResult.Parsed(binomial("Abies", "alba")),
+      new ParseResult.Parsed(binomial("Ünterwaldia", "müllerii")),
+      new ParseResult.Parsed(new ParsedName()),
+      new ParseResult.Informal("Rhizobium", Rank.GENUS, Rank.SPECIES, "RMCC TR1811", NomCode.BACTERIAL),
+      new ParseResult.Informal("Ichneumonidae", Rank.FAMILY, Rank.SPECIES, null, null),
+      new ParseResult.Unparsable(NameType.IDENTIFIER, "BOLD:AAA1234"),
+      new ParseResult.Unparsable(NameType.OTHER, NomCode.VIRUS, "Tobacco mosaic virus"),
+      new ParseResult.Unparsable(NameType.PLACEHOLDER, null)
+  );
+
+  @Test
+  public void roundtripStream() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    for (ParseResult r : RESULTS) {
+      codec.write(r, out);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    for (ParseResult r : RESULTS) {
+      assertEquals(r, codec.read(in));
+    }
+    assertThrows(EOFException.class, () -> codec.read(in));
+  }
+
+  @Test
+  public void roundtripBuffer() {
+    for (ByteBuffer buffer : List.of(ByteBuffer.allocate(4096), ByteBuffer.allocateDirect(4096))) {
+      for (ParseResult r : RESULTS) {
+        codec.write(r, buffer);
+      }
+      buffer.flip();
+      for (ParseResult r : RESULTS) {
+        assertEquals(r, codec.read(buffer));
+      }
+      assertFalse(buffer.hasRemaining());
+    }
+    for (ParseResult r : RESULTS) {
+      assertEquals(r, codec.decode(codec.encode(r)));
+    }
+    // the rendered names survive as well
+    ParsedName pn = codec.decode(codec.encode(RESULTS.get(0))).orElseThrow();
+    assertEquals(full().canonicalNameComplete(), pn.canonicalNameComplete());
+    assertEquals(1767, (int) pn.getPublishedInYear());
+    assertTrue(pn.hasWarning(Warning.HOMOGLYHPS));
+  }
+
+  @Test
+  public void allCodes() {
+    for (Rank rank : Rank.values()) {
+      ParsedName pn = binomial("Abies", "alba");
+      pn.setRank(rank);
+      assertEquals(new ParseResult.Parsed(pn), codec.decode(codec.encode(new ParseResult.Parsed(pn))));
+    }
+    for (NomCode code : NomCode.values()) {
+      ParseResult r = new ParseResult.Informal("Abies", Rank.GENUS, Rank.SPECIES, null, code);
+      assertEquals(r, codec.decode(codec.encode(r)));
+    }
+    for (NameType type : NameType.values()) {
+      ParsedName pn = new ParsedName();
+      pn.setType(type);
+      assertEquals(new ParseResult.Parsed(pn), codec.decode(codec.encode(new ParseResult.Parsed(pn))));
+    }
+    ParsedName pn = new ParsedName();
+    for (Warning w : Warning.values()) {
+      pn.addWarning(w);
+    }
+    assertEquals(new ParseResult.Parsed(pn), codec.decode(codec.encode(new ParseResult.Parsed(pn))));
+  }
+
+  /**
+   * The encoding is persisted, so it must never change for the same version.
+   */
+  @Test
+  public void stable() {
+    ParsedName pn = binomial("Abies", "alba");
+    pn.getCombinationAuthorship().addAuthor("Mill.");
+    byte[] bytes = codec.encode(new ParseResult.Parsed(pn));
+    // length, header, presence bits, rank, type, state, genus, epithet, authorship bits and authors
+    assertEquals("19" + "04" + "d510" + "55" + "00" + "00" + "054162696573" + "04616c6261" + "01" + "01054d696c6c2e",
+        hex(bytes));
+    ParseResult informal = new ParseResult.Informal("Abies", Rank.GENUS, Rank.SPECIES, "1", NomCode.BOTANICAL);
+    // length, header, taxon rank, rank, presence bits, taxon, phrase, code
+    assertEquals("0d" + "05" + "49" + "55" + "03" + "054162696573" + "0131" + "42", hex(codec.encode(informal)));
+
+    // frozen names encode like mutable ones, whatever the order of their notho parts and qualifiers
+    ParsedName several = binomial("Abies", "alba");
+    several.setInfraspecificEpithet("nana");
+    several.addNotho(NamePart.INFRASPECIFIC);
+    several.addNotho(NamePart.GENERIC);
+    several.addNotho(NamePart.SPECIFIC);
+    several.setEpithetQualifier(NamePart.INFRASPECIFIC, "cf.");
+    several.setEpithetQualifier(NamePart.GENERIC, "aff.");
+    ParsedName frozen = new ParsedName();
+    frozen.copy(several);
+    frozen.freeze();
+    assertEquals(hex(codec.encode(new ParseResult.Parsed(several))), hex(codec.encode(new ParseResult.Parsed(frozen))));
+  }
+
+  @Test
+  public void malformed() {
+    byte[] bytes = codec.encode(RESULTS.get(1));
+    byte[] version = bytes.clone();
+    version[1] = (byte) (2 << 2);
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> codec.decode(version));
+    assertEquals("Unsupported codec version 2", e.getMessage());
+
+    byte[] truncated = Arrays.copyOf(bytes, bytes.length - 3);
+    truncated[0] = (byte) (bytes.length - 4);
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+
+    byte[] rank = bytes.clone();
+    rank[3] = 127;
+    e = assertThrows(IllegalArgumentException.class, () -> codec.decode(rank));
+    assertEquals("Unknown Rank code 127", e.getMessage());
+  }
+
+  /**
+   * Compares encoding a mix of typical results with rendering them as JSON through reflection on their getters,
+   * as a generic JSON mapper does, and reports the cost of decoding.
+   */
+  @Test
+  public void throughput() throws IOException {
+    List<ParseResult> corpus = corpus(50_000);
+    JsonWriter json = new JsonWriter();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    long jsonBytes = 0;
+    // warm up
+    for (int round = 0; round < 5; round++) {
+      for (ParseResult r : corpus) {
+        codec.write(r, out);
+        json.write(r);
+        codec.decode(codec.encode(r));
+      }
+    }
+
+    StopWatch binaryWatch = suspended();
+    StopWatch jsonWatch = suspended();
+    StopWatch decodeWatch = suspended();
+    final int rounds = 5;
+    for (int round = 0; round < rounds; round++) {
+      bytes.reset();
+      binaryWatch.resume();
+      for (ParseResult r : corpus) {
+        codec.write(r, out);
+      }
+      binaryWatch.suspend();
+
+      jsonWatch.resume();
+      jsonBytes = 0;
+      for (ParseResult r : corpus) {
+        jsonBytes += json.write(r).length();
+      }
+      jsonWatch.suspend();
+
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+      decodeWatch.resume();
+      for (ParseResult r : corpus) {
+        assertEquals(r.variant(), codec.read(in).variant());
+      }
+      decodeWatch.suspend();
+    }
+    long n = (long) corpus.size() * rounds;
+    System.out.printf("Encoded %d results: binary %d ns and %d bytes, reflective JSON %d ns and %d bytes per result."
+            + " Binary decoding %d ns per result%n", corpus.size(),
+        binaryWatch.getNanoTime() / n, bytes.size() / corpus.size(),
+        jsonWatch.getNanoTime() / n, jsonBytes / corpus.size(), decodeWatch.getNanoTime() / n);
+    assertTrue(bytes.size() < jsonBytes);
+  }
+
+  private static StopWatch suspended() {
+    StopWatch watch = StopWatch.createStarted();
+    watch.suspend();
+    return watch;
+  }
+
+  static List<ParseResult> corpus(int size) {
+    String[] genera = {"Abies", "Picea", "Quercus", "Puma", "Otus", "Bacillus", "Rhizobium", "Carex"};
+    String[] epithets = {"alba", "abies", "robur", "concolor", "scops", "subtilis", "nigra"};
+    String[] authors = {"L.", "Mill.", "Linnaeus", "Cohn", "DC."};
+    Random rnd = new Random(42);
+    List<ParseResult> results = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      int x = rnd.nextInt(100);
+      if (x < 80) {
+        ParsedName pn = binomial(genera[rnd.nextInt(genera.length)], epithets[rnd.nextInt(epithets.length)]);
+        if (x < 60) {
+          pn.getCombinationAuthorship().addAuthor(authors[rnd.nextInt(authors.length)]);
+          pn.getCombinationAuthorship().setYear(String.valueOf(1753 + rnd.nextInt(250)));
+        }
+        if (x < 20) {
+          pn.getBasionymAuthorship().addAuthor(authors[rnd.nextInt(authors.length)]);
+          pn.setInfraspecificEpithet(epithets[rnd.nextInt(epithets.length)]);
+          pn.setRank(Rank.SUBSPECIES);
+        }
+        results.add(new ParseResult.Parsed(pn));
+      } else if (x < 90) {
+        results.add(new ParseResult.Informal(genera[rnd.nextInt(genera.length)], Rank.GENUS, Rank.SPECIES,
+            String.valueOf(rnd.nextInt(100)), null));
+      } else {
+        results.add(new ParseResult.Unparsable(NameType.IDENTIFIER, "BOLD:AAA" + (1000 + rnd.nextInt(9000))));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Renders objects as JSON through their public getters, discovered once per class by reflection.
+   */
+  static class JsonWriter {
+    private final Map<Class<?>, List<Method>> getters = new HashMap<>();
+    private final StringBuilder sb = new StringBuilder();
+
+    String write(Object value) {
+      sb.setLength(0);
+      value(value instanceof ParseResult.Parsed p ? p.name() : value);
+      return sb.toString();
+    }
+
+    private void value(Object value) {
+      if (value == null) {
+        sb.append("null");
+      } else if (value instanceof String || value instanceof Enum) {
+        sb.append('"').append(value).append('"');
+      } else if (value instanceof Number || value instanceof Boolean) {
+        sb.append(value);
+      } else if (value instanceof Collection<?> c) {
+        sb.append('[');
+        for (Object o : c) {
+          value(o);
+          sb.append(',');
+        }
+        sb.append(']');
+      } else if (value instanceof Map<?, ?> m) {
+        sb.append('{');
+        for (Map.Entry<?, ?> e : m.entrySet()) {
+          sb.append('"').append(e.getKey()).append("\":");
+          value(e.getValue());
+          sb.append(',');
+        }
+        sb.append('}');
+      } else {
+        sb.append('{');
+        for (Method g : getters.computeIfAbsent(value.getClass(), JsonWriter::getters)) {
+          sb.append('"').append(g.getName()).append("\":");
+          try {
+            value(g.invoke(value));
+          } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+          }
+          sb.append(',');
+        }
+        sb.append('}');
+      }
+    }
+
+    private static List<Method> getters(Class<?> cl) {
+      List<Method> getters = new ArrayList<>();
+      for (Method m : cl.getMethods()) {
+        if (m.getParameterCount() == 0 && !Modifier.isStatic(m.getModifiers()) && m.getDeclaringClass() != Object.class
+            && (m.getName().startsWith("get") || m.getName().startsWith("is")) || cl.isRecord() && m.getParameterCount() == 0
+            && Arrays.stream(cl.getRecordComponents()).anyMatch(c -> c.getName().equals(m.getName()))) {
+          getters.add(m);
+        }
+      }
+      return getters;
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
+  static ParsedName binomial(String genus, String species) {
+    ParsedName pn = new ParsedName();
+    pn.setGenus(genus);
+    pn.setSpecificEpithet(species);
+    pn.setRank(Rank.SPECIES);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.COMPLETE);
+    return pn;
+  }
+
+  static ParsedName full() {
+    ParsedName pn = new ParsedName();
+    pn.setGenus("Abies");
+    pn.setInfragenericEpithet("Pseudopicea");
+    pn.setSpecificEpithet("alba");
+    pn.setInfraspecificEpithet("alpina");
+    pn.setCultivarEpithet("Nana");
+    pn.setRank(Rank.VARIETY);
+    pn.setCode(NomCode.BOTANICAL);
+    pn.setType(NameType.SCIENTIFIC);
+    pn.setState(ParsedName.State.PARTIAL);
+    pn.setCandidatus(true);
+    pn.setExtinct(true);
+    pn.setDoubtful(true);
+    pn.setManuscript(true);
+    pn.setOriginalSpelling(false);
+    pn.addNotho(NamePart.SPECIFIC);
+    pn.addNotho(NamePart.INFRASPECIFIC);
+    pn.setEpithetQualifier(NamePart.SPECIFIC, "cf.");
+    pn.addWarning(Warnings.HOMOGLYHPS, Warnings.REMOVED_PREFIX + "xyz");
+    pn.setTaxonomicNote("s.l.");
+    pn.setNomenclaturalNote("nom. illeg.");
+    pn.setPublishedIn("Gard. Dict. 1768");
+    pn.setPublishedInYear(1767);
+    pn.setPublishedInPage("12");
+    pn.setUnparsed(" xyz");
+    pn.setSanctioningAuthor("Fr.");
+    Authorship comb = pn.getCombinationAuthorship();
+    comb.addAuthor("Mill.");
+    comb.addAuthor("DC.");
+    comb.addExAuthor("Bassier");
+    comb.setYear("1768");
+    comb.setImprintYear("1769");
+    pn.getBasionymAuthorship().addAuthor("L.");
+    pn.getBasionymAuthorship().setImprintYear("1750");
+    CombinedAuthorship sa = new CombinedAuthorship();
+    sa.getCombinationAuthorship().addAuthor("Pers.");
+    sa.setSanctioningAuthor("Fr.");
+    pn.setSpecificAuthorship(sa);
+    CombinedAuthorship ga = new CombinedAuthorship();
+    ga.getBasionymAuthorship().setYear("1753");
+    pn.setGenericAuthorship(ga.freeze());
+    return pn;
+  }
+}
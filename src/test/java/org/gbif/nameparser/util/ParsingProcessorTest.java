@@ -0,0 +1,201 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class ParsingProcessorTest {
+
+  static final NameParser ECHO = (name, authorship, rank, code) -> new ParseResult.Unparsable(NameType.OTHER, code, name);
+
+  @Test
+  public void keepsOrder() throws Exception {
+    ExecutorService exec = Executors.newFixedThreadPool(4);
+    try {
+      ListPublisher pub = new ListPublisher(names(1003));
+      ParsingProcessor proc = new ParsingProcessor(ECHO, exec, 10, 4);
+      Collector sub = new Collector(Long.MAX_VALUE);
+      pub.subscribe(proc);
+      proc.subscribe(sub);
+
+      assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+      assertNull(sub.error);
+      assertEquals(1003, sub.results.size());
+      for (int i = 0; i < 1003; i++) {
+        assertEquals("name" + i, sub.results.get(i).canonicalName());
+      }
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  @Test
+  public void backpressure() throws Exception {
+    ExecutorService exec = Executors.newFixedThreadPool(4);
+    try {
+      ListPublisher pub = new ListPublisher(names(1000));
+      ParsingProcessor proc = new ParsingProcessor(ECHO, exec, 10, 3);
+      Collector sub = new Collector(0);
+      pub.subscribe(proc);
+      proc.subscribe(sub);
+      // nothing is requested upstream without downstream demand
+      Thread.sleep(50);
+      assertEquals(0, pub.requested.get());
+
+      for (int round = 1; round <= 10; round++) {
+        sub.subscription.request(5);
+        while (sub.results.size() < round * 5) {
+          Thread.sleep(1);
+        }
+        assertTrue(pub.requested.get() <= sub.results.size() + 3 * 10);
+      }
+      sub.subscription.request(Long.MAX_VALUE);
+      assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+      assertEquals(1000, sub.results.size());
+    } finally {
+      exec.shutdown();
+    }
+  }
+
+  @Test
+  public void empty() throws Exception {
+    ListPublisher pub = new ListPublisher(Collections.emptyList());
+    ParsingProcessor proc = new ParsingProcessor(ECHO, 10, 2);
+    Collector sub = new Collector(Long.MAX_VALUE);
+    pub.subscribe(proc);
+    proc.subscribe(sub);
+    assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+    assertNull(sub.error);
+    assertTrue(sub.results.isEmpty());
+  }
+
+  @Test
+  public void failure() throws Exception {
+    NameParser failing = (name, authorship, rank, code) -> {
+      if (name.equals("name42")) {
+        throw new IllegalStateException("boom");
+      }
+      return ECHO.parse(name, authorship, rank, code);
+    };
+    ListPublisher pub = new ListPublisher(names(100));
+    ParsingProcessor proc = new ParsingProcessor(failing, 10, 2);
+    Collector sub = new Collector(Long.MAX_VALUE);
+    pub.subscribe(proc);
+    proc.subscribe(sub);
+    assertTrue(sub.done.await(10, TimeUnit.SECONDS));
+    assertTrue(sub.error instanceof IllegalStateException);
+    assertTrue(pub.cancelled);
+    // all batches before the failing one are delivered
+    assertEquals(40, sub.results.size());
+  }
+
+  @Test
+  public void singleSubscriber() throws Exception {
+    ParsingProcessor proc = new ParsingProcessor(ECHO, 10, 2);
+    proc.subscribe(new Collector(1));
+    Collector second = new Collector(1);
+    proc.subscribe(second);
+    assertTrue(second.done.await(1, TimeUnit.SECONDS));
+    assertTrue(second.error instanceof IllegalStateException);
+  }
+
+  private static List<NameInput> names(int size) {
+    List<NameInput> names = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      names.add(new NameInput("name" + i));
+    }
+    return names;
+  }
+
+  /**
+   * Emits a list synchronously on the requesting thread and tracks the total demand received.
+   */
+  static class ListPublisher implements Flow.Publisher<NameInput> {
+    private final List<NameInput> names;
+    final AtomicLong requested = new AtomicLong();
+    volatile boolean cancelled;
+
+    ListPublisher(List<NameInput> names) {
+      this.names = names;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super NameInput> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        private int idx;
+        private long demand;
+        private boolean emitting;
+
+        @Override
+        public synchronized void request(long n) {
+          requested.addAndGet(n);
+          demand += n;
+          if (emitting) {
+            return;
+          }
+          emitting = true;
+          while (demand > 0 && idx < names.size() && !cancelled) {
+            demand--;
+            subscriber.onNext(names.get(idx++));
+          }
+          if (idx == names.size() && !cancelled) {
+            cancelled = true;
+            subscriber.onComplete();
+          }
+          emitting = false;
+        }
+
+        @Override
+        public void cancel() {
+          cancelled = true;
+        }
+      });
+      if (names.isEmpty()) {
+        subscriber.onComplete();
+      }
+    }
+  }
+
+  static class Collector implements Flow.Subscriber<ParseResult> {
+    private final long initialRequest;
+    final List<ParseResult> results = Collections.synchronizedList(new ArrayList<>());
+    final CountDownLatch done = new CountDownLatch(1);
+    volatile Flow.Subscription subscription;
+    volatile Throwable error;
+
+    Collector(long initialRequest) {
+      this.initialRequest = initialRequest;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialRequest > 0) {
+        subscription.request(initialRequest);
+      }
+    }
+
+    @Override
+    public void onNext(ParseResult item) {
+      results.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      done.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      done.countDown();
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package org.gbif.nameparser.util;
+
+import org.gbif.nameparser.api.*;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TimeLimitedNameParserTest {
+
+  /**
+   * Sleeps for names starting with "slow", otherwise parses like the counting parser.
+   */
+  static final NameParser SLOW = (name, authorship, rank, code) -> {
+    if (name.startsWith("slow")) {
+      try {
+        Thread.sleep(10_000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return new CachingNameParserTest.CountingParser().parse(name, authorship, rank, code);
+  };
+
+  @Test
+  public void timeout() {
+    List<NameInput> quarantined = new CopyOnWriteArrayList<>();
+    try (TimeLimitedNameParser parser = new TimeLimitedNameParser(SLOW, Duration.ofMillis(50), 100, quarantined::add)) {
+      assertTrue(parser.parse("Abies alba").isParsable());
+
+      long start = System.nanoTime();
+      ParseResult r = parser.parse("slow name", null, Rank.SPECIES, NomCode.ZOOLOGICAL);
+      assertTrue(System.nanoTime() - start < Duration.ofSeconds(5).toNanos());
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, NomCode.ZOOLOGICAL, "slow name"), r);
+
+      // every name of a batch has its own deadline
+      List<ParseResult> results = parser.parseAll(List.of(new NameInput("Abies alba"), new NameInput("slow too"), new NameInput("Picea abies")));
+      assertTrue(results.get(0).isParsable());
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, "slow too"), results.get(1));
+      assertTrue(results.get(2).isParsable());
+
+      assertEquals(new TimeLimitedNameParser.Stats(2, 0), parser.stats());
+      assertEquals(List.of(new NameInput("slow name", null, Rank.SPECIES, NomCode.ZOOLOGICAL), new NameInput("slow too")), quarantined);
+    }
+  }
+
+  @Test
+  public void maxInFlight() throws Exception {
+    // ignores interrupts until released
+    CountDownLatch release = new CountDownLatch(1);
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    NameParser stuck = (name, authorship, rank, code) -> {
+      while (name.startsWith("stuck") && release.getCount() > 0) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          // keep going
+        }
+      }
+      return counter.parse(name, authorship, rank, code);
+    };
+    try (TimeLimitedNameParser parser = new TimeLimitedNameParser(stuck, Duration.ofMillis(50), 100, 1, null)) {
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, "stuck name"), parser.parse("stuck name"));
+      // the abandoned parse still holds the only slot
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, "Abies alba"), parser.parse("Abies alba"));
+      assertEquals(0, counter.calls.get());
+      assertEquals(new TimeLimitedNameParser.Stats(2, 0), parser.stats());
+
+      release.countDown();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (counter.calls.get() == 0 && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, counter.calls.get());
+      // the slot is freed once the abandoned parse is done
+      assertTrue(parser.parse("Abies alba").isParsable());
+    }
+  }
+
+  @Test
+  public void maxLength() {
+    CachingNameParserTest.CountingParser counter = new CachingNameParserTest.CountingParser();
+    List<NameInput> quarantined = new CopyOnWriteArrayList<>();
+    try (TimeLimitedNameParser parser = new TimeLimitedNameParser(counter, Duration.ofSeconds(10), 20, quarantined::add)) {
+      assertTrue(parser.parse("Abies alba", "Mill.", null, null).isParsable());
+      ParseResult r = parser.parse("Abies alba", "Mill. 1768 non L.", null, null);
+      assertEquals(new ParseResult.Unparsable(NameType.OTHER, "Abies alba"), r);
+      assertEquals(1, counter.calls.get());
+      assertEquals(new TimeLimitedNameParser.Stats(0, 1), parser.stats());
+      assertEquals(1, quarantined.size());
+    }
+  }
+
+  @Test
+  public void failure() {
+    NameParser failing = (name, authorship, rank, code) -> {
+      throw new IllegalStateException("boom");
+    };
+    try (TimeLimitedNameParser parser = new TimeLimitedNameParser(failing, Duration.ofSeconds(10))) {
+      assertThrows(IllegalStateException.class, () -> parser.parse("Abies"));
+      assertEquals(new TimeLimitedNameParser.Stats(0, 0), parser.stats());
+    }
+  }
+}
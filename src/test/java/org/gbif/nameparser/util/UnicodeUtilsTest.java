@@ -3,6 +3,8 @@ package org.gbif.nameparser.util;
 import org.apache.commons.lang3.time.StopWatch;
 import org.junit.Test;
 
+import java.util.regex.Pattern;
+
 import static org.gbif.nameparser.util.UnicodeUtils.foldToAscii;
 import static org.gbif.nameparser.util.UnicodeUtils.normalizeQuotes;
 import static org.junit.Assert.*;
@@ -120,6 +122,24 @@ public class UnicodeUtilsTest {
     assertEquals(composed, UnicodeUtils.replaceHomoglyphs(composed, true));
   }
 
+  /**
+   * The mark scanner of foldToAscii against the regular expression it replaces, for every code point
+   * alone, between letters and as a pair with a preceding mark.
+   */
+  @Test
+  public void testRemoveMarks() {
+    Pattern marks = Pattern.compile("\\p{M}");
+    for (int cp = 0; cp <= Character.MAX_CODE_POINT; cp++) {
+      String c = new String(Character.toChars(cp));
+      for (String x : new String[]{c, "a" + c + "b", "\u0301" + c + c}) {
+        assertEquals(marks.matcher(x).replaceAll(""), UnicodeUtils.removeMarks(x));
+      }
+    }
+    String plain = "Abies alba";
+    assertSame(plain, UnicodeUtils.removeMarks(plain));
+    assertEquals("Navas", UnicodeUtils.removeMarks("Nava\u0301s"));
+  }
+
   @Test
   public void testFoldToAscii() throws Exception {
     assertEquals("Navas, 1929", foldToAscii("Navás, 1929"));